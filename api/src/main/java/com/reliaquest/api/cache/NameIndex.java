@@ -0,0 +1,94 @@
+package com.reliaquest.api.cache;
+
+import com.reliaquest.api.dto.EmployeeDTO;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.NavigableSet;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+/**
+ * Case-folded trigram index over employee names, maintained incrementally as employees are added and removed.
+ *
+ * <p>A name matches when its lower-cased form contains the lower-cased fragment, exactly as
+ * {@code name.toLowerCase().contains(fragment.toLowerCase())} would decide. Any such name necessarily contains every
+ * trigram of the fragment, so only the shortest posting list among the fragment's trigrams has to be checked. Names
+ * are folded once when indexed rather than on every query. Not thread-safe on its own; {@link Roster} guards it with
+ * its lock.
+ */
+class NameIndex {
+
+    private static final int GRAM_LENGTH = 3;
+
+    private final NavigableMap<Long, IndexedName> names = new TreeMap<>();
+    private final Map<String, NavigableSet<Long>> postings = new HashMap<>();
+
+    void add(RosterEntry entry) {
+        String name = entry.employee().getName();
+        if (name == null) {
+            return;
+        }
+        String folded = name.toLowerCase();
+        names.put(entry.seq(), new IndexedName(folded, entry.employee()));
+        for (int i = 0; i + GRAM_LENGTH <= folded.length(); i++) {
+            postings.computeIfAbsent(folded.substring(i, i + GRAM_LENGTH), gram -> new TreeSet<>())
+                    .add(entry.seq());
+        }
+    }
+
+    void remove(RosterEntry entry) {
+        IndexedName removed = names.remove(entry.seq());
+        if (removed == null) {
+            return;
+        }
+        String folded = removed.folded();
+        for (int i = 0; i + GRAM_LENGTH <= folded.length(); i++) {
+            String gram = folded.substring(i, i + GRAM_LENGTH);
+            NavigableSet<Long> posting = postings.get(gram);
+            if (posting != null && posting.remove(entry.seq()) && posting.isEmpty()) {
+                postings.remove(gram);
+            }
+        }
+    }
+
+    /**
+     * @return employees whose name contains {@code fragment}, ignoring case, in roster order
+     */
+    List<EmployeeDTO> search(String fragment) {
+        String folded = fragment.toLowerCase();
+        if (folded.length() < GRAM_LENGTH) {
+            List<EmployeeDTO> matches = new ArrayList<>();
+            for (IndexedName name : names.values()) {
+                if (name.folded().contains(folded)) {
+                    matches.add(name.employee());
+                }
+            }
+            return matches;
+        }
+
+        NavigableSet<Long> candidates = null;
+        for (int i = 0; i + GRAM_LENGTH <= folded.length(); i++) {
+            NavigableSet<Long> posting = postings.get(folded.substring(i, i + GRAM_LENGTH));
+            if (posting == null) {
+                return List.of();
+            }
+            if (candidates == null || posting.size() < candidates.size()) {
+                candidates = posting;
+            }
+        }
+
+        List<EmployeeDTO> matches = new ArrayList<>();
+        for (Long seq : candidates) {
+            IndexedName name = names.get(seq);
+            if (name.folded().contains(folded)) {
+                matches.add(name.employee());
+            }
+        }
+        return matches;
+    }
+
+    private record IndexedName(String folded, EmployeeDTO employee) {}
+}
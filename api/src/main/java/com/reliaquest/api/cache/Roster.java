@@ -0,0 +1,190 @@
+package com.reliaquest.api.cache;
+
+import com.reliaquest.api.dto.EmployeeChangeDTO;
+import com.reliaquest.api.dto.EmployeeDTO;
+import com.reliaquest.api.dto.RosterSnapshotDTO;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.OptionalInt;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Thread-safe, locally held copy of the mock server's employee roster.
+ *
+ * <p>Employees keep the order in which the upstream returned them so list responses look exactly like an uncached
+ * fetch. Writes made through this API and changes read from the upstream's change feed are applied in place,
+ * together with the indexes kept alongside the roster; readers get an immutable list that is only rebuilt after a
+ * write.
+ */
+public class Roster {
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<String, RosterEntry> entries = new LinkedHashMap<>();
+    private final SalaryIndex salaryIndex = new SalaryIndex();
+    private final NameIndex nameIndex = new NameIndex();
+
+    private long nextSeq;
+    private volatile long version;
+    private volatile long loadedAt;
+    private volatile List<EmployeeDTO> snapshot;
+
+    public Roster(List<EmployeeDTO> employees, long loadedAt) {
+        this(employees, RosterSnapshotDTO.UNVERSIONED, loadedAt);
+    }
+
+    public Roster(List<EmployeeDTO> employees, long version, long loadedAt) {
+        employees.forEach(this::index);
+        this.version = version;
+        this.loadedAt = loadedAt;
+    }
+
+    /**
+     * @return immutable list of all employees in upstream order
+     */
+    public List<EmployeeDTO> employees() {
+        List<EmployeeDTO> current = snapshot;
+        if (current != null) {
+            return current;
+        }
+        lock.readLock().lock();
+        try {
+            current = entries.values().stream().map(RosterEntry::employee).toList();
+            snapshot = current;
+            return current;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return entries.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * @return employees whose name contains {@code fragment}, ignoring case, in roster order
+     */
+    public List<EmployeeDTO> searchByName(String fragment) {
+        lock.readLock().lock();
+        try {
+            return nameIndex.search(fragment);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * @return the highest salary on the roster, or empty if the roster is empty
+     */
+    public OptionalInt highestSalary() {
+        lock.readLock().lock();
+        try {
+            return salaryIndex.highestSalary();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * @return up to {@code k} of the highest earning employees, highest first; ties keep roster order
+     */
+    public List<EmployeeDTO> topEarners(int k) {
+        lock.readLock().lock();
+        try {
+            return salaryIndex.top(k);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * @return the upstream version this roster is in sync with, or {@link RosterSnapshotDTO#UNVERSIONED}
+     */
+    public long version() {
+        return version;
+    }
+
+    /**
+     * @return the {@link System#nanoTime()} at which this roster was last synced with upstream
+     */
+    public long loadedAt() {
+        return loadedAt;
+    }
+
+    void put(EmployeeDTO employee) {
+        lock.writeLock().lock();
+        try {
+            index(employee);
+            snapshot = null;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    void remove(String id) {
+        lock.writeLock().lock();
+        try {
+            if (unindex(id)) {
+                snapshot = null;
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /*
+     * All changes become visible at once, so readers never see a feed half applied.
+     */
+    void apply(List<EmployeeChangeDTO> changes, long version, long syncedAt) {
+        lock.writeLock().lock();
+        try {
+            for (EmployeeChangeDTO change : changes) {
+                switch (change.getType()) {
+                    case CREATED -> index(change.getEmployee());
+                    case DELETED -> unindex(change.getEmployee().getId());
+                }
+            }
+            if (!changes.isEmpty()) {
+                snapshot = null;
+            }
+            this.version = version;
+            this.loadedAt = syncedAt;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /*
+     * Replacing an employee keeps its original position, as a LinkedHashMap does for its keys.
+     */
+    private void index(EmployeeDTO employee) {
+        RosterEntry previous = entries.get(employee.getId());
+        if (previous != null) {
+            unindex(previous);
+        }
+        RosterEntry entry = new RosterEntry(previous != null ? previous.seq() : nextSeq++, employee);
+        entries.put(employee.getId(), entry);
+        salaryIndex.add(entry);
+        nameIndex.add(entry);
+    }
+
+    private boolean unindex(String id) {
+        RosterEntry removed = entries.remove(id);
+        if (removed == null) {
+            return false;
+        }
+        unindex(removed);
+        return true;
+    }
+
+    private void unindex(RosterEntry entry) {
+        salaryIndex.remove(entry);
+        nameIndex.remove(entry);
+    }
+}
@@ -0,0 +1,295 @@
+package com.reliaquest.api.cache;
+
+import com.reliaquest.api.config.ApiProperties;
+import com.reliaquest.api.dto.ChangeFeedDTO;
+import com.reliaquest.api.dto.EmployeeChangeDTO;
+import com.reliaquest.api.dto.EmployeeDTO;
+import com.reliaquest.api.dto.RosterSnapshotDTO;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+import java.util.function.LongFunction;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+import lombok.extern.slf4j.Slf4j;
+import reactor.core.publisher.Mono;
+
+/**
+ * In-process cache of the upstream roster with stale-while-revalidate semantics.
+ *
+ * <p>A roster younger than {@code ttl} is served as is. Past that, the stale copy keeps being served for up to
+ * {@code maxStale} while a single background refresh runs; only when nothing usable is cached do readers wait for the
+ * upstream. Creates and deletes made through this API are written through so a client always sees its own writes,
+ * including when they race with a refresh that was already in flight.
+ *
+ * <p>A roster that knows its upstream version is refreshed by applying the changes made since then rather than by
+ * fetching everything again. Only when the change feed cannot cover the gap is the whole roster reloaded.
+ *
+ * <p>Reads are counted by whether they were fresh, stale, missed or expired, and refreshes are timed. Every meter is
+ * tagged with the upstream shard whose roster this caches.
+ */
+@Slf4j
+public class RosterCache {
+
+    private final ApiProperties.Cache properties;
+    private final String shard;
+    private final Supplier<Mono<RosterSnapshotDTO>> loader;
+    private final LongFunction<Mono<ChangeFeedDTO>> changeLoader;
+    private final LongSupplier nanoClock;
+    private final MeterRegistry meterRegistry;
+
+    private final AtomicReference<Mono<Roster>> inFlight = new AtomicReference<>();
+    private final Lock writeLock = new ReentrantLock();
+    private final List<Consumer<Roster>> writesDuringRefresh = new ArrayList<>();
+
+    private volatile Roster current;
+
+    /**
+     * @param shard names the upstream shard the roster is loaded from
+     * @param loader fetches the whole roster
+     * @param changeLoader fetches the changes made after a version, or completes empty if they are not all available
+     */
+    public RosterCache(
+            ApiProperties.Cache properties,
+            String shard,
+            Supplier<Mono<RosterSnapshotDTO>> loader,
+            LongFunction<Mono<ChangeFeedDTO>> changeLoader,
+            MeterRegistry meterRegistry) {
+        this(properties, shard, loader, changeLoader, meterRegistry, System::nanoTime);
+    }
+
+    RosterCache(
+            ApiProperties.Cache properties,
+            String shard,
+            Supplier<Mono<RosterSnapshotDTO>> loader,
+            LongFunction<Mono<ChangeFeedDTO>> changeLoader,
+            MeterRegistry meterRegistry,
+            LongSupplier nanoClock) {
+        this.properties = properties;
+        this.shard = shard;
+        this.loader = loader;
+        this.changeLoader = changeLoader;
+        this.nanoClock = nanoClock;
+        this.meterRegistry = meterRegistry;
+        Gauge.builder("api.cache.roster.size", this, cache -> cache.current != null ? cache.current.size() : 0)
+                .description("Employees in the cached roster")
+                .tag("shard", shard)
+                .register(meterRegistry);
+        Gauge.builder("api.cache.roster.age", this, RosterCache::ageSeconds)
+                .description("Seconds since the cached roster was last loaded or synced")
+                .baseUnit("seconds")
+                .tag("shard", shard)
+                .register(meterRegistry);
+    }
+
+    /**
+     * @return the cached roster if still usable, otherwise one freshly loaded from upstream
+     */
+    public Mono<Roster> roster() {
+        if (!properties.isEnabled()) {
+            count("bypassed");
+            return Mono.defer(loader).map(this::toRoster);
+        }
+
+        Roster roster = current;
+        if (roster == null) {
+            count("miss");
+            return refresh();
+        }
+
+        long age = nanoClock.getAsLong() - roster.loadedAt();
+        if (age < properties.getTtl().toNanos()) {
+            count("fresh");
+            return Mono.just(roster);
+        }
+        if (age < properties.getTtl().plus(properties.getMaxStale()).toNanos()) {
+            log.debug("Serving stale roster ({} ms old) while refreshing", age / 1_000_000);
+            count("stale");
+            refresh();
+            return Mono.just(roster);
+        }
+        count("expired");
+        return refresh();
+    }
+
+    /**
+     * Writes a newly created or updated employee through to the cached roster.
+     */
+    public void put(EmployeeDTO employee) {
+        write(roster -> roster.put(employee));
+    }
+
+    /**
+     * Removes a deleted employee from the cached roster.
+     */
+    public void remove(String id) {
+        write(roster -> roster.remove(id));
+    }
+
+    /**
+     * Drops the cached roster so the next read goes upstream.
+     */
+    public void invalidate() {
+        current = null;
+    }
+
+    private void write(Consumer<Roster> mutation) {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        writeLock.lock();
+        try {
+            Roster roster = current;
+            if (roster != null) {
+                mutation.accept(roster);
+            }
+            if (inFlight.get() != null) {
+                writesDuringRefresh.add(mutation);
+            }
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    private Mono<Roster> refresh() {
+        Mono<Roster> existing = inFlight.get();
+        if (existing != null) {
+            return existing;
+        }
+
+        Timer.Sample sample = Timer.start(meterRegistry);
+        Mono<Roster> load = sync(current)
+                .doOnEach(signal -> {
+                    if (signal.isOnNext() || signal.isOnError()) {
+                        sample.stop(refreshTimer(signal.isOnNext() ? "success" : "failure"));
+                    }
+                })
+                .doFinally(signal -> {
+                    discardWritesDuringRefresh();
+                    inFlight.set(null);
+                })
+                .cache();
+        if (!inFlight.compareAndSet(null, load)) {
+            return refresh();
+        }
+
+        log.debug("Refreshing roster from upstream");
+        load.subscribe(roster -> {}, error -> log.warn("Roster refresh failed: {}", error.getMessage()));
+        return load;
+    }
+
+    private Mono<Roster> sync(Roster base) {
+        if (base == null || base.version() == RosterSnapshotDTO.UNVERSIONED) {
+            return reload();
+        }
+        long since = base.version();
+        return Mono.defer(() -> changeLoader.apply(since))
+                .filter(feed -> isContiguous(since, feed))
+                .map(feed -> advance(base, feed))
+                .doOnNext(roster -> syncs("delta").increment())
+                .switchIfEmpty(Mono.defer(() -> {
+                    log.info("Change feed cannot cover the roster since version {}, reloading it", since);
+                    return reload();
+                }));
+    }
+
+    private Mono<Roster> reload() {
+        return Mono.defer(loader)
+                .map(snapshot -> publish(toRoster(snapshot)))
+                .doOnNext(roster -> syncs("reload").increment());
+    }
+
+    private Roster toRoster(RosterSnapshotDTO snapshot) {
+        return new Roster(snapshot.getEmployees(), snapshot.getVersion(), nanoClock.getAsLong());
+    }
+
+    /*
+     * Versions increase by one per change, so anything else means the feed skipped something.
+     */
+    private static boolean isContiguous(long since, ChangeFeedDTO feed) {
+        long expected = since;
+        for (EmployeeChangeDTO change : feed.getChanges()) {
+            if (change.getVersion() != ++expected) {
+                return false;
+            }
+        }
+        return expected == feed.getVersion();
+    }
+
+    private Roster advance(Roster roster, ChangeFeedDTO feed) {
+        writeLock.lock();
+        try {
+            roster.apply(feed.getChanges(), feed.getVersion(), nanoClock.getAsLong());
+            log.debug(
+                    "Applied {} upstream changes, roster now at version {}",
+                    feed.getChanges().size(),
+                    feed.getVersion());
+            return publish(roster);
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    /*
+     * A write that lands while the fetch is in flight may or may not be reflected in its response, so replay every
+     * such write onto the fresh roster before it becomes visible. Writes are idempotent, so replaying is always safe.
+     */
+    private Roster publish(Roster roster) {
+        writeLock.lock();
+        try {
+            writesDuringRefresh.forEach(mutation -> mutation.accept(roster));
+            writesDuringRefresh.clear();
+            current = roster;
+            log.debug("Cached roster of {} employees", roster.size());
+            return roster;
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    private void count(String result) {
+        Counter.builder("api.cache.roster.reads")
+                .description("Roster reads by how the cache could serve them")
+                .tag("shard", shard)
+                .tag("result", result)
+                .register(meterRegistry)
+                .increment();
+    }
+
+    private Timer refreshTimer(String outcome) {
+        return Timer.builder("api.cache.roster.refreshes")
+                .description("Roster refreshes from upstream, whether by change feed or reload")
+                .tag("shard", shard)
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+
+    private Counter syncs(String method) {
+        return Counter.builder("api.cache.roster.syncs")
+                .description("Successful roster refreshes by how they were done")
+                .tag("shard", shard)
+                .tag("method", method)
+                .register(meterRegistry);
+    }
+
+    private double ageSeconds() {
+        Roster roster = current;
+        return roster == null ? Double.NaN : (nanoClock.getAsLong() - roster.loadedAt()) / 1e9;
+    }
+
+    private void discardWritesDuringRefresh() {
+        writeLock.lock();
+        try {
+            writesDuringRefresh.clear();
+        } finally {
+            writeLock.unlock();
+        }
+    }
+}
@@ -0,0 +1,9 @@
+package com.reliaquest.api.cache;
+
+import com.reliaquest.api.dto.EmployeeDTO;
+
+/**
+ * An employee together with its position in the roster. Indexes use {@code seq} to break ties so their results come
+ * back in the same order a scan of the roster would produce.
+ */
+record RosterEntry(long seq, EmployeeDTO employee) {}
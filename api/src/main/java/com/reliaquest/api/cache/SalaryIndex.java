@@ -0,0 +1,58 @@
+package com.reliaquest.api.cache;
+
+import com.reliaquest.api.dto.EmployeeDTO;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.NavigableSet;
+import java.util.OptionalInt;
+import java.util.TreeSet;
+
+/**
+ * Roster entries ordered by salary, highest first, maintained incrementally as employees are added and removed.
+ *
+ * <p>Equal salaries keep roster order, matching a stable descending sort of the full roster. Not thread-safe on its
+ * own; {@link Roster} guards it with its lock.
+ */
+class SalaryIndex {
+
+    private static final Comparator<RosterEntry> HIGHEST_FIRST = Comparator.comparingInt(
+                    (RosterEntry entry) -> entry.employee().getSalary())
+            .reversed()
+            .thenComparingLong(RosterEntry::seq);
+
+    private final NavigableSet<RosterEntry> entries = new TreeSet<>(HIGHEST_FIRST);
+
+    private RosterEntry highest;
+
+    void add(RosterEntry entry) {
+        entries.add(entry);
+        if (highest == null || HIGHEST_FIRST.compare(entry, highest) < 0) {
+            highest = entry;
+        }
+    }
+
+    void remove(RosterEntry entry) {
+        if (entries.remove(entry) && entry == highest) {
+            highest = entries.isEmpty() ? null : entries.first();
+        }
+    }
+
+    OptionalInt highestSalary() {
+        return highest == null ? OptionalInt.empty() : OptionalInt.of(highest.employee().getSalary());
+    }
+
+    /**
+     * @return up to {@code k} employees with the highest salaries, highest first
+     */
+    List<EmployeeDTO> top(int k) {
+        List<EmployeeDTO> top = new ArrayList<>(Math.min(k, entries.size()));
+        for (RosterEntry entry : entries) {
+            if (top.size() == k) {
+                break;
+            }
+            top.add(entry.employee());
+        }
+        return top;
+    }
+}
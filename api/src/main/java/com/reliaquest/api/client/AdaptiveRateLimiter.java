@@ -0,0 +1,158 @@
+package com.reliaquest.api.client;
+
+import com.reliaquest.api.config.ApiProperties;
+import com.reliaquest.api.exception.UpstreamRateLimitedException;
+import java.time.Duration;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.LongSupplier;
+import lombok.extern.slf4j.Slf4j;
+import reactor.core.publisher.Mono;
+
+/**
+ * Client-side token bucket that learns the mock server's request budget from its 429 responses.
+ *
+ * <p>The mock server accepts a fixed number of requests and then rejects everything until a cooldown has passed
+ * since the last request it accepted. This bucket mirrors that: it hands out {@code budget} permits, then holds callers
+ * back until the learned cooldown has elapsed since the last permit. Each 429 resets the budget to the number of
+ * requests the upstream actually accepted in that window and the cooldown to the {@code Retry-After} it sent. A
+ * window that is used up without a 429 raises the budget by one, so an overly cautious estimate recovers.
+ *
+ * <p>Callers that would have to wait past their deadline are shed straight away instead of being queued.
+ */
+@Slf4j
+public class AdaptiveRateLimiter {
+
+    private static final int UNKNOWN = Integer.MAX_VALUE;
+
+    private final LongSupplier nanoClock;
+    private final Lock lock = new ReentrantLock();
+
+    private int budget;
+    private int remaining;
+    private int accepted;
+    private boolean rejectedInWindow;
+    private long cooldown;
+    private long lastGrant;
+    private long blockedUntil;
+
+    public AdaptiveRateLimiter(ApiProperties.RateLimit properties) {
+        this(properties, System::nanoTime);
+    }
+
+    AdaptiveRateLimiter(ApiProperties.RateLimit properties, LongSupplier nanoClock) {
+        this.nanoClock = nanoClock;
+        this.budget = properties.getInitialBudget() > 0 ? properties.getInitialBudget() : UNKNOWN;
+        this.remaining = budget;
+        this.cooldown = properties.getDefaultRetryAfter().toNanos();
+        this.blockedUntil = nanoClock.getAsLong();
+    }
+
+    /**
+     * Completes once a permit is granted, or fails with {@link UpstreamRateLimitedException} if that would take
+     * longer than {@code deadline} (a {@link System#nanoTime()} instant).
+     */
+    public Mono<Void> acquire(long deadline) {
+        return Mono.defer(() -> {
+            long now = nanoClock.getAsLong();
+            long wait = tryAcquire(now);
+            if (wait == 0) {
+                return Mono.empty();
+            }
+            if (now + wait > deadline) {
+                return Mono.error(new UpstreamRateLimitedException(Duration.ofNanos(wait)));
+            }
+            return Mono.delay(Duration.ofNanos(wait)).then(acquire(deadline));
+        });
+    }
+
+    /**
+     * Records that the upstream accepted a request, whatever its outcome.
+     */
+    public void onAccepted() {
+        lock.lock();
+        try {
+            accepted++;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Records a 429 and blocks all permits until {@code retryAfter} has passed.
+     */
+    public void onRejected(Duration retryAfter) {
+        long now = nanoClock.getAsLong();
+        lock.lock();
+        try {
+            if (now < blockedUntil) {
+                return; // another in-flight request already reported this window
+            }
+            budget = Math.max(1, accepted);
+            cooldown = retryAfter.toNanos();
+            blockedUntil = now + cooldown;
+            remaining = budget;
+            accepted = 0;
+            rejectedInWindow = true;
+            log.info("Upstream rate limited after {} requests, backing off for {}s", budget, retryAfter.toSeconds());
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * @return whether a permit asked for now would have to wait, after a 429 or once the budget is used up
+     */
+    public boolean isBlocked() {
+        long now = nanoClock.getAsLong();
+        lock.lock();
+        try {
+            return now < blockedUntil || (remaining == 0 && now < lastGrant + cooldown);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * @return the number of requests currently believed to be allowed per window
+     */
+    public int budget() {
+        lock.lock();
+        try {
+            return budget;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /*
+     * Grants a permit and returns zero, or returns how long to wait before asking again.
+     */
+    private long tryAcquire(long now) {
+        lock.lock();
+        try {
+            if (now < blockedUntil) {
+                return blockedUntil - now;
+            }
+            if (remaining == 0) {
+                long resumeAt = lastGrant + cooldown;
+                if (now < resumeAt) {
+                    return resumeAt - now;
+                }
+                if (!rejectedInWindow && budget != UNKNOWN) {
+                    budget++;
+                }
+                remaining = budget;
+                accepted = 0;
+                rejectedInWindow = false;
+            }
+            if (remaining != UNKNOWN) {
+                remaining--;
+            }
+            lastGrant = now;
+            return 0;
+        } finally {
+            lock.unlock();
+        }
+    }
+}
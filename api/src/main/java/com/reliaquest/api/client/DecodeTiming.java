@@ -0,0 +1,102 @@
+package com.reliaquest.api.client;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+import org.reactivestreams.Publisher;
+import org.reactivestreams.Subscription;
+import org.springframework.core.io.buffer.DataBuffer;
+import reactor.core.CoreSubscriber;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Operators;
+import reactor.util.context.Context;
+
+/**
+ * Records how long decoding upstream responses of one wire format takes, apart from waiting for them, in
+ * {@code api.upstream.decode} by {@code body} and {@code format}.
+ *
+ * <p>Buffered bodies, i.e. every {@code bodyToMono}, are timed around the single decode call. Streamed bodies such as
+ * the roster are decoded as each chunk arrives, so for them only the time spent processing chunks is added up, which
+ * includes handing decoded elements to the subscriber; the gaps between chunks are not counted.
+ */
+final class DecodeTiming {
+
+    private final Timer buffered;
+    private final Timer streamed;
+
+    DecodeTiming(String format, MeterRegistry meterRegistry) {
+        this.buffered = timer("buffered", format, meterRegistry);
+        this.streamed = timer("streamed", format, meterRegistry);
+    }
+
+    static Timer timer(String body, String format, MeterRegistry meterRegistry) {
+        return Timer.builder("api.upstream.decode")
+                .description("Time spent deserializing upstream response bodies")
+                .tag("body", body)
+                .tag("format", format)
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+    }
+
+    <T> T buffered(Supplier<T> decode) {
+        long start = System.nanoTime();
+        try {
+            return decode.get();
+        } finally {
+            buffered.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    Flux<DataBuffer> streamed(Publisher<DataBuffer> input) {
+        return Flux.from(input)
+                .transform(Operators.<DataBuffer, DataBuffer>lift(
+                        (scannable, subscriber) -> new ChunkTimingSubscriber(subscriber)));
+    }
+
+    /*
+     * Chunks are decoded synchronously inside onNext, so timing the downstream onNext calls times the decoding.
+     */
+    private class ChunkTimingSubscriber implements CoreSubscriber<DataBuffer> {
+
+        private final CoreSubscriber<? super DataBuffer> actual;
+        private final AtomicLong elapsed = new AtomicLong();
+
+        ChunkTimingSubscriber(CoreSubscriber<? super DataBuffer> actual) {
+            this.actual = actual;
+        }
+
+        @Override
+        public Context currentContext() {
+            return actual.currentContext();
+        }
+
+        @Override
+        public void onSubscribe(Subscription subscription) {
+            actual.onSubscribe(subscription);
+        }
+
+        @Override
+        public void onNext(DataBuffer chunk) {
+            long start = System.nanoTime();
+            try {
+                actual.onNext(chunk);
+            } finally {
+                elapsed.addAndGet(System.nanoTime() - start);
+            }
+        }
+
+        @Override
+        public void onError(Throwable error) {
+            streamed.record(elapsed.get(), TimeUnit.NANOSECONDS);
+            actual.onError(error);
+        }
+
+        @Override
+        public void onComplete() {
+            streamed.record(elapsed.get(), TimeUnit.NANOSECONDS);
+            actual.onComplete();
+        }
+    }
+}
@@ -0,0 +1,439 @@
+package com.reliaquest.api.client;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.reliaquest.api.config.ApiProperties;
+import com.reliaquest.api.dto.ApiResponseWrapper;
+import com.reliaquest.api.dto.ChangeFeedDTO;
+import com.reliaquest.api.dto.EmployeeDTO;
+import com.reliaquest.api.dto.EmployeeQueryDTO;
+import com.reliaquest.api.dto.PageDTO;
+import com.reliaquest.api.dto.RosterSnapshotDTO;
+import com.reliaquest.api.exception.UpstreamRateLimitedException;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.reactive.function.client.WebClientRequestException;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Reactive client for one shard of the mock employee servers. Every upstream call made by the API goes through one of
+ * these, picked by {@link UpstreamShards}.
+ *
+ * <p>A shard may be served by several identical replicas, each paced by a {@link RateLimitedExecutor} of its own. The
+ * roster reads that feed the cache carry versions and ETags that only mean something to the replica that issued them,
+ * so they go to the primary, as do writes. The other reads go to the replica whose {@link ReplicaLoad} is lowest,
+ * passing over replicas whose rate limit is currently holding calls back, and those answered in one response are
+ * {@linkplain HedgedReads hedged} on the next best replica, and fail over to it at once if their replica is rate
+ * limiting, erroring or unreachable. Streams are only balanced, since they are relayed as they arrive.
+ *
+ * <p>Concurrent reads of the same resource are coalesced through {@link SingleFlight}, so upstream traffic scales
+ * with the number of distinct requests rather than with inbound concurrency. Writes are never coalesced. Every call,
+ * coalesced or not, is paced by the {@link RateLimitedExecutor} so the upstream's rate limit is respected up front and
+ * 429s are retried within a deadline.
+ *
+ * <p>Roster reads are conditional: the last roster is kept with its ETag and reused when the upstream answers 304.
+ * With {@code api.batching.enabled}, concurrent creates and deletes are grouped by a {@link MicroBatcher} and sent
+ * through the upstream's batch endpoints.
+ *
+ * <p>Responses are asked for in {@code api.upstream.wire-format}, with JSON as the fallback for upstreams that cannot
+ * produce it, and decoded according to the content type that actually came back.
+ */
+public class EmployeeClient {
+
+    public static final MediaType APPLICATION_SMILE = new MediaType("application", "x-jackson-smile");
+
+    private static final String ROSTER_KEY = "roster";
+    private static final String ROSTER_VERSION_HEADER = "X-Roster-Version";
+    private static final String ROSTER_EPOCH_HEADER = "X-Roster-Epoch";
+
+    private final List<Replica> replicas;
+    private final Replica primary;
+    private final HedgedReads hedgedReads;
+    private final SingleFlight<String, RosterSnapshotDTO> rosterReads;
+    private final SingleFlight<String, EmployeeDTO> employeeReads;
+    private final AtomicReference<TaggedRoster> lastRoster = new AtomicReference<>();
+    private final AtomicReference<String> rosterEpoch = new AtomicReference<>();
+    private final MicroBatcher<Map<String, Object>, EmployeeDTO> creates;
+    private final MicroBatcher<String, ApiResponseWrapper<Boolean>> deletes;
+    private final StreamingRosterDecoder jsonRosterDecoder;
+    private final StreamingRosterDecoder smileRosterDecoder;
+    private final MediaType[] rosterTypes;
+    private final MediaType[] documentTypes;
+
+    public EmployeeClient(WebClient webClient, ApiProperties properties, MeterRegistry meterRegistry) {
+        this("default", List.of(webClient), properties, meterRegistry);
+    }
+
+    /**
+     * @param shard names the shard in metrics
+     * @param replicas a client per replica of the shard, its primary first
+     */
+    public EmployeeClient(
+            String shard, List<WebClient> replicas, ApiProperties properties, MeterRegistry meterRegistry) {
+        if (replicas.isEmpty()) {
+            throw new IllegalArgumentException("A shard needs at least one replica");
+        }
+        this.replicas = replicas.stream()
+                .map(webClient -> {
+                    ReplicaLoad load = new ReplicaLoad();
+                    return new Replica(
+                            webClient.mutate().filter(load).build(),
+                            load,
+                            new RateLimitedExecutor(properties.getRateLimit(), meterRegistry));
+                })
+                .toList();
+        this.primary = this.replicas.get(0);
+        this.hedgedReads = new HedgedReads(
+                properties.getUpstream().getHedging(), shard, meterRegistry, EmployeeClient::isReplicaFailure);
+        this.rosterReads = new SingleFlight<>("getAllEmployees", meterRegistry);
+        this.employeeReads = new SingleFlight<>("getById", meterRegistry);
+        this.jsonRosterDecoder = new StreamingRosterDecoder(new JsonFactory(), meterRegistry);
+        this.smileRosterDecoder = new StreamingRosterDecoder(new SmileFactory(), meterRegistry);
+        if (properties.getUpstream().getWireFormat() == ApiProperties.WireFormat.SMILE) {
+            this.rosterTypes = new MediaType[] {APPLICATION_SMILE, fallback(MediaType.APPLICATION_NDJSON)};
+            this.documentTypes = new MediaType[] {APPLICATION_SMILE, fallback(MediaType.APPLICATION_JSON)};
+        } else {
+            this.rosterTypes = new MediaType[] {MediaType.APPLICATION_NDJSON};
+            this.documentTypes = new MediaType[] {MediaType.APPLICATION_JSON};
+        }
+        ApiProperties.Batching batching = properties.getBatching();
+        if (batching.isEnabled()) {
+            this.creates =
+                    new MicroBatcher<>(batching.getWindow(), batching.getMaxSize(), this::createAll, this::createOne);
+            this.deletes = new MicroBatcher<>(
+                    batching.getWindow(), batching.getMaxSize(), this::deleteAllByName, this::deleteOneByName);
+        } else {
+            this.creates = null;
+            this.deletes = null;
+        }
+    }
+
+    /**
+     * Fetches the whole roster. It is read from the stream endpoint and decoded one employee at a time, so the
+     * response body is never buffered as a whole.
+     */
+    public Mono<RosterSnapshotDTO> fetchAll() {
+        return rosterReads.execute(ROSTER_KEY, () -> primary.executor().execute(true, () -> {
+            TaggedRoster previous = lastRoster.get();
+            return primary.webClient()
+                    .get()
+                    .uri("/stream")
+                    .attribute(UpstreamMetrics.OPERATION, "fetchAll")
+                    .accept(rosterTypes)
+                    .headers(headers -> {
+                        if (previous != null) {
+                            headers.setIfNoneMatch(previous.etag());
+                        }
+                    })
+                    .retrieve()
+                    .toEntityFlux(EmployeeDTO.class)
+                    .flatMap(entity -> {
+                        if (previous != null && entity.getStatusCode().isSameCodeAs(HttpStatus.NOT_MODIFIED)) {
+                            return Mono.just(previous.roster());
+                        }
+                        return entity.getBody()
+                                .collectList()
+                                .map(employees -> remember(
+                                        entity.getHeaders(),
+                                        new RosterSnapshotDTO(rosterVersion(entity.getHeaders()), employees)));
+                    });
+        }));
+    }
+
+    /**
+     * Fetches the roster changes made after {@code version}. Completes empty when the upstream no longer retains all of
+     * them, in which case the caller has to fetch the whole roster again. The version is sent with the epoch of the
+     * last roster fetched, so that an upstream restarted since then refuses it rather than answering with changes
+     * after an unrelated version of the same number.
+     */
+    public Mono<ChangeFeedDTO> fetchChanges(long version) {
+        String epoch = rosterEpoch.get();
+        return primary.executor()
+                .execute(true, () -> primary.webClient()
+                        .get()
+                        .uri(
+                                epoch != null ? "/changes?since={since}&epoch={epoch}" : "/changes?since={since}",
+                                version,
+                                epoch)
+                        .attribute(UpstreamMetrics.OPERATION, "fetchChanges")
+                        .accept(documentTypes)
+                        .retrieve()
+                        .bodyToMono(new ParameterizedTypeReference<ApiResponseWrapper<ChangeFeedDTO>>() {})
+                        .mapNotNull(ApiResponseWrapper::getData))
+                .onErrorResume(WebClientResponseException.Gone.class, e -> Mono.empty());
+    }
+
+    /**
+     * Streams the roster as the upstream sends it, for callers that can process employees incrementally.
+     */
+    public Flux<EmployeeDTO> streamAll() {
+        return Flux.defer(() -> {
+            Replica replica = leastLoaded(null);
+            return replica.executor().executeMany(() -> rosterStream(replica.webClient()));
+        });
+    }
+
+    /**
+     * Reads the roster stream straight into {@code aggregation}, decoding only the fields it needs. A retried call
+     * starts over with a new aggregation.
+     */
+    public <R> Mono<R> aggregateAll(Supplier<RosterAggregation<R>> aggregation) {
+        return balancedRead("aggregateAll", webClient -> webClient
+                .get()
+                .uri("/stream")
+                .attribute(UpstreamMetrics.OPERATION, "aggregateAll")
+                .accept(rosterTypes)
+                .retrieve()
+                .toEntityFlux(DataBuffer.class)
+                .flatMap(entity -> rosterDecoder(entity.getHeaders().getContentType())
+                        .aggregate(entity.getBody(), aggregation)));
+    }
+
+    /**
+     * Fetches one employee from the least loaded replica. Other replicas than the primary do not see the writes made
+     * through it, so an employee they do not have is looked for on the primary before giving up.
+     */
+    public Mono<EmployeeDTO> fetchById(String id) {
+        return employeeReads.execute(id, () -> balancedRead("fetchById", webClient -> fetchById(webClient, id)
+                .onErrorResume(
+                        WebClientResponseException.NotFound.class,
+                        e -> webClient == primary.webClient() ? Mono.error(e) : fetchFromPrimary(id))));
+    }
+
+    /**
+     * Fetches one employee from the primary, which has seen every write made through it.
+     */
+    public Mono<EmployeeDTO> fetchFromPrimary(String id) {
+        return primary.executor().execute(true, () -> fetchById(primary.webClient(), id));
+    }
+
+    /**
+     * Fetches one page of the employees matching {@code query}, filtered by the upstream. Cursors only mean something
+     * to the replica that handed them out, so queries go to the primary.
+     */
+    public Mono<PageDTO> query(EmployeeQueryDTO query, long cursor, int limit) {
+        Map<String, Object> parameters = queryParameters(query, cursor, limit);
+        return primary.executor().execute(true, () -> primary.webClient()
+                .get()
+                .uri(uri -> {
+                    uri.path("/query");
+                    parameters.keySet().forEach(name -> uri.queryParam(name, "{" + name + "}"));
+                    return uri.build(parameters);
+                })
+                .attribute(UpstreamMetrics.OPERATION, "query")
+                .accept(documentTypes)
+                .retrieve()
+                .bodyToMono(new ParameterizedTypeReference<ApiResponseWrapper<PageDTO>>() {})
+                .mapNotNull(ApiResponseWrapper::getData));
+    }
+
+    public Mono<EmployeeDTO> create(Map<String, Object> employeeInput) {
+        return creates != null ? creates.submit(employeeInput) : createOne(employeeInput);
+    }
+
+    public Mono<ResponseEntity<ApiResponseWrapper<Boolean>>> deleteByName(String name) {
+        return (deletes != null ? deletes.submit(name) : deleteOneByName(name))
+                .map(ResponseEntity::ok)
+                .defaultIfEmpty(ResponseEntity.ok().build());
+    }
+
+    private Mono<EmployeeDTO> fetchById(WebClient webClient, String id) {
+        return webClient
+                .get()
+                .uri("/{id}", id)
+                .attribute(UpstreamMetrics.OPERATION, "fetchById")
+                .accept(documentTypes)
+                .retrieve()
+                .bodyToMono(new ParameterizedTypeReference<ApiResponseWrapper<EmployeeDTO>>() {})
+                .map(ApiResponseWrapper::getData);
+    }
+
+    private Mono<EmployeeDTO> createOne(Map<String, Object> employeeInput) {
+        return primary.executor().execute(false, () -> primary.webClient()
+                .post()
+                .uri("")
+                .attribute(UpstreamMetrics.OPERATION, "create")
+                .accept(documentTypes)
+                .bodyValue(employeeInput)
+                .retrieve()
+                .bodyToMono(new ParameterizedTypeReference<ApiResponseWrapper<EmployeeDTO>>() {})
+                .mapNotNull(ApiResponseWrapper::getData));
+    }
+
+    private Mono<List<EmployeeDTO>> createAll(List<Map<String, Object>> employeeInputs) {
+        return primary.executor().execute(false, () -> primary.webClient()
+                .post()
+                .uri("/batch")
+                .attribute(UpstreamMetrics.OPERATION, "createAll")
+                .accept(documentTypes)
+                .bodyValue(Map.of("employees", employeeInputs))
+                .retrieve()
+                .bodyToMono(new ParameterizedTypeReference<ApiResponseWrapper<List<EmployeeDTO>>>() {})
+                .mapNotNull(ApiResponseWrapper::getData));
+    }
+
+    private Mono<ApiResponseWrapper<Boolean>> deleteOneByName(String name) {
+        return primary.executor().execute(false, () -> primary.webClient()
+                .method(HttpMethod.DELETE)
+                .uri("")
+                .attribute(UpstreamMetrics.OPERATION, "deleteByName")
+                .accept(documentTypes)
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(Map.of("name", name))
+                .retrieve()
+                .bodyToMono(new ParameterizedTypeReference<ApiResponseWrapper<Boolean>>() {}));
+    }
+
+    /*
+     * Each name gets a response shaped like the single delete's, sharing the batch's status.
+     */
+    private Mono<List<ApiResponseWrapper<Boolean>>> deleteAllByName(List<String> names) {
+        return primary.executor().execute(false, () -> primary.webClient()
+                .method(HttpMethod.DELETE)
+                .uri("/batch")
+                .attribute(UpstreamMetrics.OPERATION, "deleteAllByName")
+                .accept(documentTypes)
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(Map.of(
+                        "employees",
+                        names.stream().map(name -> Map.of("name", name)).toList()))
+                .retrieve()
+                .bodyToMono(new ParameterizedTypeReference<ApiResponseWrapper<List<Boolean>>>() {})
+                .filter(response -> response.getData() != null)
+                .map(response -> response.getData().stream()
+                        .map(deleted -> new ApiResponseWrapper<>(deleted, response.getStatus()))
+                        .toList()));
+    }
+
+    /*
+     * With one replica this is a plain call through its executor. Otherwise the call goes to the least loaded replica
+     * and its hedge, if any, to the least loaded of the others.
+     */
+    private <T> Mono<T> balancedRead(String operation, Function<WebClient, Mono<T>> call) {
+        if (replicas.size() == 1) {
+            return primary.executor().execute(true, () -> call.apply(primary.webClient()));
+        }
+        return Mono.defer(() -> {
+            Replica first = leastLoaded(null);
+            return hedgedReads.read(
+                    operation,
+                    () -> first.executor().execute(true, () -> call.apply(first.webClient())),
+                    () -> {
+                        Replica second = leastLoaded(first);
+                        return second.executor().execute(true, () -> call.apply(second.webClient()));
+                    });
+        });
+    }
+
+    /*
+     * A replica whose limiter is holding calls back would only make the read wait or fail, so it is only picked when
+     * every other one is blocked too.
+     */
+    private Replica leastLoaded(Replica excluded) {
+        Replica best = null;
+        boolean bestBlocked = true;
+        double lowest = Double.MAX_VALUE;
+        for (Replica replica : replicas) {
+            if (replica == excluded) {
+                continue;
+            }
+            boolean blocked = replica.executor().limiter().isBlocked();
+            double cost = replica.load().cost();
+            if (best == null || (bestBlocked && !blocked) || (blocked == bestBlocked && cost < lowest)) {
+                best = replica;
+                bestBlocked = blocked;
+                lowest = cost;
+            }
+        }
+        return best;
+    }
+
+    /*
+     * Failures that say something about the replica rather than the request, so that another replica may well succeed.
+     */
+    private static boolean isReplicaFailure(Throwable error) {
+        if (error instanceof WebClientResponseException response) {
+            return response.getStatusCode().is5xxServerError()
+                    || response.getStatusCode().isSameCodeAs(HttpStatus.TOO_MANY_REQUESTS);
+        }
+        return error instanceof UpstreamRateLimitedException || error instanceof WebClientRequestException;
+    }
+
+    private StreamingRosterDecoder rosterDecoder(MediaType contentType) {
+        return APPLICATION_SMILE.isCompatibleWith(contentType) ? smileRosterDecoder : jsonRosterDecoder;
+    }
+
+    private RosterSnapshotDTO remember(HttpHeaders headers, RosterSnapshotDTO roster) {
+        String etag = headers.getETag();
+        lastRoster.set(etag != null ? new TaggedRoster(etag, roster) : null);
+        rosterEpoch.set(headers.getFirst(ROSTER_EPOCH_HEADER));
+        return roster;
+    }
+
+    private static long rosterVersion(HttpHeaders headers) {
+        String version = headers.getFirst(ROSTER_VERSION_HEADER);
+        if (version == null) {
+            return RosterSnapshotDTO.UNVERSIONED;
+        }
+        try {
+            return Long.parseLong(version.trim());
+        } catch (NumberFormatException e) {
+            return RosterSnapshotDTO.UNVERSIONED;
+        }
+    }
+
+    private Flux<EmployeeDTO> rosterStream(WebClient webClient) {
+        return webClient
+                .get()
+                .uri("/stream")
+                .attribute(UpstreamMetrics.OPERATION, "streamAll")
+                .accept(rosterTypes)
+                .retrieve()
+                .bodyToFlux(EmployeeDTO.class);
+    }
+
+    /*
+     * Values are passed as URI variables so that they are encoded in full, '&' and '+' included.
+     */
+    private static Map<String, Object> queryParameters(EmployeeQueryDTO query, long cursor, int limit) {
+        Map<String, Object> parameters = new LinkedHashMap<>();
+        putIfPresent(parameters, "minSalary", query.getMinSalary());
+        putIfPresent(parameters, "maxSalary", query.getMaxSalary());
+        putIfPresent(parameters, "minAge", query.getMinAge());
+        putIfPresent(parameters, "maxAge", query.getMaxAge());
+        putIfPresent(parameters, "title", query.getTitle());
+        putIfPresent(parameters, "name", query.getName());
+        parameters.put("cursor", cursor);
+        parameters.put("limit", limit);
+        return parameters;
+    }
+
+    private static void putIfPresent(Map<String, Object> parameters, String name, Object value) {
+        if (value != null) {
+            parameters.put(name, value);
+        }
+    }
+
+    private static MediaType fallback(MediaType mediaType) {
+        return new MediaType(mediaType, Map.of("q", "0.9"));
+    }
+
+    private record TaggedRoster(String etag, RosterSnapshotDTO roster) {}
+
+    private record Replica(WebClient webClient, ReplicaLoad load, RateLimitedExecutor executor) {}
+}
@@ -0,0 +1,146 @@
+package com.reliaquest.api.client;
+
+import com.reliaquest.api.config.ApiProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.distribution.ValueAtPercentile;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+/**
+ * Races a read against a duplicate sent elsewhere once the read has taken longer than most recent reads of its kind,
+ * or at once if the read fails in a way another replica may not, e.g. because its replica is rate limiting or down.
+ *
+ * <p>Each kind of read keeps the latency of its recent successes in {@code api.upstream.reads}, from which the hedging
+ * delay is taken at the configured percentile, never below the configured minimum. Until a kind has some history its
+ * reads are not hedged, but they still fail over. Duplicates sent, duplicates that answered first and failovers are
+ * counted in {@code api.upstream.hedges} by {@code result}. Both meters are tagged with the shard, so shards that share
+ * a registry keep apart.
+ */
+class HedgedReads {
+
+    private static final int MIN_SAMPLES = 20;
+    private static final long DELAY_REFRESH_NANOS = Duration.ofSeconds(1).toNanos();
+
+    private final ApiProperties.Hedging properties;
+    private final String shard;
+    private final MeterRegistry meterRegistry;
+    private final Predicate<Throwable> failover;
+    private final Map<String, Operation> operations = new ConcurrentHashMap<>();
+
+    /**
+     * @param failover which failures of the first read to retry on the second replica straight away
+     */
+    HedgedReads(
+            ApiProperties.Hedging properties,
+            String shard,
+            MeterRegistry meterRegistry,
+            Predicate<Throwable> failover) {
+        if (properties.getPercentile() <= 0 || properties.getPercentile() >= 1) {
+            throw new IllegalArgumentException("The hedging percentile must be between 0 and 1");
+        }
+        this.properties = properties;
+        this.shard = shard;
+        this.meterRegistry = meterRegistry;
+        this.failover = failover;
+    }
+
+    /**
+     * Subscribes to {@code primary} and, if it has not signalled by the hedging delay or has failed over, to
+     * {@code hedge} as well. The first to emit a value, complete empty or fail for another reason wins and the other is
+     * cancelled. A failure of either is only passed on once the other has failed too, so a failing hedge leaves the
+     * primary's outcome standing, and a primary that failed over is answered by the hedge.
+     */
+    <T> Mono<T> read(String operation, Supplier<Mono<T>> primary, Supplier<Mono<T>> hedge) {
+        Operation stats = operations.computeIfAbsent(operation, Operation::new);
+        return Mono.defer(() -> {
+            long start = System.nanoTime();
+            Duration delay = properties.isEnabled() ? stats.delay() : null;
+            Sinks.Empty<Void> failedOver = Sinks.empty();
+            AtomicInteger failures = new AtomicInteger();
+            Mono<T> first = Mono.defer(primary).onErrorResume(failover, error -> {
+                if (failures.incrementAndGet() == 2) {
+                    return Mono.error(error);
+                }
+                stats.failedOver.increment();
+                failedOver.tryEmitEmpty();
+                return Mono.never();
+            });
+            Mono<Void> trigger = delay == null
+                    ? failedOver.asMono()
+                    : Mono.firstWithSignal(Mono.delay(delay).then(), failedOver.asMono());
+            Mono<T> second = Mono.defer(hedge)
+                    .doOnSubscribe(subscription -> stats.sent.increment())
+                    .doOnNext(value -> stats.won.increment())
+                    .onErrorResume(error -> failures.incrementAndGet() == 2 ? Mono.error(error) : Mono.never())
+                    .delaySubscription(trigger);
+            return Mono.firstWithSignal(first, second)
+                    .doOnSuccess(value -> stats.latency.record(System.nanoTime() - start, TimeUnit.NANOSECONDS));
+        });
+    }
+
+    private final class Operation {
+
+        private final Timer latency;
+        private final Counter sent;
+        private final Counter won;
+        private final Counter failedOver;
+        private volatile Duration delay;
+        private volatile long delayComputedAt = System.nanoTime() - DELAY_REFRESH_NANOS;
+
+        Operation(String name) {
+            this.latency = Timer.builder("api.upstream.reads")
+                    .description("Latency of upstream reads, hedged or not, that succeeded")
+                    .tag("shard", shard)
+                    .tag("operation", name)
+                    .publishPercentiles(properties.getPercentile())
+                    .register(meterRegistry);
+            this.sent = hedges(name, "sent");
+            this.won = hedges(name, "won");
+            this.failedOver = hedges(name, "failover");
+        }
+
+        /*
+         * Taking a snapshot copies the histogram, so the delay is only worked out again once a second.
+         */
+        Duration delay() {
+            if (latency.count() < MIN_SAMPLES) {
+                return null;
+            }
+            long now = System.nanoTime();
+            if (now - delayComputedAt >= DELAY_REFRESH_NANOS) {
+                delayComputedAt = now;
+                delay = percentile();
+            }
+            return delay;
+        }
+
+        private Duration percentile() {
+            for (ValueAtPercentile value : latency.takeSnapshot().percentileValues()) {
+                long nanos = (long) value.value(TimeUnit.NANOSECONDS);
+                if (nanos > 0) {
+                    return Duration.ofNanos(Math.max(nanos, properties.getMinDelay().toNanos()));
+                }
+            }
+            return null;
+        }
+
+        private Counter hedges(String operation, String result) {
+            return Counter.builder("api.upstream.hedges")
+                    .description("Duplicate upstream reads sent to a second replica, those that answered first, and "
+                            + "reads that failed over to one")
+                    .tag("shard", shard)
+                    .tag("operation", operation)
+                    .tag("result", result)
+                    .register(meterRegistry);
+        }
+    }
+}
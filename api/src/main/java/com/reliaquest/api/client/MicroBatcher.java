@@ -0,0 +1,149 @@
+package com.reliaquest.api.client;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.core.Disposable;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.MonoSink;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+/**
+ * Collects concurrent calls into upstream batches, so a burst of writes spends one request of the upstream's budget
+ * instead of one per write.
+ *
+ * <p>A batch is sent once {@code window} has passed since its first item arrived, or as soon as it holds
+ * {@code maxSize} items. Each caller then completes with the result for its own item. A batch the upstream rejects
+ * as a whole with 400 is retried item by item, so one invalid input only fails its own caller; a batch of one is
+ * always sent individually. Cancelling a caller does not withdraw its item once submitted.
+ *
+ * @param <I> input of one call
+ * @param <O> result of one call
+ */
+public class MicroBatcher<I, O> {
+
+    private final Duration window;
+    private final int maxSize;
+    private final Function<List<I>, Mono<List<O>>> batchCall;
+    private final Function<I, Mono<O>> singleCall;
+    private final Scheduler scheduler;
+
+    private final Lock lock = new ReentrantLock();
+    private List<Pending<I, O>> pending = new ArrayList<>();
+    private Disposable scheduledFlush;
+
+    /**
+     * @param batchCall sends a batch and returns one result per item, in item order
+     * @param singleCall sends one item on its own
+     */
+    public MicroBatcher(
+            Duration window,
+            int maxSize,
+            Function<List<I>, Mono<List<O>>> batchCall,
+            Function<I, Mono<O>> singleCall) {
+        this(window, maxSize, batchCall, singleCall, Schedulers.parallel());
+    }
+
+    MicroBatcher(
+            Duration window,
+            int maxSize,
+            Function<List<I>, Mono<List<O>>> batchCall,
+            Function<I, Mono<O>> singleCall,
+            Scheduler scheduler) {
+        if (maxSize < 1) {
+            throw new IllegalArgumentException("maxSize must be at least 1");
+        }
+        this.window = window;
+        this.maxSize = maxSize;
+        this.batchCall = batchCall;
+        this.singleCall = singleCall;
+        this.scheduler = scheduler;
+    }
+
+    public Mono<O> submit(I item) {
+        return Mono.create(sink -> enqueue(new Pending<>(item, sink)));
+    }
+
+    private void enqueue(Pending<I, O> call) {
+        List<Pending<I, O>> full = null;
+        lock.lock();
+        try {
+            pending.add(call);
+            if (pending.size() >= maxSize) {
+                full = drain();
+            } else if (pending.size() == 1) {
+                scheduledFlush = scheduler.schedule(this::flush, window.toNanos(), TimeUnit.NANOSECONDS);
+            }
+        } finally {
+            lock.unlock();
+        }
+        if (full != null) {
+            send(full);
+        }
+    }
+
+    private void flush() {
+        List<Pending<I, O>> batch;
+        lock.lock();
+        try {
+            batch = drain();
+        } finally {
+            lock.unlock();
+        }
+        if (!batch.isEmpty()) {
+            send(batch);
+        }
+    }
+
+    private List<Pending<I, O>> drain() {
+        List<Pending<I, O>> batch = pending;
+        pending = new ArrayList<>();
+        if (scheduledFlush != null) {
+            scheduledFlush.dispose();
+            scheduledFlush = null;
+        }
+        return batch;
+    }
+
+    private void send(List<Pending<I, O>> batch) {
+        if (batch.size() == 1) {
+            sendIndividually(batch.get(0));
+            return;
+        }
+        List<I> items = batch.stream().map(Pending::item).toList();
+        batchCall
+                .apply(items)
+                .defaultIfEmpty(List.of())
+                .subscribe(results -> complete(batch, results), error -> {
+                    if (error instanceof WebClientResponseException.BadRequest) {
+                        batch.forEach(this::sendIndividually);
+                    } else {
+                        batch.forEach(call -> call.sink().error(error));
+                    }
+                });
+    }
+
+    private void sendIndividually(Pending<I, O> call) {
+        singleCall.apply(call.item()).subscribe(call.sink()::success, call.sink()::error, call.sink()::success);
+    }
+
+    private static <I, O> void complete(List<Pending<I, O>> batch, List<O> results) {
+        if (results.size() != batch.size()) {
+            IllegalStateException mismatch = new IllegalStateException(
+                    "Upstream returned " + results.size() + " results for a batch of " + batch.size());
+            batch.forEach(call -> call.sink().error(mismatch));
+            return;
+        }
+        for (int i = 0; i < batch.size(); i++) {
+            batch.get(i).sink().success(results.get(i));
+        }
+    }
+
+    private record Pending<I, O>(I item, MonoSink<O> sink) {}
+}
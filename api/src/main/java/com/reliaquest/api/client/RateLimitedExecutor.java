@@ -0,0 +1,155 @@
+package com.reliaquest.api.client;
+
+import com.reliaquest.api.config.ApiProperties;
+import com.reliaquest.api.exception.UpstreamRateLimitedException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.time.Duration;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Supplier;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.reactive.function.client.WebClientRequestException;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Runs upstream calls through the {@link AdaptiveRateLimiter} and retries them with jittered exponential backoff,
+ * all within a per-call deadline.
+ *
+ * <p>A 429 is rejected by the mock server before the request is handled, so it is retried for every call, honouring
+ * {@code Retry-After}. Server errors and connection failures are only retried for idempotent calls. Any other response
+ * is returned to the caller untouched. Streams are paced the same way but never retried, since part of the stream may
+ * already have been consumed. 429s and retries are counted in {@code api.upstream.rate.limited} and
+ * {@code api.upstream.retries}.
+ */
+@Slf4j
+public class RateLimitedExecutor {
+
+    private final ApiProperties.RateLimit properties;
+    private final AdaptiveRateLimiter limiter;
+    private final MeterRegistry meterRegistry;
+    private final Counter rateLimited;
+
+    public RateLimitedExecutor(ApiProperties.RateLimit properties, MeterRegistry meterRegistry) {
+        this(properties, new AdaptiveRateLimiter(properties), meterRegistry);
+    }
+
+    RateLimitedExecutor(ApiProperties.RateLimit properties, AdaptiveRateLimiter limiter, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.limiter = limiter;
+        this.meterRegistry = meterRegistry;
+        this.rateLimited = Counter.builder("api.upstream.rate.limited")
+                .description("429 responses from the upstream")
+                .register(meterRegistry);
+    }
+
+    public <T> Mono<T> execute(boolean idempotent, Supplier<Mono<T>> call) {
+        if (!properties.isEnabled()) {
+            return Mono.defer(call);
+        }
+        return Mono.defer(() -> attempt(call, idempotent, System.nanoTime() + properties.getDeadline().toNanos(), 1));
+    }
+
+    public <T> Flux<T> executeMany(Supplier<Flux<T>> call) {
+        if (!properties.isEnabled()) {
+            return Flux.defer(call);
+        }
+        return Flux.defer(() -> limiter.acquire(System.nanoTime() + properties.getDeadline().toNanos())
+                .thenMany(Flux.defer(call))
+                .doOnComplete(limiter::onAccepted)
+                .onErrorMap(WebClientResponseException.class, error -> {
+                    if (error.getStatusCode().value() != HttpStatus.TOO_MANY_REQUESTS.value()) {
+                        limiter.onAccepted();
+                        return error;
+                    }
+                    rateLimited.increment();
+                    Duration retryAfter = retryAfter(error.getHeaders());
+                    limiter.onRejected(retryAfter);
+                    return new UpstreamRateLimitedException(retryAfter);
+                }));
+    }
+
+    public AdaptiveRateLimiter limiter() {
+        return limiter;
+    }
+
+    private <T> Mono<T> attempt(Supplier<Mono<T>> call, boolean idempotent, long deadline, int attempt) {
+        return limiter.acquire(deadline)
+                .then(Mono.defer(call))
+                .doOnSuccess(result -> limiter.onAccepted())
+                .onErrorResume(error -> {
+                    Throwable failure = error;
+                    if (error instanceof WebClientResponseException response
+                            && response.getStatusCode().value() == HttpStatus.TOO_MANY_REQUESTS.value()) {
+                        rateLimited.increment();
+                        Duration retryAfter = retryAfter(response.getHeaders());
+                        limiter.onRejected(retryAfter);
+                        failure = new UpstreamRateLimitedException(retryAfter);
+                    } else if (error instanceof WebClientResponseException response) {
+                        limiter.onAccepted();
+                        if (!idempotent || !response.getStatusCode().is5xxServerError()) {
+                            return Mono.error(error);
+                        }
+                    } else if (!(error instanceof WebClientRequestException) || !idempotent) {
+                        return Mono.error(error);
+                    }
+
+                    Duration delay = backoff(attempt);
+                    if (attempt >= properties.getMaxAttempts() || System.nanoTime() + delay.toNanos() > deadline) {
+                        return Mono.error(failure);
+                    }
+                    log.debug(
+                            "Retrying upstream call in {} ms (attempt {}): {}",
+                            delay.toMillis(),
+                            attempt + 1,
+                            error.getMessage());
+                    retries(failure).increment();
+                    return Mono.delay(delay).then(attempt(call, idempotent, deadline, attempt + 1));
+                });
+    }
+
+    private Counter retries(Throwable cause) {
+        String reason = cause instanceof UpstreamRateLimitedException
+                ? "rate_limited"
+                : cause instanceof WebClientResponseException ? "server_error" : "connection_error";
+        return Counter.builder("api.upstream.retries")
+                .description("Upstream calls retried after a failed attempt")
+                .tag("reason", reason)
+                .register(meterRegistry);
+    }
+
+    /*
+     * "Full jitter": a uniformly random delay up to the exponential bound, so callers that failed together do not
+     * retry together.
+     */
+    private Duration backoff(int attempt) {
+        long bound = Math.min(
+                properties.getBackoffMax().toMillis(),
+                properties.getBackoffBase().toMillis() << Math.min(attempt - 1, 20));
+        return Duration.ofMillis(ThreadLocalRandom.current().nextLong(bound + 1));
+    }
+
+    private Duration retryAfter(HttpHeaders headers) {
+        String value = headers.getFirst(HttpHeaders.RETRY_AFTER);
+        if (value == null) {
+            return properties.getDefaultRetryAfter();
+        }
+        try {
+            return Duration.ofSeconds(Long.parseLong(value.trim()));
+        } catch (NumberFormatException e) {
+            try {
+                Duration untilDate = Duration.between(
+                        ZonedDateTime.now(), ZonedDateTime.parse(value, DateTimeFormatter.RFC_1123_DATE_TIME));
+                return untilDate.isNegative() ? Duration.ZERO : untilDate;
+            } catch (DateTimeParseException ignored) {
+                return properties.getDefaultRetryAfter();
+            }
+        }
+    }
+}
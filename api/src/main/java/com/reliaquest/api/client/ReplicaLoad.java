@@ -0,0 +1,85 @@
+package com.reliaquest.api.client;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.reactive.function.client.ClientRequest;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.ExchangeFilterFunction;
+import org.springframework.web.reactive.function.client.ExchangeFunction;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.SignalType;
+
+/**
+ * Tracks how loaded one upstream replica looks from here: its exchanges in flight, and moving averages of how long it
+ * takes to answer and how often it answers 429 or not at all.
+ *
+ * <p>Both averages fade towards zero while the replica is not being used, so one that was shunned after a backoff
+ * window or a slow spell is tried again once the cause has likely passed.
+ */
+class ReplicaLoad implements ExchangeFilterFunction {
+
+    private static final double WEIGHT = 0.2;
+    private static final double FADE_NANOS = Duration.ofSeconds(10).toNanos();
+    private static final double LATENCY_FLOOR_NANOS = Duration.ofMillis(1).toNanos();
+    private static final double MAX_FAILURE_RATE = 0.95;
+
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicReference<Estimate> estimate = new AtomicReference<>(new Estimate(0, 0, System.nanoTime()));
+
+    /*
+     * An exchange cancelled before it was answered, typically the loser of a hedged read, still counts how long it
+     * was kept waiting.
+     */
+    @Override
+    public Mono<ClientResponse> filter(ClientRequest request, ExchangeFunction next) {
+        return Mono.defer(() -> {
+            long start = System.nanoTime();
+            inFlight.incrementAndGet();
+            return next.exchange(request)
+                    .doOnNext(response -> record(
+                            start, response.statusCode().isSameCodeAs(HttpStatus.TOO_MANY_REQUESTS)))
+                    .doOnError(error -> record(start, true))
+                    .doFinally(signal -> {
+                        if (signal == SignalType.CANCEL) {
+                            record(start, false);
+                        }
+                        inFlight.decrementAndGet();
+                    });
+        });
+    }
+
+    /**
+     * @return how expensive a request to this replica is expected to be, relative to the other replicas; lower is
+     *     better
+     */
+    double cost() {
+        long now = System.nanoTime();
+        Estimate current = estimate.get();
+        double fade = current.fade(now);
+        double failureRate = Math.min(current.failureRate() * fade, MAX_FAILURE_RATE);
+        return (current.latency() * fade + LATENCY_FLOOR_NANOS) * (inFlight.get() + 1) / (1 - failureRate);
+    }
+
+    private void record(long start, boolean failed) {
+        long now = System.nanoTime();
+        long latency = now - start;
+        estimate.updateAndGet(previous -> {
+            double fade = previous.fade(now);
+            double averageLatency = previous.latency() * fade;
+            double failureRate = previous.failureRate() * fade;
+            return new Estimate(
+                    averageLatency + WEIGHT * (latency - averageLatency),
+                    failureRate + WEIGHT * ((failed ? 1 : 0) - failureRate),
+                    now);
+        });
+    }
+
+    private record Estimate(double latency, double failureRate, long at) {
+
+        double fade(long now) {
+            return Math.exp(-Math.max(now - at, 0) / FADE_NANOS);
+        }
+    }
+}
@@ -0,0 +1,158 @@
+package com.reliaquest.api.client;
+
+import com.reliaquest.api.client.StreamedEmployee.Field;
+import com.reliaquest.api.dto.EmployeeDTO;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.OptionalInt;
+import java.util.PriorityQueue;
+import java.util.Set;
+
+/**
+ * A one-pass computation over the roster, fed by {@link StreamingRosterDecoder} one employee at a time in roster order.
+ * Instances are stateful and used for a single pass.
+ *
+ * @param <R> the result
+ */
+public interface RosterAggregation<R> {
+
+    /**
+     * @return the fields {@link #accept(StreamedEmployee)} reads; the decoder skips all others
+     */
+    Set<Field> fields();
+
+    /**
+     * Called once per employee. {@code employee} is reused for the next one, so anything kept must be copied out.
+     */
+    void accept(StreamedEmployee employee);
+
+    /**
+     * Called once, after the last employee.
+     */
+    R result();
+
+    /**
+     * @return the highest salary on the roster, or empty if the roster is empty
+     */
+    static RosterAggregation<OptionalInt> highestSalary() {
+        return new HighestSalary();
+    }
+
+    /**
+     * @return up to {@code k} of the highest earning employees with only their name and salary read, highest first;
+     *     ties keep roster order
+     */
+    static RosterAggregation<List<EmployeeDTO>> topEarners(int k) {
+        if (k < 1) {
+            throw new IllegalArgumentException("k must be at least 1");
+        }
+        return new TopEarners(k);
+    }
+
+    /**
+     * @return employees whose name contains {@code fragment}, ignoring case, in roster order
+     */
+    static RosterAggregation<List<EmployeeDTO>> nameMatches(String fragment) {
+        return new NameMatches(fragment.toLowerCase());
+    }
+
+    final class HighestSalary implements RosterAggregation<OptionalInt> {
+
+        private boolean any;
+        private int highest;
+
+        private HighestSalary() {}
+
+        @Override
+        public Set<Field> fields() {
+            return EnumSet.of(Field.SALARY);
+        }
+
+        @Override
+        public void accept(StreamedEmployee employee) {
+            if (!any || employee.salary() > highest) {
+                highest = employee.salary();
+                any = true;
+            }
+        }
+
+        @Override
+        public OptionalInt result() {
+            return any ? OptionalInt.of(highest) : OptionalInt.empty();
+        }
+    }
+
+    /*
+     * A heap of the best k seen so far, with the one to drop next on top, so an employee is only copied out if they
+     * make it in.
+     */
+    final class TopEarners implements RosterAggregation<List<EmployeeDTO>> {
+
+        private static final Comparator<Earner> LOWEST_FIRST = (first, second) -> first.salary() != second.salary()
+                ? Integer.compare(first.salary(), second.salary())
+                : Long.compare(second.index(), first.index());
+
+        private final int k;
+        private final PriorityQueue<Earner> top;
+
+        private TopEarners(int k) {
+            this.k = k;
+            this.top = new PriorityQueue<>(Math.min(k, 1024), LOWEST_FIRST);
+        }
+
+        @Override
+        public Set<Field> fields() {
+            return EnumSet.of(Field.NAME, Field.SALARY);
+        }
+
+        @Override
+        public void accept(StreamedEmployee employee) {
+            if (top.size() == k) {
+                if (employee.salary() <= top.peek().salary()) {
+                    return;
+                }
+                top.poll();
+            }
+            top.add(new Earner(employee.salary(), employee.index(), employee.toEmployee()));
+        }
+
+        @Override
+        public List<EmployeeDTO> result() {
+            List<Earner> earners = new ArrayList<>(top);
+            earners.sort(LOWEST_FIRST.reversed());
+            return earners.stream().map(Earner::employee).toList();
+        }
+
+        private record Earner(int salary, long index, EmployeeDTO employee) {}
+    }
+
+    final class NameMatches implements RosterAggregation<List<EmployeeDTO>> {
+
+        private final String folded;
+        private final List<EmployeeDTO> matches = new ArrayList<>();
+
+        private NameMatches(String folded) {
+            this.folded = folded;
+        }
+
+        @Override
+        public Set<Field> fields() {
+            return EnumSet.allOf(Field.class);
+        }
+
+        @Override
+        public void accept(StreamedEmployee employee) {
+            String name = employee.name();
+            if (name != null && name.toLowerCase().contains(folded)) {
+                matches.add(employee.toEmployee());
+            }
+        }
+
+        @Override
+        public List<EmployeeDTO> result() {
+            return matches;
+        }
+    }
+}
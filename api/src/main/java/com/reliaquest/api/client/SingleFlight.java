@@ -0,0 +1,70 @@
+package com.reliaquest.api.client;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+import reactor.core.publisher.Mono;
+
+/**
+ * Coalesces concurrent identical calls so they share one in-flight upstream request and its decoded result.
+ *
+ * <p>The first caller for a key starts the call; everyone who asks for the same key before it completes subscribes
+ * to that same call instead of issuing their own. Once it completes the key is released and the next caller starts a
+ * fresh request, so results are never reused beyond the lifetime of the request that produced them.
+ *
+ * @param <K> identity of a call, e.g. the employee ID being fetched
+ * @param <V> decoded result of a call
+ */
+public class SingleFlight<K, V> {
+
+    private final ConcurrentMap<K, Mono<V>> inFlight = new ConcurrentHashMap<>();
+    private final Counter leaders;
+    private final Counter followers;
+
+    public SingleFlight(String operation, MeterRegistry meterRegistry) {
+        this.leaders = Counter.builder("api.upstream.singleflight.calls")
+                .description("Callers of a coalesced upstream read")
+                .tag("operation", operation)
+                .tag("coalesced", "false")
+                .register(meterRegistry);
+        this.followers = Counter.builder("api.upstream.singleflight.calls")
+                .description("Callers of a coalesced upstream read")
+                .tag("operation", operation)
+                .tag("coalesced", "true")
+                .register(meterRegistry);
+    }
+
+    public Mono<V> execute(K key, Supplier<Mono<V>> call) {
+        return Mono.defer(() -> {
+            Mono<V> existing = inFlight.get(key);
+            if (existing != null) {
+                followers.increment();
+                return existing;
+            }
+
+            AtomicReference<Mono<V>> self = new AtomicReference<>();
+            Mono<V> flight = Mono.defer(call)
+                    .doFinally(signal -> inFlight.remove(key, self.get()))
+                    .cache();
+            self.set(flight);
+
+            Mono<V> winner = inFlight.putIfAbsent(key, flight);
+            if (winner != null) {
+                followers.increment();
+                return winner;
+            }
+            leaders.increment();
+            return flight;
+        });
+    }
+
+    /**
+     * @return number of distinct calls currently in flight
+     */
+    public int inFlight() {
+        return inFlight.size();
+    }
+}
@@ -0,0 +1,150 @@
+package com.reliaquest.api.client;
+
+import com.reliaquest.api.dto.EmployeeDTO;
+import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.Set;
+
+/**
+ * The employee a {@link StreamingRosterDecoder} has just read, handed to a {@link RosterAggregation} before the decoder
+ * moves on and reuses it for the next one.
+ *
+ * <p>Only the fields the aggregation asked for are read. Text fields are kept as characters in a shared buffer and only
+ * become strings when asked for, so an employee the aggregation passes over costs no allocation at all.
+ */
+public final class StreamedEmployee {
+
+    /**
+     * The fields of an upstream employee, by the JSON names {@link EmployeeDTO} maps them from.
+     */
+    public enum Field {
+        ID("id"),
+        NAME("employee_name"),
+        SALARY("employee_salary"),
+        AGE("employee_age"),
+        TITLE("employee_title"),
+        EMAIL("employee_email");
+
+        private final String jsonName;
+
+        Field(String jsonName) {
+            this.jsonName = jsonName;
+        }
+
+        /**
+         * @return the field named {@code jsonName}, or {@code null} for a field {@link EmployeeDTO} does not have
+         */
+        static Field forJsonName(String jsonName) {
+            for (Field field : FIELDS) {
+                if (field.jsonName.equals(jsonName)) {
+                    return field;
+                }
+            }
+            return null;
+        }
+    }
+
+    private static final int ABSENT = -1;
+    private static final Field[] FIELDS = Field.values();
+
+    private final Set<Field> wanted;
+    private final int[] textStart = new int[FIELDS.length];
+    private final int[] textLength = new int[FIELDS.length];
+    private final String[] strings = new String[FIELDS.length];
+    private char[] text = new char[256];
+    private int textEnd;
+    private int salary;
+    private int age;
+    private long index = -1;
+
+    StreamedEmployee(Set<Field> wanted) {
+        this.wanted = wanted.isEmpty() ? EnumSet.noneOf(Field.class) : EnumSet.copyOf(wanted);
+    }
+
+    /**
+     * @return the employee's position in the roster, counting from {@code 0}
+     */
+    public long index() {
+        return index;
+    }
+
+    public int salary() {
+        return salary;
+    }
+
+    public int age() {
+        return age;
+    }
+
+    public String id() {
+        return string(Field.ID);
+    }
+
+    public String name() {
+        return string(Field.NAME);
+    }
+
+    public String title() {
+        return string(Field.TITLE);
+    }
+
+    public String email() {
+        return string(Field.EMAIL);
+    }
+
+    /**
+     * @return a copy of this employee, with the fields that were not read left unset
+     */
+    public EmployeeDTO toEmployee() {
+        return EmployeeDTO.builder()
+                .id(id())
+                .name(name())
+                .salary(salary)
+                .age(age)
+                .title(title())
+                .email(email())
+                .build();
+    }
+
+    boolean wants(Field field) {
+        return wanted.contains(field);
+    }
+
+    void begin() {
+        index++;
+        Arrays.fill(textStart, ABSENT);
+        Arrays.fill(strings, null);
+        textEnd = 0;
+        salary = 0;
+        age = 0;
+    }
+
+    void setNumber(Field field, int value) {
+        switch (field) {
+            case SALARY -> salary = value;
+            case AGE -> age = value;
+            default -> throw new IllegalArgumentException(field + " is not a number");
+        }
+    }
+
+    /*
+     * The characters belong to the parser and are only valid until its next token, hence the copy.
+     */
+    void setText(Field field, char[] characters, int offset, int length) {
+        if (textEnd + length > text.length) {
+            text = Arrays.copyOf(text, Math.max(text.length * 2, textEnd + length));
+        }
+        System.arraycopy(characters, offset, text, textEnd, length);
+        textStart[field.ordinal()] = textEnd;
+        textLength[field.ordinal()] = length;
+        textEnd += length;
+    }
+
+    private String string(Field field) {
+        int ordinal = field.ordinal();
+        if (strings[ordinal] == null && textStart[ordinal] != ABSENT) {
+            strings[ordinal] = new String(text, textStart[ordinal], textLength[ordinal]);
+        }
+        return strings[ordinal];
+    }
+}
@@ -0,0 +1,197 @@
+package com.reliaquest.api.client;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.async.ByteArrayFeeder;
+import com.fasterxml.jackson.core.async.ByteBufferFeeder;
+import com.fasterxml.jackson.core.async.NonBlockingInputFeeder;
+import com.reliaquest.api.client.StreamedEmployee.Field;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+import org.springframework.core.codec.DecodingException;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Folds a roster stream into a {@link RosterAggregation} straight from the token stream, without building an
+ * {@link com.reliaquest.api.dto.EmployeeDTO} per employee. The stream is NDJSON or, given a
+ * {@link com.fasterxml.jackson.dataformat.smile.SmileFactory}, a sequence of top-level Smile values.
+ *
+ * <p>Chunks are fed to Jackson's non-blocking parser as they arrive and released right after, so neither a thread nor
+ * the whole body is ever held while waiting for the rest. Fields the aggregation does not ask for are skipped without
+ * being turned into strings or numbers. Time spent parsing is recorded in {@code api.upstream.decode} with
+ * {@code body=aggregated} and the factory's format.
+ */
+public class StreamingRosterDecoder {
+
+    private final JsonFactory jsonFactory;
+    private final Timer decodeTimer;
+
+    public StreamingRosterDecoder(JsonFactory jsonFactory, MeterRegistry meterRegistry) {
+        this.jsonFactory = jsonFactory;
+        this.decodeTimer = DecodeTiming.timer(
+                "aggregated", jsonFactory.getFormatName().toLowerCase(Locale.ROOT), meterRegistry);
+    }
+
+    /**
+     * Every subscription decodes {@code body} afresh into a new aggregation from {@code aggregation}.
+     *
+     * @return the aggregation's result once {@code body} completes, or a {@link DecodingException} if it is not a
+     *     sequence of objects
+     */
+    public <R> Mono<R> aggregate(Flux<DataBuffer> body, Supplier<RosterAggregation<R>> aggregation) {
+        return Mono.using(
+                () -> new Pass<>(newParser(), aggregation.get()),
+                pass -> body.<Void>handle((buffer, sink) -> {
+                            try {
+                                pass.feed(buffer);
+                            } finally {
+                                DataBufferUtils.release(buffer);
+                            }
+                        })
+                        .then(Mono.fromCallable(pass::finish)),
+                Pass::close);
+    }
+
+    /*
+     * Only JSON parsers can be fed ByteBuffers; the others take byte arrays.
+     */
+    private JsonParser newParser() throws IOException {
+        return JsonFactory.FORMAT_NAME_JSON.equals(jsonFactory.getFormatName())
+                ? jsonFactory.createNonBlockingByteBufferParser()
+                : jsonFactory.createNonBlockingByteArrayParser();
+    }
+
+    /*
+     * One decoding of one body. Employees are the objects at depth 1; anything nested deeper is skipped.
+     */
+    private final class Pass<R> {
+
+        private final JsonParser parser;
+        private final NonBlockingInputFeeder feeder;
+        private final RosterAggregation<R> aggregation;
+        private final StreamedEmployee employee;
+        private int depth;
+        private Field field;
+        private long elapsed;
+        private byte[] scratch = new byte[0];
+
+        Pass(JsonParser parser, RosterAggregation<R> aggregation) {
+            this.parser = parser;
+            this.feeder = parser.getNonBlockingInputFeeder();
+            this.aggregation = aggregation;
+            this.employee = new StreamedEmployee(aggregation.fields());
+        }
+
+        void feed(DataBuffer buffer) {
+            long start = System.nanoTime();
+            try (DataBuffer.ByteBufferIterator chunks = buffer.readableByteBuffers()) {
+                while (chunks.hasNext()) {
+                    feedInput(chunks.next());
+                    drain();
+                }
+            } catch (IOException e) {
+                throw new DecodingException("Failed to decode the roster: " + e.getMessage(), e);
+            } finally {
+                elapsed += System.nanoTime() - start;
+            }
+        }
+
+        R finish() {
+            long start = System.nanoTime();
+            try {
+                feeder.endOfInput();
+                drain();
+                if (depth != 0) {
+                    throw new DecodingException("The roster ended in the middle of an employee");
+                }
+                return aggregation.result();
+            } catch (IOException e) {
+                throw new DecodingException("Failed to decode the roster: " + e.getMessage(), e);
+            } finally {
+                elapsed += System.nanoTime() - start;
+            }
+        }
+
+        void close() {
+            decodeTimer.record(elapsed, TimeUnit.NANOSECONDS);
+            try {
+                parser.close();
+            } catch (IOException e) {
+                // Nothing is left to read from it.
+            }
+        }
+
+        /*
+         * A byte array fed to the parser only has to stay intact until the parser asks for more input, which drain()
+         * waits for, so one scratch array is reused for every chunk.
+         */
+        private void feedInput(ByteBuffer chunk) throws IOException {
+            if (feeder instanceof ByteBufferFeeder byteBufferFeeder) {
+                byteBufferFeeder.feedInput(chunk);
+                return;
+            }
+            int length = chunk.remaining();
+            if (scratch.length < length) {
+                scratch = new byte[length];
+            }
+            chunk.get(scratch, 0, length);
+            ((ByteArrayFeeder) feeder).feedInput(scratch, 0, length);
+        }
+
+        /*
+         * Reads tokens until the parser needs more input. It only returns complete tokens, so a value split across
+         * chunks is seen once, whole.
+         */
+        private void drain() throws IOException {
+            JsonToken token;
+            while ((token = parser.nextToken()) != null && token != JsonToken.NOT_AVAILABLE) {
+                switch (token) {
+                    case START_OBJECT, START_ARRAY -> {
+                        if (depth == 0 && token != JsonToken.START_OBJECT) {
+                            throw new DecodingException("Expected an employee object but found " + token);
+                        }
+                        if (++depth == 1) {
+                            employee.begin();
+                        }
+                    }
+                    case END_OBJECT, END_ARRAY -> {
+                        if (--depth == 0) {
+                            aggregation.accept(employee);
+                        }
+                    }
+                    case FIELD_NAME -> field = depth == 1 ? wanted(parser.currentName()) : null;
+                    default -> {
+                        if (depth == 0) {
+                            throw new DecodingException("Expected an employee object but found " + token);
+                        }
+                        if (depth == 1 && field != null) {
+                            read(field, token);
+                        }
+                    }
+                }
+            }
+        }
+
+        private Field wanted(String name) {
+            Field candidate = Field.forJsonName(name);
+            return candidate != null && employee.wants(candidate) ? candidate : null;
+        }
+
+        private void read(Field field, JsonToken token) throws IOException {
+            if (field == Field.SALARY || field == Field.AGE) {
+                employee.setNumber(field, parser.getValueAsInt(0));
+            } else if (token != JsonToken.VALUE_NULL) {
+                employee.setText(field, parser.getTextCharacters(), parser.getTextOffset(), parser.getTextLength());
+            }
+        }
+    }
+}
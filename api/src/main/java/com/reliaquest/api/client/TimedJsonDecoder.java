@@ -0,0 +1,39 @@
+package com.reliaquest.api.client;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.util.Map;
+import org.reactivestreams.Publisher;
+import org.springframework.core.ResolvableType;
+import org.springframework.core.codec.DecodingException;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.http.codec.json.Jackson2JsonDecoder;
+import org.springframework.util.MimeType;
+import reactor.core.publisher.Flux;
+
+/**
+ * {@link Jackson2JsonDecoder} that records how long decoding upstream JSON and NDJSON responses takes, as described in
+ * {@link DecodeTiming}, with {@code format=json}.
+ */
+public class TimedJsonDecoder extends Jackson2JsonDecoder {
+
+    private final DecodeTiming timing;
+
+    public TimedJsonDecoder(ObjectMapper objectMapper, MeterRegistry meterRegistry) {
+        super(objectMapper);
+        this.timing = new DecodeTiming("json", meterRegistry);
+    }
+
+    @Override
+    public Object decode(
+            DataBuffer dataBuffer, ResolvableType targetType, MimeType mimeType, Map<String, Object> hints)
+            throws DecodingException {
+        return timing.buffered(() -> super.decode(dataBuffer, targetType, mimeType, hints));
+    }
+
+    @Override
+    public Flux<Object> decode(
+            Publisher<DataBuffer> input, ResolvableType elementType, MimeType mimeType, Map<String, Object> hints) {
+        return super.decode(timing.streamed(input), elementType, mimeType, hints);
+    }
+}
@@ -0,0 +1,40 @@
+package com.reliaquest.api.client;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.util.Map;
+import org.reactivestreams.Publisher;
+import org.springframework.core.ResolvableType;
+import org.springframework.core.codec.DecodingException;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.http.codec.smile.Jackson2SmileDecoder;
+import org.springframework.util.MimeType;
+import reactor.core.publisher.Flux;
+
+/**
+ * {@link Jackson2SmileDecoder} that records how long decoding upstream Smile responses takes, as described in
+ * {@link DecodeTiming}, with {@code format=smile}. Its {@code objectMapper} has to be built on a
+ * {@link com.fasterxml.jackson.dataformat.smile.SmileFactory}.
+ */
+public class TimedSmileDecoder extends Jackson2SmileDecoder {
+
+    private final DecodeTiming timing;
+
+    public TimedSmileDecoder(ObjectMapper objectMapper, MeterRegistry meterRegistry) {
+        super(objectMapper, new MimeType("application", "x-jackson-smile"));
+        this.timing = new DecodeTiming("smile", meterRegistry);
+    }
+
+    @Override
+    public Object decode(
+            DataBuffer dataBuffer, ResolvableType targetType, MimeType mimeType, Map<String, Object> hints)
+            throws DecodingException {
+        return timing.buffered(() -> super.decode(dataBuffer, targetType, mimeType, hints));
+    }
+
+    @Override
+    public Flux<Object> decode(
+            Publisher<DataBuffer> input, ResolvableType elementType, MimeType mimeType, Map<String, Object> hints) {
+        return super.decode(timing.streamed(input), elementType, mimeType, hints);
+    }
+}
@@ -0,0 +1,81 @@
+package com.reliaquest.api.client;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.util.concurrent.TimeUnit;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.web.reactive.function.client.ClientRequest;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.ExchangeFilterFunction;
+import org.springframework.web.reactive.function.client.ExchangeFunction;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.SignalType;
+
+/**
+ * Times every upstream HTTP exchange, from sending the request until its response body has been read or released,
+ * tagged by the shard and replica it went to, the operation that made it, the response status and its outcome.
+ *
+ * <p>Each attempt of a retried call is an exchange of its own. The operation is taken from the request attribute
+ * {@link #OPERATION}, which {@link EmployeeClient} sets on every request.
+ */
+public class UpstreamMetrics implements ExchangeFilterFunction {
+
+    public static final String OPERATION = UpstreamMetrics.class.getName() + ".operation";
+
+    private static final String UNKNOWN = "unknown";
+    private static final String NO_STATUS = "NONE";
+
+    private final MeterRegistry meterRegistry;
+    private final String shard;
+    private final String replica;
+
+    public UpstreamMetrics(MeterRegistry meterRegistry, String shard, String replica) {
+        this.meterRegistry = meterRegistry;
+        this.shard = shard;
+        this.replica = replica;
+    }
+
+    @Override
+    public Mono<ClientResponse> filter(ClientRequest request, ExchangeFunction next) {
+        String operation = request.attribute(OPERATION).map(Object::toString).orElse(UNKNOWN);
+        return Mono.defer(() -> {
+            long start = System.nanoTime();
+            return next.exchange(request)
+                    .doOnError(error -> record(operation, "IO_ERROR", NO_STATUS, start))
+                    .map(response -> response.mutate()
+                            .body(body -> body.doFinally(signal -> record(
+                                    operation,
+                                    signal == SignalType.ON_ERROR ? "IO_ERROR" : outcome(response.statusCode()),
+                                    String.valueOf(response.statusCode().value()),
+                                    start)))
+                            .build());
+        });
+    }
+
+    private void record(String operation, String outcome, String status, long start) {
+        Timer.builder("api.upstream.requests")
+                .description("Upstream HTTP exchanges, until their response body has been read")
+                .tag("shard", shard)
+                .tag("replica", replica)
+                .tag("operation", operation)
+                .tag("outcome", outcome)
+                .tag("status", status)
+                .publishPercentileHistogram()
+                .register(meterRegistry)
+                .record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+    }
+
+    private static String outcome(HttpStatusCode status) {
+        if (status.isSameCodeAs(HttpStatus.TOO_MANY_REQUESTS)) {
+            return "RATE_LIMITED";
+        }
+        if (status.is2xxSuccessful()) {
+            return "SUCCESS";
+        }
+        if (status.is3xxRedirection()) {
+            return "REDIRECTION";
+        }
+        return status.is4xxClientError() ? "CLIENT_ERROR" : "SERVER_ERROR";
+    }
+}
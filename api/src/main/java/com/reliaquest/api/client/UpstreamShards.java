@@ -0,0 +1,185 @@
+package com.reliaquest.api.client;
+
+import com.reliaquest.api.dto.EmployeeDTO;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * The mock employee servers the roster is sharded across, one {@link EmployeeClient} each, and the routing of
+ * single-employee calls between them.
+ *
+ * <p>Ids are assigned by the servers, so which shard holds an employee cannot be derived from its id. Instead the
+ * shard each id was last seen on is remembered: a known id is looked up on its shard alone, and an unknown one on every
+ * shard in parallel, taking the first that has it. Only the {@code directorySize} most recently used ids are
+ * remembered, so the directory stays bounded however many employees pass through; a forgotten id costs one lookup on
+ * every shard. New employees are placed on the shards in turn.
+ *
+ * <p>Replicas other than a shard's primary do not see the writes made through it, so ids created or deleted recently,
+ * as many as the directory holds, are looked up on the primaries, as are the ids about to be deleted.
+ */
+public class UpstreamShards {
+
+    public static final int DEFAULT_DIRECTORY_SIZE = 100_000;
+
+    private final List<String> names;
+    private final List<EmployeeClient> clients;
+    private final Map<String, Integer> directory;
+    private final Set<String> recentlyWritten;
+    private final AtomicInteger nextCreate = new AtomicInteger();
+
+    /**
+     * @param names how each shard is identified in logs and metrics, in the same order as {@code clients}
+     */
+    public UpstreamShards(List<String> names, List<EmployeeClient> clients) {
+        this(names, clients, DEFAULT_DIRECTORY_SIZE);
+    }
+
+    /**
+     * @param names how each shard is identified in logs and metrics, in the same order as {@code clients}
+     * @param directorySize how many ids the shard is remembered for
+     */
+    public UpstreamShards(List<String> names, List<EmployeeClient> clients, int directorySize) {
+        if (clients.isEmpty()) {
+            throw new IllegalArgumentException("At least one upstream shard is required");
+        }
+        if (names.size() != clients.size()) {
+            throw new IllegalArgumentException("Every upstream shard needs exactly one name");
+        }
+        if (directorySize < 1) {
+            throw new IllegalArgumentException("The shard directory must hold at least one id");
+        }
+        this.names = List.copyOf(names);
+        this.clients = List.copyOf(clients);
+        this.directory = leastRecentlyUsed(directorySize);
+        this.recentlyWritten = Collections.newSetFromMap(leastRecentlyUsed(directorySize));
+    }
+
+    /**
+     * @return a single, unsharded upstream
+     */
+    public static UpstreamShards of(EmployeeClient client) {
+        return new UpstreamShards(List.of("default"), List.of(client));
+    }
+
+    public int size() {
+        return clients.size();
+    }
+
+    public String name(int shard) {
+        return names.get(shard);
+    }
+
+    public EmployeeClient client(int shard) {
+        return clients.get(shard);
+    }
+
+    /**
+     * Looks {@code id} up on the shard it was last seen on or, failing that, on all the others, on their primaries if
+     * the id was written recently.
+     *
+     * @return the employee and its shard, or a {@link WebClientResponseException.NotFound} if no shard has it
+     */
+    public Mono<Located> fetchById(String id) {
+        return fetchById(id, recentlyWritten.contains(id));
+    }
+
+    /**
+     * @param fromPrimary whether to ask only the primary of each shard, which has seen every write made through it
+     */
+    public Mono<Located> fetchById(String id, boolean fromPrimary) {
+        Integer known = directory.get(id);
+        if (known == null) {
+            return fetchFromAll(id, -1, fromPrimary);
+        }
+        return fetchFrom(known, id, fromPrimary).onErrorResume(WebClientResponseException.NotFound.class, e -> {
+            directory.remove(id, known);
+            return fetchFromAll(id, known, fromPrimary);
+        });
+    }
+
+    /**
+     * Creates an employee on the next shard in turn.
+     */
+    public Mono<Located> create(Map<String, Object> employeeInput) {
+        int shard = Math.floorMod(nextCreate.getAndIncrement(), clients.size());
+        return clients.get(shard).create(employeeInput).map(employee -> {
+            if (employee.getId() != null) {
+                recentlyWritten.add(employee.getId());
+            }
+            return remember(shard, employee);
+        });
+    }
+
+    /**
+     * Drops what is known about {@code id}, once it has been deleted. Until it is forgotten in turn, it is looked up
+     * on the primaries, which know it is gone.
+     */
+    public void forget(String id) {
+        directory.remove(id);
+        recentlyWritten.add(id);
+    }
+
+    /*
+     * Asks every shard but the one to skip at once. A shard that fails for any other reason than not having the
+     * employee only fails the lookup if no other shard has it.
+     */
+    private Mono<Located> fetchFromAll(String id, int skip, boolean fromPrimary) {
+        List<Mono<Located>> lookups = new ArrayList<>(clients.size());
+        for (int shard = 0; shard < clients.size(); shard++) {
+            if (shard != skip) {
+                lookups.add(fetchFrom(shard, id, fromPrimary)
+                        .onErrorResume(WebClientResponseException.NotFound.class, e -> Mono.empty()));
+            }
+        }
+        return Flux.fromIterable(lookups)
+                .flatMapDelayError(lookup -> lookup, Math.max(lookups.size(), 1), 1)
+                .next()
+                .switchIfEmpty(Mono.error(() -> WebClientResponseException.create(
+                        HttpStatus.NOT_FOUND,
+                        "No upstream shard has employee " + id,
+                        HttpHeaders.EMPTY,
+                        new byte[0],
+                        null,
+                        null)));
+    }
+
+    private Mono<Located> fetchFrom(int shard, String id, boolean fromPrimary) {
+        EmployeeClient client = clients.get(shard);
+        return (fromPrimary ? client.fetchFromPrimary(id) : client.fetchById(id))
+                .map(employee -> remember(shard, employee));
+    }
+
+    /*
+     * With a single shard there is nothing to route, so nothing is remembered.
+     */
+    private Located remember(int shard, EmployeeDTO employee) {
+        if (employee.getId() != null && clients.size() > 1) {
+            directory.put(employee.getId(), shard);
+        }
+        return new Located(shard, employee);
+    }
+
+    private static <V> Map<String, V> leastRecentlyUsed(int capacity) {
+        return Collections.synchronizedMap(new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, V> eldest) {
+                return size() > capacity;
+            }
+        });
+    }
+
+    /**
+     * An employee and the index of the shard that holds it.
+     */
+    public record Located(int shard, EmployeeDTO employee) {}
+}
@@ -0,0 +1,182 @@
+package com.reliaquest.api.config;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Tunables for the employee API, bound from the {@code api.*} namespace in {@code application.yml}.
+ */
+@Data
+@ConfigurationProperties(prefix = "api")
+public class ApiProperties {
+
+    /**
+     * Which controller serves {@code /employees}: {@code blocking} waits for the upstream on the request thread,
+     * {@code reactive} returns {@code Mono}s end to end. Pair {@code reactive} with
+     * {@code spring.main.web-application-type: reactive} (see the {@code reactive} profile) to serve from Netty's
+     * event loop instead of a Tomcat worker pool. The {@code virtual} profile keeps {@code blocking} but runs each
+     * request on a virtual thread, so waiting for the upstream no longer ties up a platform thread.
+     */
+    private ExecutionMode executionMode = ExecutionMode.BLOCKING;
+
+    private final Upstream upstream = new Upstream();
+    private final Cache cache = new Cache();
+    private final RateLimit rateLimit = new RateLimit();
+    private final Batching batching = new Batching();
+
+    @Data
+    public static class Upstream {
+
+        /**
+         * The shards the roster is split across. Lookups by id are routed to the shard that holds the employee, new
+         * employees are spread across shards in turn, and roster-wide reads are sent to every shard in parallel and
+         * merged.
+         */
+        private List<Shard> shards = new ArrayList<>(List.of(Shard.of("http://localhost:8112/api/v1/employee")));
+
+        /**
+         * Format upstream responses are asked for in. {@code smile} is Jackson's binary JSON, which the mock employee
+         * server produces when asked; it is smaller on the wire and cheaper to decode, and JSON is still accepted
+         * from upstreams that only speak JSON. Callers of this API are answered in JSON either way.
+         */
+        private WireFormat wireFormat = WireFormat.SMILE;
+
+        /**
+         * How many employee ids the shard each was last seen on is remembered for. The least recently used are
+         * forgotten first, and looking one of them up again asks every shard. As many recently created or deleted ids
+         * are looked up on the primary replica of their shard.
+         */
+        private int directorySize = 100_000;
+
+        private final Hedging hedging = new Hedging();
+    }
+
+    @Data
+    public static class Shard {
+
+        /**
+         * Base URLs of identical mock employee servers that each hold the whole shard, its primary first. Writes and
+         * the roster reads behind the cache go to the primary; other reads go to whichever replica is least loaded.
+         */
+        private List<String> replicas = new ArrayList<>();
+
+        public static Shard of(String... replicas) {
+            Shard shard = new Shard();
+            shard.setReplicas(new ArrayList<>(List.of(replicas)));
+            return shard;
+        }
+    }
+
+    @Data
+    public static class Hedging {
+
+        /**
+         * When enabled, a read from a shard with several replicas that is still waiting after the delay below is sent
+         * to a second replica as well. Whichever answers first is used and the other is cancelled.
+         */
+        private boolean enabled = true;
+
+        /**
+         * Percentile of the recent latency of each kind of read after which it is hedged, so 0.95 duplicates roughly
+         * the slowest 5% of reads.
+         */
+        private double percentile = 0.95;
+
+        /**
+         * Reads are never hedged sooner than this, however fast the replicas have been.
+         */
+        private Duration minDelay = Duration.ofMillis(10);
+    }
+
+    @Data
+    public static class Cache {
+
+        /**
+         * When disabled every roster read goes straight to the mock employee server.
+         */
+        private boolean enabled = true;
+
+        /**
+         * How long a fetched roster is served without triggering a refresh.
+         */
+        private Duration ttl = Duration.ofSeconds(30);
+
+        /**
+         * How long past its TTL a roster may still be served while a background refresh is in flight. Once exceeded,
+         * readers wait for the reload instead.
+         */
+        private Duration maxStale = Duration.ofMinutes(5);
+    }
+
+    @Data
+    public static class RateLimit {
+
+        /**
+         * When disabled upstream calls are sent as they arrive and a 429 fails the request immediately.
+         */
+        private boolean enabled = true;
+
+        /**
+         * Requests the upstream is assumed to accept per window before the first 429 teaches the real budget. Zero
+         * means unknown, i.e. no client-side limit until the upstream first rejects a request.
+         */
+        private int initialBudget = 0;
+
+        /**
+         * How long to back off after a 429 that carries no {@code Retry-After} header.
+         */
+        private Duration defaultRetryAfter = Duration.ofSeconds(30);
+
+        /**
+         * Total time a single call may spend queued for a permit and retrying. Calls that cannot complete within it
+         * are shed immediately instead of waiting out a longer backoff window.
+         */
+        private Duration deadline = Duration.ofSeconds(10);
+
+        /**
+         * Base and cap of the exponential backoff between retries; each delay is drawn uniformly from zero to the
+         * current bound.
+         */
+        private Duration backoffBase = Duration.ofMillis(100);
+
+        private Duration backoffMax = Duration.ofSeconds(2);
+
+        /**
+         * Attempts per call, including the first.
+         */
+        private int maxAttempts = 4;
+    }
+
+    @Data
+    public static class Batching {
+
+        /**
+         * When enabled, concurrent creates and deletes are sent to the mock employee server in batches rather than
+         * one request each.
+         */
+        private boolean enabled = false;
+
+        /**
+         * How long the first write of a batch waits for others to join it; this is added to each write's latency.
+         */
+        private Duration window = Duration.ofMillis(5);
+
+        /**
+         * Writes per batch; a batch that fills up is sent without waiting for the window to pass.
+         */
+        private int maxSize = 50;
+    }
+
+    public enum WireFormat {
+        JSON,
+        SMILE
+    }
+
+    public enum ExecutionMode {
+        BLOCKING,
+        REACTIVE
+    }
+}
@@ -1,20 +1,62 @@
 package com.reliaquest.api.config;
 
+import com.reliaquest.api.client.EmployeeClient;
+import com.reliaquest.api.client.TimedJsonDecoder;
+import com.reliaquest.api.client.TimedSmileDecoder;
+import com.reliaquest.api.client.UpstreamMetrics;
+import com.reliaquest.api.client.UpstreamShards;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.List;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
 import org.springframework.web.reactive.function.client.WebClient;
 
 @Configuration
+@EnableConfigurationProperties(ApiProperties.class)
 public class WebConfig {
     @Bean
-    WebClient webClient() {
+    UpstreamShards upstreamShards(ApiProperties properties, MeterRegistry meterRegistry) {
+        List<String> names = new ArrayList<>();
+        List<EmployeeClient> clients = new ArrayList<>();
+        for (ApiProperties.Shard shard : properties.getUpstream().getShards()) {
+            if (shard.getReplicas().isEmpty()) {
+                throw new IllegalArgumentException("Every upstream shard needs at least one replica");
+            }
+            String name = authority(shard.getReplicas().get(0));
+            List<WebClient> replicas = shard.getReplicas().stream()
+                    .map(baseUrl -> webClient(baseUrl, name, authority(baseUrl), meterRegistry))
+                    .toList();
+            names.add(name);
+            clients.add(new EmployeeClient(name, replicas, properties, meterRegistry));
+        }
+        return new UpstreamShards(names, clients, properties.getUpstream().getDirectorySize());
+    }
+
+    private static String authority(String baseUrl) {
+        return URI.create(baseUrl).getAuthority();
+    }
+
+    private static WebClient webClient(String baseUrl, String shard, String replica, MeterRegistry meterRegistry) {
 
         WebClient webClient = WebClient.builder()
-                .baseUrl("http://localhost:8112/api/v1/employee")
+                .baseUrl(baseUrl)
                 .defaultCookie("cookie-name", "cookie-value")
                 .defaultHeader(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                .filter(new UpstreamMetrics(meterRegistry, shard, replica))
+                .codecs(codecs -> {
+                    codecs.defaultCodecs()
+                            .jackson2JsonDecoder(
+                                    new TimedJsonDecoder(Jackson2ObjectMapperBuilder.json().build(), meterRegistry));
+                    codecs.defaultCodecs()
+                            .jackson2SmileDecoder(
+                                    new TimedSmileDecoder(Jackson2ObjectMapperBuilder.smile().build(), meterRegistry));
+                })
                 .build();
 
         return webClient;
@@ -1,7 +1,10 @@
 package com.reliaquest.api.controller;
 
 import com.reliaquest.api.dto.EmployeeDTO;
+import com.reliaquest.api.dto.EmployeePageDTO;
+import com.reliaquest.api.dto.EmployeeQueryDTO;
 import com.reliaquest.api.exception.EmployeeNotFoundException;
+import com.reliaquest.api.exception.UpstreamRateLimitedException;
 import com.reliaquest.api.service.EmployeeService;
 
 import java.util.List;
@@ -9,6 +12,7 @@ import java.util.Map;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
@@ -20,6 +24,7 @@ import org.springframework.web.server.ResponseStatusException;
 @RequestMapping("/employees")
 @RequiredArgsConstructor
 @Slf4j
+@ConditionalOnProperty(name = "api.execution-mode", havingValue = "blocking", matchIfMissing = true)
 public class EmployeeController implements IEmployeeController<EmployeeDTO, Map<String, Object>> {
 
     private final EmployeeService employeeService;
@@ -33,8 +38,7 @@ public class EmployeeController implements IEmployeeController<EmployeeDTO, Map<
             throw new ResponseStatusException(
                     HttpStatus.SERVICE_UNAVAILABLE, "Failed to communicate with employee service", e);
         } catch (Exception e) {
-            log.error("Unexpected error while fetching all employees", e);
-            throw new ResponseStatusException(HttpStatus.INTERNAL_SERVER_ERROR, "Failed to fetch employees", e);
+            throw unexpected(e, "Failed to fetch employees");
         }
     }
 
@@ -47,8 +51,7 @@ public class EmployeeController implements IEmployeeController<EmployeeDTO, Map<
             throw new ResponseStatusException(
                     HttpStatus.SERVICE_UNAVAILABLE, "Failed to communicate with employee service", e);
         } catch (Exception e) {
-            log.error("Unexpected error while searching employees by name: {}", searchString, e);
-            throw new ResponseStatusException(HttpStatus.INTERNAL_SERVER_ERROR, "Failed to search employees", e);
+            throw unexpected(e, "Failed to search employees");
         }
     }
 
@@ -68,8 +71,7 @@ public class EmployeeController implements IEmployeeController<EmployeeDTO, Map<
             throw new ResponseStatusException(
                     HttpStatus.SERVICE_UNAVAILABLE, "Failed to communicate with employee service", e);
         } catch (Exception e) {
-            log.error("Unexpected error while fetching employee by ID: {}", id, e);
-            throw new ResponseStatusException(HttpStatus.INTERNAL_SERVER_ERROR, "Failed to fetch employee", e);
+            throw unexpected(e, "Failed to fetch employee");
         }
     }
 
@@ -82,8 +84,7 @@ public class EmployeeController implements IEmployeeController<EmployeeDTO, Map<
             throw new ResponseStatusException(
                     HttpStatus.SERVICE_UNAVAILABLE, "Failed to communicate with employee service", e);
         } catch (Exception e) {
-            log.error("Unexpected error while fetching highest salary", e);
-            throw new ResponseStatusException(HttpStatus.INTERNAL_SERVER_ERROR, "Failed to fetch highest salary", e);
+            throw unexpected(e, "Failed to fetch highest salary");
         }
     }
 
@@ -96,8 +97,42 @@ public class EmployeeController implements IEmployeeController<EmployeeDTO, Map<
             throw new ResponseStatusException(
                     HttpStatus.SERVICE_UNAVAILABLE, "Failed to communicate with employee service", e);
         } catch (Exception e) {
-            log.error("Unexpected error while fetching top ten highest earners", e);
-            throw new ResponseStatusException(HttpStatus.INTERNAL_SERVER_ERROR, "Failed to fetch top earners", e);
+            throw unexpected(e, "Failed to fetch top earners");
+        }
+    }
+
+    @GetMapping("/topEarners")
+    public ResponseEntity<List<String>> getTopEarningEmployeeNames(@RequestParam(defaultValue = "10") int k) {
+        try {
+            return ResponseEntity.ok(employeeService.getTopEarners(k));
+        } catch (IllegalArgumentException e) {
+            log.warn("Invalid k for top earners: {}", k);
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage(), e);
+        } catch (WebClientException e) {
+            log.error("Error communicating with Mock API for top {} earners", k, e);
+            throw new ResponseStatusException(
+                    HttpStatus.SERVICE_UNAVAILABLE, "Failed to communicate with employee service", e);
+        } catch (Exception e) {
+            throw unexpected(e, "Failed to fetch top earners");
+        }
+    }
+
+    @GetMapping("/query")
+    public ResponseEntity<EmployeePageDTO> queryEmployees(
+            EmployeeQueryDTO query,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "100") int limit) {
+        try {
+            return ResponseEntity.ok(employeeService.queryEmployees(query, cursor, limit));
+        } catch (IllegalArgumentException e) {
+            log.warn("Invalid employee query: {}", e.getMessage());
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage(), e);
+        } catch (WebClientException e) {
+            log.error("Error communicating with Mock API for employee query: {}", query, e);
+            throw new ResponseStatusException(
+                    HttpStatus.SERVICE_UNAVAILABLE, "Failed to communicate with employee service", e);
+        } catch (Exception e) {
+            throw unexpected(e, "Failed to query employees");
         }
     }
 
@@ -114,8 +149,7 @@ public class EmployeeController implements IEmployeeController<EmployeeDTO, Map<
             throw new ResponseStatusException(
                     HttpStatus.SERVICE_UNAVAILABLE, "Failed to communicate with employee service", e);
         } catch (Exception e) {
-            log.error("Error while creating employee: {}", employeeInput, e);
-            throw new ResponseStatusException(HttpStatus.INTERNAL_SERVER_ERROR, "Failed to create employee", e);
+            throw unexpected(e, "Failed to create employee");
         }
     }
 
@@ -136,8 +170,19 @@ public class EmployeeController implements IEmployeeController<EmployeeDTO, Map<
             throw new ResponseStatusException(
                     HttpStatus.SERVICE_UNAVAILABLE, "Failed to communicate with employee service", e);
         } catch (Exception e) {
-            log.error("Unexpected error while deleting employee with ID: {}", id, e);
-            throw new ResponseStatusException(HttpStatus.INTERNAL_SERVER_ERROR, "Failed to delete employee", e);
+            throw unexpected(e, "Failed to delete employee");
+        }
+    }
+
+    /*
+     * A rate limit that could not be waited out is not unexpected: it is passed on to EmployeeControllerAdvice, which
+     * answers it with 503 and Retry-After.
+     */
+    private static RuntimeException unexpected(Exception e, String failure) {
+        if (e instanceof UpstreamRateLimitedException rateLimited) {
+            return rateLimited;
         }
+        log.error("Unexpected error: {}", failure, e);
+        return new ResponseStatusException(HttpStatus.INTERNAL_SERVER_ERROR, failure, e);
     }
 }
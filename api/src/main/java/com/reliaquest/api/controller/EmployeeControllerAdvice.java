@@ -0,0 +1,29 @@
+package com.reliaquest.api.controller;
+
+import com.reliaquest.api.exception.UpstreamRateLimitedException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+
+/**
+ * Error responses shared by {@link EmployeeController} and {@link ReactiveEmployeeController}, whichever of the two
+ * {@code api.execution-mode} activates.
+ */
+@Slf4j
+@RestControllerAdvice
+public class EmployeeControllerAdvice {
+
+    /*
+     * Tells the client when the upstream is expected to accept requests again, in whole seconds and at least one.
+     */
+    @ExceptionHandler(UpstreamRateLimitedException.class)
+    public ResponseEntity<String> handleUpstreamRateLimited(UpstreamRateLimitedException e) {
+        log.warn("Mock API rate limit could not be waited out: {}", e.getMessage());
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(Math.max(1, e.getRetryAfter().toSeconds())))
+                .body(e.getMessage());
+    }
+}
@@ -0,0 +1,159 @@
+package com.reliaquest.api.controller;
+
+import com.reliaquest.api.dto.EmployeeDTO;
+import com.reliaquest.api.dto.EmployeePageDTO;
+import com.reliaquest.api.dto.EmployeeQueryDTO;
+import com.reliaquest.api.exception.EmployeeNotFoundException;
+import com.reliaquest.api.exception.UpstreamRateLimitedException;
+import com.reliaquest.api.service.ReactiveEmployeeService;
+import java.util.List;
+import java.util.Map;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.reactive.function.client.WebClientException;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import org.springframework.web.server.ResponseStatusException;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Non-blocking counterpart of {@link EmployeeController}, active when {@code api.execution-mode} is {@code reactive}.
+ *
+ * <p>It serves the same routes, request shapes and status codes as the {@link IEmployeeController} contract, but each
+ * handler returns a {@link Mono} so no request thread waits on the upstream. It cannot implement the interface
+ * itself because the return types differ.
+ */
+@RestController
+@RequestMapping("/employees")
+@RequiredArgsConstructor
+@Slf4j
+@ConditionalOnProperty(name = "api.execution-mode", havingValue = "reactive")
+public class ReactiveEmployeeController {
+
+    private final ReactiveEmployeeService employeeService;
+
+    @GetMapping
+    public Mono<ResponseEntity<List<EmployeeDTO>>> getAllEmployees() {
+        return employeeService
+                .getAllEmployees()
+                .map(ResponseEntity::ok)
+                .onErrorMap(e -> toResponseStatus(e, "Failed to fetch employees"));
+    }
+
+    /*
+     * Chosen over getAllEmployees() when the client accepts NDJSON. Errors past the first employee can no longer
+     * change the status code and simply end the stream.
+     */
+    @GetMapping(produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public Flux<EmployeeDTO> streamAllEmployees() {
+        return employeeService.streamAllEmployees().onErrorMap(e -> toResponseStatus(e, "Failed to stream employees"));
+    }
+
+    @GetMapping("/search")
+    public Mono<ResponseEntity<List<EmployeeDTO>>> getEmployeesByNameSearch(@RequestParam String searchString) {
+        return employeeService
+                .searchByName(searchString)
+                .map(ResponseEntity::ok)
+                .onErrorMap(e -> toResponseStatus(e, "Failed to search employees"));
+    }
+
+    @GetMapping("/{id}")
+    public Mono<ResponseEntity<EmployeeDTO>> getEmployeeById(@PathVariable String id) {
+        return employeeService
+                .getById(id)
+                .map(ResponseEntity::ok)
+                .onErrorMap(e -> toResponseStatus(e, "Failed to fetch employee"));
+    }
+
+    @GetMapping("/highestSalary")
+    public Mono<ResponseEntity<Integer>> getHighestSalaryOfEmployees() {
+        return employeeService
+                .getHighestSalary()
+                .map(ResponseEntity::ok)
+                .onErrorMap(e -> toResponseStatus(e, "Failed to fetch highest salary"));
+    }
+
+    @GetMapping("/topTenHighestEarningEmployeeNames")
+    public Mono<ResponseEntity<List<String>>> getTopTenHighestEarningEmployeeNames() {
+        return getTopEarningEmployeeNames(10);
+    }
+
+    @GetMapping("/topEarners")
+    public Mono<ResponseEntity<List<String>>> getTopEarningEmployeeNames(@RequestParam(defaultValue = "10") int k) {
+        return employeeService
+                .getTopEarners(k)
+                .map(ResponseEntity::ok)
+                .onErrorMap(e -> toResponseStatus(e, "Failed to fetch top earners"));
+    }
+
+    @GetMapping("/query")
+    public Mono<ResponseEntity<EmployeePageDTO>> queryEmployees(
+            EmployeeQueryDTO query,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "100") int limit) {
+        return employeeService
+                .queryEmployees(query, cursor, limit)
+                .map(ResponseEntity::ok)
+                .onErrorMap(e -> toResponseStatus(e, "Failed to query employees"));
+    }
+
+    @PostMapping
+    public Mono<ResponseEntity<EmployeeDTO>> createEmployee(@RequestBody Map<String, Object> employeeInput) {
+        return employeeService
+                .createEmployee(employeeInput)
+                .map(created -> ResponseEntity.status(HttpStatus.CREATED).body(created))
+                .onErrorMap(e -> toResponseStatus(e, "Failed to create employee"));
+    }
+
+    @DeleteMapping("/{id}")
+    public Mono<ResponseEntity<String>> deleteEmployeeById(@PathVariable String id) {
+        return employeeService
+                .deleteEmployeeById(id)
+                .map(ResponseEntity::ok)
+                .onErrorMap(e -> toResponseStatus(e, "Failed to delete employee"));
+    }
+
+    /*
+     * Same mapping EmployeeController applies with its try/catch blocks. A rate limit that could not be waited out is
+     * passed on to EmployeeControllerAdvice.
+     */
+    private static Throwable toResponseStatus(Throwable e, String failure) {
+        if (e instanceof UpstreamRateLimitedException) {
+            return e;
+        }
+        if (e instanceof ResponseStatusException) {
+            log.warn("{}: {}", failure, e.getMessage());
+            return e;
+        }
+        if (e instanceof EmployeeNotFoundException) {
+            log.warn(e.getMessage());
+            return new ResponseStatusException(HttpStatus.NOT_FOUND, e.getMessage(), e);
+        }
+        if (e instanceof WebClientResponseException.NotFound) {
+            return new ResponseStatusException(HttpStatus.NOT_FOUND, "Employee not found", e);
+        }
+        if (e instanceof IllegalArgumentException) {
+            log.warn("{}: {}", failure, e.getMessage());
+            return new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage(), e);
+        }
+        if (e instanceof WebClientException) {
+            log.error("Error communicating with Mock API: {}", failure, e);
+            return new ResponseStatusException(
+                    HttpStatus.SERVICE_UNAVAILABLE, "Failed to communicate with employee service", e);
+        }
+        log.error("Unexpected error: {}", failure, e);
+        return new ResponseStatusException(HttpStatus.INTERNAL_SERVER_ERROR, failure, e);
+    }
+}
@@ -0,0 +1,20 @@
+package com.reliaquest.api.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class EmployeeChangeDTO {
+
+    private long version;
+    private ChangeType type;
+    private EmployeeDTO employee;
+
+    public enum ChangeType {
+        CREATED,
+        DELETED
+    }
+}
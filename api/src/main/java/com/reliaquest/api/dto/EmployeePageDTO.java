@@ -0,0 +1,21 @@
+package com.reliaquest.api.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import java.util.List;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * One page of query results across every shard. {@code nextCursor} is absent on the last page; otherwise pass it back
+ * as {@code cursor} to fetch the following page. It is opaque to callers.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class EmployeePageDTO {
+
+    private List<EmployeeDTO> employees;
+    private String nextCursor;
+}
@@ -0,0 +1,25 @@
+package com.reliaquest.api.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Filters for {@code GET /employees/query}, bound from its request parameters and passed on to the mock employee
+ * server as they are. Each filter left out matches every employee. Ranges include their bounds; {@code title} must
+ * equal the employee's title and {@code name} be part of their name, both ignoring case.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class EmployeeQueryDTO {
+
+    private Integer minSalary;
+    private Integer maxSalary;
+    private Integer minAge;
+    private Integer maxAge;
+    private String title;
+    private String name;
+}
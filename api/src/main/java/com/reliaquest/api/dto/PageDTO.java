@@ -0,0 +1,18 @@
+package com.reliaquest.api.dto;
+
+import java.util.List;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * One page of employees from a mock employee server. {@code nextCursor} is absent on the last page.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PageDTO {
+
+    private List<EmployeeDTO> items;
+    private Long nextCursor;
+}
@@ -0,0 +1,21 @@
+package com.reliaquest.api.dto;
+
+import java.util.List;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * The whole roster together with the upstream version it reflects, or {@link #UNVERSIONED} when the upstream did not
+ * say.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class RosterSnapshotDTO {
+
+    public static final long UNVERSIONED = -1;
+
+    private long version;
+    private List<EmployeeDTO> employees;
+}
@@ -1,43 +1,30 @@
 package com.reliaquest.api.service;
 
-import com.reliaquest.api.dto.ApiResponseWrapper;
 import com.reliaquest.api.dto.EmployeeDTO;
-import com.reliaquest.api.exception.EmployeeNotFoundException;
+import com.reliaquest.api.dto.EmployeePageDTO;
+import com.reliaquest.api.dto.EmployeeQueryDTO;
 
 import java.util.*;
-import java.util.NoSuchElementException;
-import java.util.stream.Collectors;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.core.ParameterizedTypeReference;
-import org.springframework.http.HttpMethod;
-import org.springframework.http.MediaType;
-import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Service;
-import org.springframework.web.reactive.function.client.WebClient;
 import org.springframework.web.reactive.function.client.WebClientException;
-import org.springframework.web.reactive.function.client.WebClientResponseException;
-import reactor.core.publisher.Mono;
 
+/**
+ * Blocking facade over {@link ReactiveEmployeeService} for servlet-style callers. Each method waits for the reactive
+ * pipeline to complete on the calling thread.
+ */
 @Service
 @Slf4j
 @RequiredArgsConstructor
 public class EmployeeService {
 
-    @Autowired
-    public WebClient webClient;
+    private final ReactiveEmployeeService reactiveEmployeeService;
 
     public List<EmployeeDTO> getAllEmployees() {
         try {
-            return webClient
-                    .get()
-                    .retrieve()
-                    .bodyToMono(new ParameterizedTypeReference<ApiResponseWrapper<List<EmployeeDTO>>>() {
-                    })
-                    .map(ApiResponseWrapper::getData)
-                    .block();
+            return reactiveEmployeeService.getAllEmployees().block();
         } catch (WebClientException e) {
             log.error("Error fetching all employees from Mock API");
             throw new RuntimeException("Failed to fetch employees from employee service", e);
@@ -45,25 +32,17 @@ public class EmployeeService {
     }
 
     public List<EmployeeDTO> searchByName(String fragment) {
-        return getAllEmployees().stream()
-                .filter(e -> e.getName().toLowerCase().contains(fragment.toLowerCase()))
-                .collect(Collectors.toList());
+        try {
+            return reactiveEmployeeService.searchByName(fragment).block();
+        } catch (WebClientException e) {
+            log.error("Error fetching all employees from Mock API");
+            throw new RuntimeException("Failed to fetch employees from employee service", e);
+        }
     }
 
     public EmployeeDTO getById(String id) {
-        log.info("Fetching employee with ID: {}", id);
         try {
-            return webClient
-                    .get()
-                    .uri("/{id}", id)
-                    .retrieve()
-                    .bodyToMono(new ParameterizedTypeReference<ApiResponseWrapper<EmployeeDTO>>() {
-                    })
-                    .map(ApiResponseWrapper::getData)
-                    .block();
-        } catch (WebClientResponseException.NotFound e) {
-            log.warn("Employee not found from Mock API with ID: {}", id);
-            throw new EmployeeNotFoundException("Employee with ID '" + id + "' not found");
+            return reactiveEmployeeService.getById(id).block();
         } catch (WebClientException e) {
             log.error("Error fetching employee by ID {} from Mock API", id);
             throw new RuntimeException("Failed to fetch employee from employee service", e);
@@ -71,83 +50,48 @@ public class EmployeeService {
     }
 
     public int getHighestSalary() {
-        List<EmployeeDTO> employees = getAllEmployees();
-        return employees.stream()
-                .mapToInt(EmployeeDTO::getSalary)
-                .max()
-                .orElseThrow(() -> new NoSuchElementException("No employees found to determine highest salary"));
+        try {
+            return reactiveEmployeeService.getHighestSalary().block();
+        } catch (WebClientException e) {
+            log.error("Error fetching all employees from Mock API");
+            throw new RuntimeException("Failed to fetch employees from employee service", e);
+        }
     }
 
     public List<String> getTop10HighestEarners() {
-        return getAllEmployees().stream()
-                .sorted(Comparator.comparingInt(EmployeeDTO::getSalary).reversed())
-                .limit(10)
-                .map(EmployeeDTO::getName)
-                .collect(Collectors.toList());
+        return getTopEarners(10);
     }
 
-    public EmployeeDTO createEmployee(Map<String, Object> employeeInput) {
+    public List<String> getTopEarners(int k) {
         try {
-            ApiResponseWrapper<EmployeeDTO> response = webClient
-                    .post()
-                    .uri("")
-                    .bodyValue(employeeInput)
-                    .retrieve()
-                    .bodyToMono(new ParameterizedTypeReference<ApiResponseWrapper<EmployeeDTO>>() {
-                    })
-                    .block();
-            return response != null ? response.getData() : null;
+            return reactiveEmployeeService.getTopEarners(k).block();
         } catch (WebClientException e) {
-            log.error("Error creating employee via Mock API");
-            throw new RuntimeException("Failed to create employee via employee service", e);
+            log.error("Error fetching all employees from Mock API");
+            throw new RuntimeException("Failed to fetch employees from employee service", e);
         }
     }
 
-    public String deleteEmployeeById(String id) {
-        log.info("Deleting employee with ID: {}", id);
-        EmployeeDTO employeeToDelete;
+    public EmployeePageDTO queryEmployees(EmployeeQueryDTO query, String cursor, int limit) {
         try {
-            employeeToDelete = getById(id);
-        } catch (EmployeeNotFoundException e) {
-            throw e;
-        } catch (Exception e) {
-            log.error("Error retrieving employee for deletion with ID: {}", id);
-            throw new RuntimeException("Error retrieving employee for deletion", e);
+            return reactiveEmployeeService.queryEmployees(query, cursor, limit).block();
+        } catch (WebClientException e) {
+            log.error("Error querying employees from Mock API");
+            throw new RuntimeException("Failed to query employees from employee service", e);
         }
+    }
 
-        if (employeeToDelete == null || employeeToDelete.getName() == null) {
-            throw new EmployeeNotFoundException("Employee with ID " + id + " not found or name is missing.");
+    public EmployeeDTO createEmployee(Map<String, Object> employeeInput) {
+        try {
+            return reactiveEmployeeService.createEmployee(employeeInput).block();
+        } catch (WebClientException e) {
+            log.error("Error creating employee via Mock API");
+            throw new RuntimeException("Failed to create employee via employee service", e);
         }
+    }
 
+    public String deleteEmployeeById(String id) {
         try {
-            Mono<ResponseEntity<ApiResponseWrapper<Boolean>>> responseEntityMono = webClient
-                    .method(HttpMethod.DELETE)
-                    .uri("")
-                    .contentType(MediaType.APPLICATION_JSON)
-                    .bodyValue(Map.of("name", employeeToDelete.getName()))
-                    .retrieve()
-                    .toEntity(new ParameterizedTypeReference<>() {
-                    });
-
-            ResponseEntity<ApiResponseWrapper<Boolean>> responseEntity = responseEntityMono.block();
-
-            if (responseEntity != null
-                    && responseEntity.getStatusCode().is2xxSuccessful()
-                    && responseEntity.getBody() != null
-                    && Boolean.TRUE.equals(responseEntity.getBody().getData())) {
-                return "Employee with ID " + id + " (name: " + employeeToDelete.getName() + ") deleted successfully.";
-            } else if (responseEntity != null
-                    && responseEntity.getBody() != null
-                    && responseEntity.getBody().getStatus() != null) {
-                throw new RuntimeException(
-                        "Failed to delete employee: " + responseEntity.getBody().getStatus());
-            } else if (responseEntity != null && !responseEntity.getStatusCode().is2xxSuccessful()) {
-                throw new RuntimeException("Failed to delete employee. Status Code: "
-                        + responseEntity.getStatusCode());
-            } else {
-                throw new RuntimeException(
-                        "Failed to delete employee due to an unexpected response from employee service.");
-            }
+            return reactiveEmployeeService.deleteEmployeeById(id).block();
         } catch (WebClientException e) {
             log.error("Error deleting employee with ID {} via Mock API", id);
             throw new RuntimeException("Failed to delete employee via employee service", e);
@@ -0,0 +1,269 @@
+package com.reliaquest.api.service;
+
+import com.reliaquest.api.cache.Roster;
+import com.reliaquest.api.cache.RosterCache;
+import com.reliaquest.api.client.EmployeeClient;
+import com.reliaquest.api.client.RosterAggregation;
+import com.reliaquest.api.client.UpstreamShards;
+import com.reliaquest.api.client.UpstreamShards.Located;
+import com.reliaquest.api.config.ApiProperties;
+import com.reliaquest.api.dto.ApiResponseWrapper;
+import com.reliaquest.api.dto.EmployeeDTO;
+import com.reliaquest.api.dto.EmployeePageDTO;
+import com.reliaquest.api.dto.EmployeeQueryDTO;
+import com.reliaquest.api.dto.PageDTO;
+import com.reliaquest.api.exception.EmployeeNotFoundException;
+import com.reliaquest.api.exception.UpstreamRateLimitedException;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.OptionalInt;
+import java.util.function.IntFunction;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Service;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Non-blocking implementation of the employee operations. Nothing here ever blocks a thread: every method returns a
+ * {@link Mono} that completes when the upstream (or the roster cache) does.
+ *
+ * <p>Without a cache, the salary and name queries are answered in one pass over the upstream's roster stream by a
+ * {@link RosterAggregation}, so no employee is ever built just to read its salary.
+ *
+ * <p>The roster may be sharded across several upstreams (see {@link UpstreamShards}). Single-employee operations go to
+ * the shard holding the employee; roster-wide ones are sent to every shard in parallel and their partial results merged
+ * in shard order, each shard having a roster cache of its own.
+ *
+ * <p>{@link EmployeeService} exposes the same operations to blocking callers.
+ */
+@Service
+@Slf4j
+public class ReactiveEmployeeService {
+
+    public static final int MAX_QUERY_LIMIT = 1000;
+
+    private final UpstreamShards shards;
+    private final List<RosterCache> rosterCaches;
+    private final boolean cacheEnabled;
+
+    @Autowired
+    public ReactiveEmployeeService(UpstreamShards shards, ApiProperties properties, MeterRegistry meterRegistry) {
+        this.shards = shards;
+        this.rosterCaches = IntStream.range(0, shards.size())
+                .mapToObj(shard -> new RosterCache(
+                        properties.getCache(),
+                        shards.name(shard),
+                        shards.client(shard)::fetchAll,
+                        shards.client(shard)::fetchChanges,
+                        meterRegistry))
+                .toList();
+        this.cacheEnabled = properties.getCache().isEnabled();
+    }
+
+    public ReactiveEmployeeService(
+            EmployeeClient employeeClient, ApiProperties properties, MeterRegistry meterRegistry) {
+        this(UpstreamShards.of(employeeClient), properties, meterRegistry);
+    }
+
+    public Mono<List<EmployeeDTO>> getAllEmployees() {
+        return fromEveryShard(shard -> rosterCaches.get(shard).roster().map(Roster::employees))
+                .map(ReactiveEmployeeService::concat);
+    }
+
+    /**
+     * Same employees as {@link #getAllEmployees()}, emitted one by one. Without a cache they are relayed from the
+     * upstream stream as they arrive, so the roster is never held in memory as a whole. All shards are read at once
+     * but relayed one after the other; only a few employees of the later ones are buffered meanwhile.
+     */
+    public Flux<EmployeeDTO> streamAllEmployees() {
+        return Flux.range(0, shards.size())
+                .flatMapSequential(shard -> cacheEnabled
+                        ? rosterCaches.get(shard).roster().flatMapIterable(Roster::employees)
+                        : shards.client(shard).streamAll());
+    }
+
+    public Mono<List<EmployeeDTO>> searchByName(String fragment) {
+        return fromEveryShard(shard -> cacheEnabled
+                        ? rosterCaches.get(shard).roster().map(roster -> roster.searchByName(fragment))
+                        : shards.client(shard).aggregateAll(() -> RosterAggregation.nameMatches(fragment)))
+                .map(ReactiveEmployeeService::concat);
+    }
+
+    public Mono<EmployeeDTO> getById(String id) {
+        log.info("Fetching employee with ID: {}", id);
+        return locate(id, false).map(Located::employee);
+    }
+
+    public Mono<Integer> getHighestSalary() {
+        return fromEveryShard(shard -> cacheEnabled
+                        ? rosterCaches.get(shard).roster().map(Roster::highestSalary)
+                        : shards.client(shard).aggregateAll(RosterAggregation::highestSalary))
+                .map(salaries -> salaries.stream()
+                        .filter(OptionalInt::isPresent)
+                        .mapToInt(OptionalInt::getAsInt)
+                        .max()
+                        .orElseThrow(
+                                () -> new NoSuchElementException("No employees found to determine highest salary")));
+    }
+
+    /**
+     * Each shard contributes its own top {@code k}, which are then merged, so no shard's roster leaves its cache or
+     * stream in full.
+     */
+    public Mono<List<String>> getTopEarners(int k) {
+        if (k < 1) {
+            return Mono.error(new IllegalArgumentException("k must be at least 1"));
+        }
+        return fromEveryShard(shard -> cacheEnabled
+                        ? rosterCaches.get(shard).roster().map(roster -> roster.topEarners(k))
+                        : shards.client(shard).aggregateAll(() -> RosterAggregation.topEarners(k)))
+                .map(perShard -> TopEarners.merge(perShard, k).stream()
+                        .map(EmployeeDTO::getName)
+                        .collect(Collectors.toList()));
+    }
+
+    /**
+     * One page of the employees matching {@code query}. The upstream does the filtering, so only matches are
+     * transferred and the roster cache is not used. Shards are read one after the other until the page is full, so
+     * pages list one shard's matches before the next one's, as {@link #getAllEmployees()} does; the cursor records
+     * the shard to continue with and its position there.
+     *
+     * @param cursor {@code null} for the first page, otherwise the {@link EmployeePageDTO#getNextCursor()} of the
+     *     previous page
+     */
+    public Mono<EmployeePageDTO> queryEmployees(EmployeeQueryDTO query, String cursor, int limit) {
+        if (limit < 1 || limit > MAX_QUERY_LIMIT) {
+            return Mono.error(new IllegalArgumentException("limit must be between 1 and " + MAX_QUERY_LIMIT));
+        }
+        return Mono.fromCallable(() -> ShardCursor.parse(cursor, shards.size()))
+                .flatMap(start -> queryFrom(query, start.shard(), start.position(), limit, List.of()));
+    }
+
+    public Mono<EmployeeDTO> createEmployee(Map<String, Object> employeeInput) {
+        return shards.create(employeeInput)
+                .doOnNext(located -> rosterCaches.get(located.shard()).put(located.employee()))
+                .map(Located::employee);
+    }
+
+    public Mono<String> deleteEmployeeById(String id) {
+        log.info("Deleting employee with ID: {}", id);
+        return locate(id, true)
+                .onErrorMap(
+                        e -> !(e instanceof EmployeeNotFoundException || e instanceof UpstreamRateLimitedException),
+                        e -> {
+                            log.error("Error retrieving employee for deletion with ID: {}", id);
+                            return new RuntimeException("Error retrieving employee for deletion", e);
+                        })
+                .filter(located -> located.employee().getName() != null)
+                .switchIfEmpty(Mono.error(() ->
+                        new EmployeeNotFoundException("Employee with ID " + id + " not found or name is missing.")))
+                .flatMap(located -> shards.client(located.shard())
+                        .deleteByName(located.employee().getName())
+                        .map(response -> deletionResult(id, located, response)));
+    }
+
+    /*
+     * Deletes go by the name the primary has, so they locate the employee there rather than on a replica that may not
+     * have seen it yet.
+     */
+    private Mono<Located> locate(String id, boolean forDelete) {
+        Mono<Located> located = forDelete ? shards.fetchById(id, true) : shards.fetchById(id);
+        return located.onErrorMap(WebClientResponseException.NotFound.class, e -> {
+            log.warn("Employee not found from Mock API with ID: {}", id);
+            return new EmployeeNotFoundException("Employee with ID '" + id + "' not found");
+        });
+    }
+
+    private Mono<EmployeePageDTO> queryFrom(
+            EmployeeQueryDTO query, int shard, long position, int limit, List<EmployeeDTO> found) {
+        return shards.client(shard)
+                .query(query, position, limit - found.size())
+                .defaultIfEmpty(new PageDTO(List.of(), null))
+                .flatMap(page -> {
+                    List<EmployeeDTO> employees = concat(List.of(found, page.getItems()));
+                    if (page.getNextCursor() != null) {
+                        return Mono.just(new EmployeePageDTO(
+                                employees, new ShardCursor(shard, page.getNextCursor()).toString()));
+                    }
+                    if (shard + 1 == shards.size()) {
+                        return Mono.just(new EmployeePageDTO(employees, null));
+                    }
+                    if (employees.size() == limit) {
+                        return Mono.just(new EmployeePageDTO(employees, new ShardCursor(shard + 1, 0).toString()));
+                    }
+                    return queryFrom(query, shard + 1, 0, limit, employees);
+                });
+    }
+
+    /*
+     * Subscribes to every shard's part at once and collects the results in shard order.
+     */
+    private <T> Mono<List<T>> fromEveryShard(IntFunction<Mono<T>> part) {
+        return Flux.range(0, shards.size()).flatMapSequential(part::apply).collectList();
+    }
+
+    private static <T> List<T> concat(List<List<T>> parts) {
+        if (parts.size() == 1) {
+            return parts.get(0);
+        }
+        List<T> all = new ArrayList<>(parts.stream().mapToInt(List::size).sum());
+        parts.forEach(all::addAll);
+        return all;
+    }
+
+    private String deletionResult(
+            String id, Located located, ResponseEntity<ApiResponseWrapper<Boolean>> responseEntity) {
+        if (responseEntity.getStatusCode().is2xxSuccessful()
+                && responseEntity.getBody() != null
+                && Boolean.TRUE.equals(responseEntity.getBody().getData())) {
+            rosterCaches.get(located.shard()).remove(id);
+            shards.forget(id);
+            return "Employee with ID " + id + " (name: " + located.employee().getName() + ") deleted successfully.";
+        } else if (responseEntity.getBody() != null && responseEntity.getBody().getStatus() != null) {
+            throw new RuntimeException(
+                    "Failed to delete employee: " + responseEntity.getBody().getStatus());
+        } else if (!responseEntity.getStatusCode().is2xxSuccessful()) {
+            throw new RuntimeException("Failed to delete employee. Status Code: " + responseEntity.getStatusCode());
+        } else {
+            throw new RuntimeException(
+                    "Failed to delete employee due to an unexpected response from employee service.");
+        }
+    }
+
+    /*
+     * A position in the query results: the shard to read next and the upstream cursor within it, written as
+     * "shard:cursor".
+     */
+    private record ShardCursor(int shard, long position) {
+
+        static ShardCursor parse(String cursor, int shards) {
+            if (cursor == null || cursor.isBlank()) {
+                return new ShardCursor(0, 0);
+            }
+            int separator = cursor.indexOf(':');
+            try {
+                int shard = Integer.parseInt(cursor.substring(0, Math.max(separator, 0)));
+                long position = Long.parseLong(cursor.substring(separator + 1));
+                if (shard >= 0 && shard < shards && position >= 0) {
+                    return new ShardCursor(shard, position);
+                }
+            } catch (NumberFormatException e) {
+                // Reported below like any other malformed cursor.
+            }
+            throw new IllegalArgumentException("Invalid cursor: " + cursor);
+        }
+
+        @Override
+        public String toString() {
+            return shard + ":" + position;
+        }
+    }
+}
@@ -0,0 +1,54 @@
+package com.reliaquest.api.service;
+
+import com.reliaquest.api.dto.EmployeeDTO;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.PriorityQueue;
+
+/**
+ * Merges the top earners of each shard into the top earners of the whole roster.
+ */
+final class TopEarners {
+
+    private TopEarners() {}
+
+    /**
+     * A K-way merge: each list is read from its head, highest first, and only until {@code k} have been taken, so no
+     * more than {@code k} employees are compared however many shards there are.
+     *
+     * @param perShard each shard's top earners, highest first and in shard order
+     * @return up to {@code k} of the highest earners across all shards, highest first; ties go to the earlier shard
+     */
+    static List<EmployeeDTO> merge(List<List<EmployeeDTO>> perShard, int k) {
+        if (perShard.size() == 1) {
+            List<EmployeeDTO> only = perShard.get(0);
+            return only.size() <= k ? only : only.subList(0, k);
+        }
+        PriorityQueue<Cursor> heads = new PriorityQueue<>(Math.max(perShard.size(), 1), (first, second) -> {
+            int bySalary = Integer.compare(second.head().getSalary(), first.head().getSalary());
+            return bySalary != 0 ? bySalary : Integer.compare(first.shard(), second.shard());
+        });
+        for (int shard = 0; shard < perShard.size(); shard++) {
+            if (!perShard.get(shard).isEmpty()) {
+                heads.add(new Cursor(perShard.get(shard), shard, 0));
+            }
+        }
+        // k comes from the caller and may be far larger than the shards' lists put together.
+        List<EmployeeDTO> merged = new ArrayList<>(Math.min(k, perShard.stream().mapToInt(List::size).sum()));
+        while (merged.size() < k && !heads.isEmpty()) {
+            Cursor cursor = heads.poll();
+            merged.add(cursor.head());
+            if (cursor.position() + 1 < cursor.employees().size()) {
+                heads.add(new Cursor(cursor.employees(), cursor.shard(), cursor.position() + 1));
+            }
+        }
+        return merged;
+    }
+
+    private record Cursor(List<EmployeeDTO> employees, int shard, int position) {
+
+        EmployeeDTO head() {
+            return employees.get(position);
+        }
+    }
+}
@@ -0,0 +1,201 @@
+package com.reliaquest.api.cache;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import com.reliaquest.api.config.ApiProperties;
+import com.reliaquest.api.dto.ChangeFeedDTO;
+import com.reliaquest.api.dto.EmployeeChangeDTO;
+import com.reliaquest.api.dto.EmployeeChangeDTO.ChangeType;
+import com.reliaquest.api.dto.EmployeeDTO;
+import com.reliaquest.api.dto.RosterSnapshotDTO;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongFunction;
+import java.util.function.Supplier;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+class RosterCacheTest {
+
+    private static final EmployeeDTO LLOYD =
+            EmployeeDTO.builder().id("1").name("Lloyd Graham").salary(116571).build();
+    private static final EmployeeDTO JILL =
+            EmployeeDTO.builder().id("2").name("Jill Jenkins").salary(139082).build();
+
+    private static final LongFunction<Mono<ChangeFeedDTO>> NO_CHANGES = since -> Mono.empty();
+
+    private final ApiProperties.Cache properties = new ApiProperties.Cache();
+    private final AtomicLong now = new AtomicLong();
+    private final AtomicInteger fetches = new AtomicInteger();
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @BeforeEach
+    void setUp() {
+        properties.setTtl(Duration.ofSeconds(10));
+        properties.setMaxStale(Duration.ofSeconds(60));
+    }
+
+    @Test
+    void roster_shouldBeFetchedOnceWhileFresh() {
+        RosterCache cache = cache(() -> fetch(List.of(LLOYD)), NO_CHANGES);
+
+        Roster first = cache.roster().block();
+        now.addAndGet(Duration.ofSeconds(5).toNanos());
+        Roster second = cache.roster().block();
+
+        assertSame(first, second);
+        assertEquals(1, fetches.get());
+    }
+
+    @Test
+    void roster_shouldCountReadsByHowTheyWereServed() {
+        RosterCache cache = cache(() -> fetch(List.of(LLOYD)), NO_CHANGES);
+
+        cache.roster().block();
+        cache.roster().block();
+        now.addAndGet(Duration.ofSeconds(20).toNanos());
+        cache.roster().block();
+
+        assertEquals(1.0, reads("miss"));
+        assertEquals(1.0, reads("fresh"));
+        assertEquals(1.0, reads("stale"));
+        assertEquals(2, meterRegistry.get("api.cache.roster.refreshes").tag("outcome", "success").timer().count());
+        assertEquals(1.0, meterRegistry.get("api.cache.roster.size").gauge().value());
+    }
+
+    @Test
+    void roster_shouldServeStaleCopyWhileRefreshing() {
+        Sinks.One<List<EmployeeDTO>> pending = Sinks.one();
+        AtomicInteger calls = new AtomicInteger();
+        RosterCache cache = cache(
+                () -> (calls.getAndIncrement() == 0 ? Mono.just(List.of(LLOYD)) : pending.asMono())
+                        .map(RosterCacheTest::unversioned),
+                NO_CHANGES);
+
+        Roster stale = cache.roster().block();
+        now.addAndGet(Duration.ofSeconds(20).toNanos());
+
+        assertSame(stale, cache.roster().block());
+        assertSame(stale, cache.roster().block());
+        assertEquals(2, calls.get());
+
+        pending.tryEmitValue(List.of(LLOYD, JILL));
+        assertEquals(List.of(LLOYD, JILL), cache.roster().block().employees());
+    }
+
+    @Test
+    void roster_shouldWaitForReloadOncePastMaxStale() {
+        RosterCache cache = cache(() -> fetch(List.of(LLOYD)), NO_CHANGES);
+
+        cache.roster().block();
+        now.addAndGet(Duration.ofSeconds(120).toNanos());
+        cache.roster().block();
+
+        assertEquals(2, fetches.get());
+    }
+
+    @Test
+    void writes_shouldBeVisibleToSubsequentReads() {
+        RosterCache cache = cache(() -> fetch(List.of(LLOYD)), NO_CHANGES);
+
+        cache.roster().block();
+        cache.put(JILL);
+        cache.remove(LLOYD.getId());
+
+        assertEquals(List.of(JILL), cache.roster().block().employees());
+        assertEquals(1, fetches.get());
+    }
+
+    @Test
+    void writes_shouldBeReplayedOntoRefreshThatWasInFlight() {
+        Sinks.One<List<EmployeeDTO>> pending = Sinks.one();
+        RosterCache cache = cache(() -> pending.asMono().map(RosterCacheTest::unversioned), NO_CHANGES);
+
+        cache.roster().subscribe();
+        cache.put(JILL);
+        pending.tryEmitValue(List.of(LLOYD));
+
+        assertEquals(List.of(LLOYD, JILL), cache.roster().block().employees());
+    }
+
+    @Test
+    void roster_shouldAlwaysFetchWhenDisabled() {
+        properties.setEnabled(false);
+        RosterCache cache = cache(() -> fetch(List.of(LLOYD)), NO_CHANGES);
+
+        cache.roster().block();
+        cache.roster().block();
+
+        assertEquals(2, fetches.get());
+    }
+
+    @Test
+    void refresh_shouldApplyChangesSinceCachedVersion() {
+        EmployeeChangeDTO hired = new EmployeeChangeDTO(4, ChangeType.CREATED, JILL);
+        EmployeeChangeDTO fired = new EmployeeChangeDTO(5, ChangeType.DELETED, LLOYD);
+        RosterCache cache = cache(
+                () -> fetch(3, List.of(LLOYD)), since -> Mono.just(new ChangeFeedDTO(5, List.of(hired, fired))));
+
+        Roster roster = cache.roster().block();
+        now.addAndGet(Duration.ofSeconds(120).toNanos());
+
+        assertSame(roster, cache.roster().block());
+        assertEquals(List.of(JILL), roster.employees());
+        assertEquals(5, roster.version());
+        assertEquals(1, fetches.get());
+    }
+
+    @Test
+    void refresh_shouldReloadWhenChangeFeedHasGap() {
+        EmployeeChangeDTO hired = new EmployeeChangeDTO(5, ChangeType.CREATED, JILL);
+        RosterCache cache =
+                cache(() -> fetch(3, List.of(LLOYD)), since -> Mono.just(new ChangeFeedDTO(5, List.of(hired))));
+
+        cache.roster().block();
+        now.addAndGet(Duration.ofSeconds(120).toNanos());
+        cache.roster().block();
+
+        assertEquals(2, fetches.get());
+    }
+
+    @Test
+    void refresh_shouldReloadWhenUpstreamNoLongerHasChanges() {
+        RosterCache cache = cache(() -> fetch(3, List.of(LLOYD)), NO_CHANGES);
+
+        cache.roster().block();
+        now.addAndGet(Duration.ofSeconds(120).toNanos());
+        cache.roster().block();
+
+        assertEquals(2, fetches.get());
+    }
+
+    private RosterCache cache(
+            Supplier<Mono<RosterSnapshotDTO>> loader, LongFunction<Mono<ChangeFeedDTO>> changeLoader) {
+        return new RosterCache(properties, "test", loader, changeLoader, meterRegistry, now::get);
+    }
+
+    private double reads(String result) {
+        return meterRegistry.get("api.cache.roster.reads").tag("result", result).counter().count();
+    }
+
+    private Mono<RosterSnapshotDTO> fetch(List<EmployeeDTO> employees) {
+        return fetch(RosterSnapshotDTO.UNVERSIONED, employees);
+    }
+
+    private Mono<RosterSnapshotDTO> fetch(long version, List<EmployeeDTO> employees) {
+        return Mono.fromSupplier(() -> {
+            fetches.incrementAndGet();
+            return new RosterSnapshotDTO(version, employees);
+        });
+    }
+
+    private static RosterSnapshotDTO unversioned(List<EmployeeDTO> employees) {
+        return new RosterSnapshotDTO(RosterSnapshotDTO.UNVERSIONED, employees);
+    }
+}
@@ -0,0 +1,90 @@
+package com.reliaquest.api.cache;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.reliaquest.api.dto.EmployeeDTO;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Collectors;
+import org.junit.jupiter.api.Test;
+
+class RosterTest {
+
+    private static final List<EmployeeDTO> EMPLOYEES = List.of(
+            employee("1", "Lloyd Graham", 116571),
+            employee("2", "Jill Jenkins", 139082),
+            employee("3", "Tiger Nixon", 320800),
+            employee("4", "Bill Bob", 89750),
+            employee("5", "Ann Tiger", 139082));
+
+    @Test
+    void topEarners_shouldMatchStableDescendingSort() {
+        Roster roster = new Roster(EMPLOYEES, 0);
+
+        List<EmployeeDTO> expected = EMPLOYEES.stream()
+                .sorted(Comparator.comparingInt(EmployeeDTO::getSalary).reversed())
+                .limit(3)
+                .collect(Collectors.toList());
+
+        assertEquals(expected, roster.topEarners(3));
+        assertEquals(EMPLOYEES.size(), roster.topEarners(10).size());
+    }
+
+    @Test
+    void highestSalary_shouldFollowWrites() {
+        Roster roster = new Roster(EMPLOYEES, 0);
+        assertEquals(320800, roster.highestSalary().getAsInt());
+
+        roster.remove("3");
+        assertEquals(139082, roster.highestSalary().getAsInt());
+
+        roster.put(employee("6", "New Hire", 400000));
+        assertEquals(400000, roster.highestSalary().getAsInt());
+        assertEquals("New Hire", roster.topEarners(1).get(0).getName());
+    }
+
+    @Test
+    void put_shouldReplaceExistingEmployeeInPlace() {
+        Roster roster = new Roster(EMPLOYEES, 0);
+
+        roster.put(employee("4", "Bill Bob", 500000));
+
+        assertEquals(EMPLOYEES.size(), roster.size());
+        assertEquals("4", roster.employees().get(3).getId());
+        assertEquals(500000, roster.highestSalary().getAsInt());
+    }
+
+    @Test
+    void searchByName_shouldMatchCaseInsensitiveContains() {
+        Roster roster = new Roster(EMPLOYEES, 0);
+
+        for (String fragment : List.of("", "i", "TIG", "tiger", "ger n", "bob", "BILL BOB", "xyz", "nixonx")) {
+            List<EmployeeDTO> expected = EMPLOYEES.stream()
+                    .filter(e -> e.getName().toLowerCase().contains(fragment.toLowerCase()))
+                    .collect(Collectors.toList());
+            assertEquals(expected, roster.searchByName(fragment), "fragment '" + fragment + "'");
+        }
+    }
+
+    @Test
+    void searchByName_shouldFollowWrites() {
+        Roster roster = new Roster(EMPLOYEES, 0);
+
+        roster.remove("3");
+        roster.put(employee("6", "Tigran Petrosian", 90000));
+
+        assertEquals(
+                List.of("Ann Tiger", "Tigran Petrosian"),
+                roster.searchByName("tig").stream().map(EmployeeDTO::getName).collect(Collectors.toList()));
+    }
+
+    @Test
+    void highestSalary_shouldBeEmptyForEmptyRoster() {
+        assertTrue(new Roster(List.of(), 0).highestSalary().isEmpty());
+    }
+
+    private static EmployeeDTO employee(String id, String name, int salary) {
+        return EmployeeDTO.builder().id(id).name(name).salary(salary).build();
+    }
+}
@@ -0,0 +1,57 @@
+package com.reliaquest.api.client;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import com.reliaquest.api.config.ApiProperties;
+import com.reliaquest.api.exception.UpstreamRateLimitedException;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+import org.junit.jupiter.api.Test;
+
+class AdaptiveRateLimiterTest {
+
+    private final ApiProperties.RateLimit properties = new ApiProperties.RateLimit();
+    private final AtomicLong now = new AtomicLong();
+
+    @Test
+    void acquire_shouldNotLimitBeforeBudgetIsKnown() {
+        AdaptiveRateLimiter limiter = new AdaptiveRateLimiter(properties, now::get);
+
+        for (int i = 0; i < 100; i++) {
+            limiter.acquire(now.get()).block();
+        }
+    }
+
+    @Test
+    void onRejected_shouldLearnBudgetAndShedCallersPastTheirDeadline() {
+        AdaptiveRateLimiter limiter = new AdaptiveRateLimiter(properties, now::get);
+        for (int i = 0; i < 6; i++) {
+            limiter.acquire(now.get()).block();
+            limiter.onAccepted();
+        }
+
+        limiter.onRejected(Duration.ofSeconds(30));
+
+        assertEquals(6, limiter.budget());
+        UpstreamRateLimitedException shed = assertThrows(
+                UpstreamRateLimitedException.class,
+                () -> limiter.acquire(now.get() + Duration.ofSeconds(5).toNanos()).block());
+        assertEquals(30, shed.getRetryAfter().toSeconds());
+    }
+
+    @Test
+    void acquire_shouldHoldBackOnceLearnedBudgetIsUsedUp() {
+        properties.setInitialBudget(2);
+        properties.setDefaultRetryAfter(Duration.ofSeconds(10));
+        AdaptiveRateLimiter limiter = new AdaptiveRateLimiter(properties, now::get);
+
+        limiter.acquire(now.get()).block();
+        limiter.acquire(now.get()).block();
+        assertThrows(UpstreamRateLimitedException.class, () -> limiter.acquire(now.get()).block());
+
+        now.addAndGet(Duration.ofSeconds(10).toNanos());
+        limiter.acquire(now.get()).block();
+        assertEquals(3, limiter.budget());
+    }
+}
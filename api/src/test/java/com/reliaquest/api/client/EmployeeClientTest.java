@@ -0,0 +1,166 @@
+package com.reliaquest.api.client;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import com.reliaquest.api.config.ApiProperties;
+import com.reliaquest.api.dto.ChangeFeedDTO;
+import com.reliaquest.api.dto.RosterSnapshotDTO;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Function;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.reactive.function.client.ClientRequest;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.util.UriComponentsBuilder;
+import reactor.core.publisher.Mono;
+
+class EmployeeClientTest {
+
+    private static final String ETAG = "\"e-3\"";
+    private static final String ROSTER =
+            "{\"id\":\"1\",\"employee_name\":\"Lloyd Graham\",\"employee_salary\":116571}\n";
+
+    private static final String EMPLOYEE = "{\"id\":\"1\",\"employee_name\":\"Lloyd Graham\"}";
+
+    private final ApiProperties properties = new ApiProperties();
+
+    @Test
+    void fetchAll_shouldReuseTheLastRosterWhenTheUpstreamAnswers304() {
+        Upstream upstream = new Upstream(request -> {
+            if (ETAG.equals(request.headers().getFirst(HttpHeaders.IF_NONE_MATCH))) {
+                return ClientResponse.create(HttpStatus.NOT_MODIFIED).header(HttpHeaders.ETAG, ETAG).build();
+            }
+            return roster(HttpStatus.OK)
+                    .header(HttpHeaders.ETAG, ETAG)
+                    .header("X-Roster-Version", "3")
+                    .build();
+        });
+        EmployeeClient client = client(false, upstream);
+
+        RosterSnapshotDTO first = client.fetchAll().block();
+        RosterSnapshotDTO second = client.fetchAll().block();
+
+        assertNull(upstream.requests.get(0).headers().getFirst(HttpHeaders.IF_NONE_MATCH));
+        assertEquals(ETAG, upstream.lastRequest().headers().getFirst(HttpHeaders.IF_NONE_MATCH));
+        assertSame(first, second);
+        assertEquals(1, second.getEmployees().size());
+    }
+
+    @Test
+    void fetchAll_shouldNotSendAnETagTheUpstreamNeverGave() {
+        Upstream upstream = new Upstream(request -> roster(HttpStatus.OK).build());
+        EmployeeClient client = client(false, upstream);
+
+        client.fetchAll().block();
+        client.fetchAll().block();
+
+        assertEquals(2, upstream.requests.size());
+        assertFalse(upstream.lastRequest().headers().containsKey(HttpHeaders.IF_NONE_MATCH));
+    }
+
+    @Test
+    void fetchChanges_shouldSendTheEpochOfTheLastRosterAndGiveUpWhenTheUpstreamRestarted() {
+        AtomicReference<String> epoch = new AtomicReference<>("a1");
+        Upstream upstream = new Upstream(request -> {
+            if (request.url().getPath().endsWith("/stream")) {
+                return roster(HttpStatus.OK)
+                        .header("X-Roster-Version", "3")
+                        .header("X-Roster-Epoch", epoch.get())
+                        .build();
+            }
+            if (epoch.get().equals(parameters(request).get("epoch"))) {
+                return ok("{\"version\":3,\"changes\":[]}");
+            }
+            return ClientResponse.create(HttpStatus.GONE).build();
+        });
+        EmployeeClient client = client(false, upstream);
+
+        RosterSnapshotDTO roster = client.fetchAll().block();
+        assertEquals(3, roster.getVersion());
+        assertEquals(new ChangeFeedDTO(3, List.of()), client.fetchChanges(3).block());
+        assertEquals(Map.of("since", "3", "epoch", "a1"), parameters(upstream.lastRequest()));
+
+        epoch.set("b2");
+        assertNull(client.fetchChanges(3).block());
+    }
+
+    /*
+     * The first replica is rate limiting for a minute, far beyond the deadline, so its read fails over to the second
+     * replica, and later reads skip it until it lets calls through again.
+     */
+    @Test
+    void fetchById_shouldBeServedByAnotherReplicaWhileTheFirstIsRateLimited() {
+        Upstream limited = new Upstream(request -> ClientResponse.create(HttpStatus.TOO_MANY_REQUESTS)
+                .header(HttpHeaders.RETRY_AFTER, "60")
+                .build());
+        Upstream available = new Upstream(request -> ok(EMPLOYEE));
+        EmployeeClient client = client(true, limited, available);
+
+        assertEquals("Lloyd Graham", client.fetchById("1").block().getName());
+        assertEquals("Lloyd Graham", client.fetchById("2").block().getName());
+
+        assertEquals(1, limited.requests.size());
+        assertEquals(2, available.requests.size());
+    }
+
+    private EmployeeClient client(boolean rateLimited, Upstream... replicas) {
+        properties.getRateLimit().setEnabled(rateLimited);
+        List<WebClient> webClients = Arrays.stream(replicas)
+                .map(replica -> WebClient.builder()
+                        .baseUrl("http://upstream/api/v1/employee")
+                        .exchangeFunction(replica::respond)
+                        .build())
+                .toList();
+        return new EmployeeClient("test", webClients, properties, new SimpleMeterRegistry());
+    }
+
+    private static ClientResponse.Builder roster(HttpStatus status) {
+        return ClientResponse.create(status)
+                .header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_NDJSON_VALUE)
+                .body(ROSTER);
+    }
+
+    private static ClientResponse ok(String data) {
+        return ClientResponse.create(HttpStatus.OK)
+                .header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                .body("{\"data\":" + data + ",\"status\":\"Successfully processed request.\"}")
+                .build();
+    }
+
+    private static Map<String, String> parameters(ClientRequest request) {
+        return UriComponentsBuilder.fromUri(request.url()).build().getQueryParams().toSingleValueMap();
+    }
+
+    /*
+     * One replica of a mock employee server, answering through the given handler and keeping every request it is sent.
+     */
+    private static final class Upstream {
+
+        private final Function<ClientRequest, ClientResponse> handler;
+        private final List<ClientRequest> requests = new CopyOnWriteArrayList<>();
+
+        Upstream(Function<ClientRequest, ClientResponse> handler) {
+            this.handler = handler;
+        }
+
+        Mono<ClientResponse> respond(ClientRequest request) {
+            requests.add(request);
+            return Mono.fromSupplier(() -> handler.apply(request));
+        }
+
+        ClientRequest lastRequest() {
+            return requests.get(requests.size() - 1);
+        }
+    }
+}
@@ -0,0 +1,142 @@
+package com.reliaquest.api.client;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.reliaquest.api.config.ApiProperties;
+import com.reliaquest.api.exception.UpstreamRateLimitedException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+
+class HedgedReadsTest {
+
+    private static final Duration SLOW = Duration.ofSeconds(5);
+
+    private final ApiProperties.Hedging properties = new ApiProperties.Hedging();
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final HedgedReads hedgedReads = new HedgedReads(
+            properties, "test", meterRegistry, error -> error instanceof UpstreamRateLimitedException);
+
+    @Test
+    void read_shouldNotHedgeReadsWithoutHistory() {
+        AtomicInteger hedges = new AtomicInteger();
+
+        String result = hedgedReads
+                .read("fetchById", () -> Mono.just("primary").delayElement(Duration.ofMillis(50)), () -> {
+                    hedges.incrementAndGet();
+                    return Mono.just("hedge");
+                })
+                .block();
+
+        assertEquals("primary", result);
+        assertEquals(0, hedges.get());
+    }
+
+    @Test
+    void read_shouldHedgeASlowReadAndCancelTheLoser() {
+        warmUp();
+        AtomicBoolean primaryCancelled = new AtomicBoolean();
+
+        String result = hedgedReads
+                .read(
+                        "fetchById",
+                        () -> Mono.just("primary").delayElement(SLOW).doOnCancel(() -> primaryCancelled.set(true)),
+                        () -> Mono.just("hedge"))
+                .block(SLOW);
+
+        assertEquals("hedge", result);
+        assertTrue(primaryCancelled.get());
+        assertEquals(1, hedges("sent"));
+        assertEquals(1, hedges("won"));
+    }
+
+    @Test
+    void read_shouldKeepThePrimaryOutcomeWhenTheHedgeFails() {
+        warmUp();
+
+        String result = hedgedReads
+                .read(
+                        "fetchById",
+                        () -> Mono.just("primary").delayElement(Duration.ofMillis(100)),
+                        () -> Mono.error(new IllegalStateException("replica down")))
+                .block(SLOW);
+
+        assertEquals("primary", result);
+        assertEquals(1, hedges("sent"));
+        assertEquals(0, hedges("won"));
+    }
+
+    @Test
+    void read_shouldNeverHedgeWhenDisabled() {
+        properties.setEnabled(false);
+        warmUp();
+
+        String result = hedgedReads
+                .read(
+                        "fetchById",
+                        () -> Mono.just("primary").delayElement(Duration.ofMillis(100)),
+                        () -> Mono.just("hedge"))
+                .block(SLOW);
+
+        assertEquals("primary", result);
+        assertEquals(0, hedges("sent"));
+    }
+
+    @Test
+    void read_shouldFailOverAtOnceWithoutHistory() {
+        String result = hedgedReads
+                .read(
+                        "fetchById",
+                        () -> Mono.error(new UpstreamRateLimitedException(Duration.ofMinutes(1))),
+                        () -> Mono.just("hedge"))
+                .block(SLOW);
+
+        assertEquals("hedge", result);
+        assertEquals(1, hedges("failover"));
+    }
+
+    @Test
+    void read_shouldPassOnTheFailureWhenBothReplicasFail() {
+        Mono<String> read = hedgedReads.read(
+                "fetchById",
+                () -> Mono.error(new UpstreamRateLimitedException(Duration.ofMinutes(1))),
+                () -> Mono.error(new IllegalStateException("replica down")));
+
+        assertThrows(IllegalStateException.class, () -> read.block(SLOW));
+    }
+
+    @Test
+    void read_shouldNotFailOverOtherFailures() {
+        AtomicInteger hedges = new AtomicInteger();
+
+        Mono<String> read = hedgedReads.read("fetchById", () -> Mono.error(new IllegalArgumentException("no")), () -> {
+            hedges.incrementAndGet();
+            return Mono.just("hedge");
+        });
+
+        assertThrows(IllegalArgumentException.class, () -> read.block(SLOW));
+        assertEquals(0, hedges.get());
+        assertEquals(0, hedges("failover"));
+    }
+
+    private void warmUp() {
+        for (int i = 0; i < 50; i++) {
+            hedgedReads.read("fetchById", () -> Mono.just("fast"), () -> Mono.just("fast")).block();
+        }
+    }
+
+    private double hedges(String result) {
+        return meterRegistry
+                .get("api.upstream.hedges")
+                .tag("shard", "test")
+                .tag("operation", "fetchById")
+                .tag("result", result)
+                .counter()
+                .count();
+    }
+}
@@ -0,0 +1,90 @@
+package com.reliaquest.api.client;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Function;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.core.publisher.Mono;
+import reactor.test.scheduler.VirtualTimeScheduler;
+
+class MicroBatcherTest {
+
+    private final VirtualTimeScheduler scheduler = VirtualTimeScheduler.create();
+    private final List<List<String>> batches = new CopyOnWriteArrayList<>();
+    private final List<String> singles = new CopyOnWriteArrayList<>();
+
+    @Test
+    void submit_shouldSendCallsWithinWindowAsOneBatch() {
+        MicroBatcher<String, String> batcher = batcher(10, this::upperCaseAll);
+        List<String> results = new ArrayList<>();
+
+        batcher.submit("a").subscribe(results::add);
+        batcher.submit("b").subscribe(results::add);
+        batcher.submit("c").subscribe(results::add);
+        assertTrue(batches.isEmpty());
+
+        scheduler.advanceTimeBy(Duration.ofMillis(5));
+
+        assertEquals(List.of(List.of("a", "b", "c")), batches);
+        assertEquals(List.of("A", "B", "C"), results);
+    }
+
+    @Test
+    void submit_shouldSendFullBatchWithoutWaiting() {
+        MicroBatcher<String, String> batcher = batcher(2, this::upperCaseAll);
+
+        batcher.submit("a").subscribe();
+        batcher.submit("b").subscribe();
+        batcher.submit("c").subscribe();
+
+        assertEquals(List.of(List.of("a", "b")), batches);
+        scheduler.advanceTimeBy(Duration.ofMillis(5));
+        assertEquals(List.of("c"), singles);
+    }
+
+    @Test
+    void submit_shouldRetryRejectedBatchItemByItem() {
+        MicroBatcher<String, String> batcher = batcher(10, items -> {
+            batches.add(items);
+            return Mono.error(badRequest());
+        });
+        List<String> results = new ArrayList<>();
+        List<Throwable> errors = new ArrayList<>();
+
+        batcher.submit("a").subscribe(results::add, errors::add);
+        batcher.submit("").subscribe(results::add, errors::add);
+        scheduler.advanceTimeBy(Duration.ofMillis(5));
+
+        assertEquals(List.of("a", ""), singles);
+        assertEquals(List.of("A"), results);
+        assertEquals(1, errors.size());
+        assertInstanceOf(WebClientResponseException.BadRequest.class, errors.get(0));
+    }
+
+    private MicroBatcher<String, String> batcher(
+            int maxSize, Function<List<String>, Mono<List<String>>> batchCall) {
+        return new MicroBatcher<>(Duration.ofMillis(5), maxSize, batchCall, this::upperCase, scheduler);
+    }
+
+    private Mono<List<String>> upperCaseAll(List<String> items) {
+        batches.add(items);
+        return Mono.just(items.stream().map(String::toUpperCase).toList());
+    }
+
+    private Mono<String> upperCase(String item) {
+        singles.add(item);
+        return item.isEmpty() ? Mono.error(badRequest()) : Mono.just(item.toUpperCase());
+    }
+
+    private static WebClientResponseException badRequest() {
+        return WebClientResponseException.create(400, "Bad Request", HttpHeaders.EMPTY, new byte[0], null);
+    }
+}
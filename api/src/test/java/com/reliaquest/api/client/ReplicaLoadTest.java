@@ -0,0 +1,45 @@
+package com.reliaquest.api.client;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.net.URI;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.reactive.function.client.ClientRequest;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import reactor.core.Disposable;
+import reactor.core.publisher.Mono;
+
+class ReplicaLoadTest {
+
+    @Test
+    void cost_shouldRiseWithFailuresAndRequestsInFlight() {
+        ReplicaLoad healthy = new ReplicaLoad();
+        ReplicaLoad rateLimited = new ReplicaLoad();
+        ReplicaLoad busy = new ReplicaLoad();
+        for (int i = 0; i < 5; i++) {
+            exchange(healthy, HttpStatus.OK);
+            exchange(rateLimited, HttpStatus.TOO_MANY_REQUESTS);
+            exchange(busy, HttpStatus.OK);
+        }
+        Disposable waiting = busy.filter(request(), request -> Mono.never()).subscribe();
+
+        try {
+            assertTrue(rateLimited.cost() > healthy.cost());
+            assertTrue(busy.cost() > healthy.cost());
+        } finally {
+            waiting.dispose();
+        }
+    }
+
+    private static void exchange(ReplicaLoad load, HttpStatus status) {
+        load.filter(request(), request -> Mono.just(ClientResponse.create(status).build()))
+                .block();
+    }
+
+    private static ClientRequest request() {
+        return ClientRequest.create(HttpMethod.GET, URI.create("http://localhost:8112/api/v1/employee"))
+                .build();
+    }
+}
@@ -0,0 +1,78 @@
+package com.reliaquest.api.client;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+class SingleFlightTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final SingleFlight<String, String> singleFlight = new SingleFlight<>("test", meterRegistry);
+
+    @Test
+    void execute_shouldShareOneCallBetweenConcurrentCallers() {
+        Sinks.One<String> upstream = Sinks.one();
+        AtomicInteger calls = new AtomicInteger();
+        List<String> results = new ArrayList<>();
+
+        for (int i = 0; i < 5; i++) {
+            singleFlight
+                    .execute("key", () -> {
+                        calls.incrementAndGet();
+                        return upstream.asMono();
+                    })
+                    .subscribe(results::add);
+        }
+        upstream.tryEmitValue("roster");
+
+        assertEquals(1, calls.get());
+        assertEquals(List.of("roster", "roster", "roster", "roster", "roster"), results);
+        assertEquals(4.0, coalesced("true"));
+        assertEquals(1.0, coalesced("false"));
+        assertEquals(0, singleFlight.inFlight());
+    }
+
+    @Test
+    void execute_shouldStartFreshCallOnceThePreviousOneCompleted() {
+        AtomicInteger calls = new AtomicInteger();
+
+        singleFlight.execute("key", () -> Mono.fromSupplier(() -> "v" + calls.incrementAndGet())).block();
+        String second = singleFlight
+                .execute("key", () -> Mono.fromSupplier(() -> "v" + calls.incrementAndGet()))
+                .block();
+
+        assertEquals("v2", second);
+        assertEquals(2, calls.get());
+    }
+
+    @Test
+    void execute_shouldNotCoalesceDifferentKeys() {
+        AtomicInteger calls = new AtomicInteger();
+        Sinks.One<String> upstream = Sinks.one();
+
+        singleFlight.execute("a", () -> countCall(calls, upstream)).subscribe();
+        singleFlight.execute("b", () -> countCall(calls, upstream)).subscribe();
+
+        assertEquals(2, calls.get());
+        assertEquals(2, singleFlight.inFlight());
+    }
+
+    private static Mono<String> countCall(AtomicInteger calls, Sinks.One<String> upstream) {
+        calls.incrementAndGet();
+        return upstream.asMono();
+    }
+
+    private double coalesced(String value) {
+        return meterRegistry
+                .get("api.upstream.singleflight.calls")
+                .tag("coalesced", value)
+                .counter()
+                .count();
+    }
+}
@@ -0,0 +1,182 @@
+package com.reliaquest.api.client;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SequenceWriter;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.reliaquest.api.client.StreamedEmployee.Field;
+import com.reliaquest.api.dto.EmployeeDTO;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.OptionalInt;
+import java.util.Set;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.codec.DecodingException;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import reactor.core.publisher.Flux;
+
+class StreamingRosterDecoderTest {
+
+    private static final String ROSTER = """
+            {"id":"1","employee_name":"Lloyd Graham","employee_salary":116571,"employee_age":42,\
+            "employee_title":"Engineer","employee_email":"lloyd@company.com"}
+            {"id":"2","employee_name":"Grace Hopper","employee_salary":250000,"employee_age":85,\
+            "employee_title":"Admiral","employee_email":"grace@company.com","badges":[{"rank":1}]}
+            {"employee_salary":116571,"employee_name":"Ada Lovelace","id":"3","nickname":null}
+            {"id":"4","employee_name":null,"employee_salary":90000}
+            """;
+
+    private final StreamingRosterDecoder decoder =
+            new StreamingRosterDecoder(new JsonFactory(), new SimpleMeterRegistry());
+
+    @Test
+    void aggregate_shouldFindHighestSalary() {
+        assertEquals(OptionalInt.of(250000), aggregate(ROSTER, 8192, RosterAggregation.highestSalary()));
+    }
+
+    @Test
+    void aggregate_shouldFindNoSalaryInEmptyRoster() {
+        assertEquals(OptionalInt.empty(), aggregate("", 8192, RosterAggregation.highestSalary()));
+    }
+
+    @Test
+    void aggregate_shouldRankTopEarnersKeepingRosterOrderForTies() {
+        assertEquals(
+                List.of("Grace Hopper", "Lloyd Graham", "Ada Lovelace"),
+                names(aggregate(ROSTER, 8192, RosterAggregation.topEarners(3))));
+        assertEquals(
+                List.of("Grace Hopper", "Lloyd Graham"),
+                names(aggregate(ROSTER, 8192, RosterAggregation.topEarners(2))));
+        assertEquals(
+                new EmployeeDTO(null, "Grace Hopper", 250000, 0, null, null),
+                aggregate(ROSTER, 8192, RosterAggregation.topEarners(1)).get(0));
+    }
+
+    @Test
+    void aggregate_shouldBuildOnlyEmployeesWhoseNameMatches() {
+        List<EmployeeDTO> matches = aggregate(ROSTER, 8192, RosterAggregation.nameMatches("GRA"));
+
+        assertEquals(
+                List.of(
+                        new EmployeeDTO("1", "Lloyd Graham", 116571, 42, "Engineer", "lloyd@company.com"),
+                        new EmployeeDTO("2", "Grace Hopper", 250000, 85, "Admiral", "grace@company.com")),
+                matches);
+    }
+
+    @Test
+    void aggregate_shouldGiveSameResultsWhateverTheChunking() {
+        for (int chunkSize : new int[] {1, 2, 7, 64}) {
+            assertEquals(OptionalInt.of(250000), aggregate(ROSTER, chunkSize, RosterAggregation.highestSalary()));
+            assertEquals(
+                    List.of("Grace Hopper", "Lloyd Graham", "Ada Lovelace"),
+                    names(aggregate(ROSTER, chunkSize, RosterAggregation.topEarners(10))));
+            assertEquals(3, aggregate(ROSTER, chunkSize, RosterAggregation.nameMatches("a")).size());
+        }
+    }
+
+    @Test
+    void aggregate_shouldDecodeASmileRosterLikeItsJson() throws IOException {
+        StreamingRosterDecoder smileDecoder = new StreamingRosterDecoder(new SmileFactory(), new SimpleMeterRegistry());
+        byte[] roster = smile(ROSTER);
+
+        for (int chunkSize : new int[] {1, 2, 7, 8192}) {
+            assertEquals(
+                    OptionalInt.of(250000),
+                    smileDecoder
+                            .aggregate(chunks(roster, chunkSize), RosterAggregation::highestSalary)
+                            .block());
+            assertEquals(
+                    aggregate(ROSTER, 8192, RosterAggregation.topEarners(10)),
+                    smileDecoder
+                            .aggregate(chunks(roster, chunkSize), () -> RosterAggregation.topEarners(10))
+                            .block());
+            assertEquals(
+                    aggregate(ROSTER, 8192, RosterAggregation.nameMatches("GRA")),
+                    smileDecoder
+                            .aggregate(chunks(roster, chunkSize), () -> RosterAggregation.nameMatches("GRA"))
+                            .block());
+        }
+    }
+
+    @Test
+    void aggregate_shouldLeaveFieldsTheAggregationDoesNotNeedUnread() {
+        List<StreamedEmployee> seen = new ArrayList<>();
+        aggregate(ROSTER, 8192, new RosterAggregation<Void>() {
+            @Override
+            public Set<Field> fields() {
+                return EnumSet.of(Field.SALARY);
+            }
+
+            @Override
+            public void accept(StreamedEmployee employee) {
+                if (employee.index() == 0) {
+                    assertNull(employee.name());
+                    assertEquals(0, employee.age());
+                    assertEquals(116571, employee.salary());
+                    seen.add(employee);
+                }
+            }
+
+            @Override
+            public Void result() {
+                return null;
+            }
+        });
+
+        assertEquals(1, seen.size());
+    }
+
+    @Test
+    void aggregate_shouldFailOnMalformedRoster() {
+        assertThrows(
+                DecodingException.class,
+                () -> aggregate("{\"id\":\"1\",\"employee_salary\":", 8192, RosterAggregation.highestSalary()));
+        assertThrows(DecodingException.class, () -> aggregate("[1, 2]", 8192, RosterAggregation.highestSalary()));
+    }
+
+    private <R> R aggregate(String body, int chunkSize, RosterAggregation<R> aggregation) {
+        return decoder.aggregate(chunks(body, chunkSize), () -> aggregation).block();
+    }
+
+    private static List<String> names(List<EmployeeDTO> employees) {
+        return employees.stream().map(EmployeeDTO::getName).toList();
+    }
+
+    /*
+     * The same employees as a Smile sequence, as the mock employee server streams them to clients that ask for Smile.
+     */
+    private static byte[] smile(String ndjson) throws IOException {
+        ObjectMapper json = new ObjectMapper();
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (SequenceWriter sequence = new ObjectMapper(new SmileFactory()).writer().writeValues(out)) {
+            for (String line : ndjson.split("\n")) {
+                sequence.write(json.readTree(line));
+            }
+        }
+        return out.toByteArray();
+    }
+
+    private static Flux<DataBuffer> chunks(String body, int chunkSize) {
+        return chunks(body.getBytes(StandardCharsets.UTF_8), chunkSize);
+    }
+
+    private static Flux<DataBuffer> chunks(byte[] bytes, int chunkSize) {
+        List<DataBuffer> chunks = new ArrayList<>();
+        for (int start = 0; start < bytes.length; start += chunkSize) {
+            int length = Math.min(chunkSize, bytes.length - start);
+            chunks.add(DefaultDataBufferFactory.sharedInstance.wrap(Arrays.copyOfRange(bytes, start, start + length)));
+        }
+        return Flux.fromIterable(chunks);
+    }
+}
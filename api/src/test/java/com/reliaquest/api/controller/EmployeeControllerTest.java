@@ -2,17 +2,22 @@ package com.reliaquest.api.controller;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.reliaquest.api.dto.EmployeeDTO;
+import com.reliaquest.api.dto.EmployeePageDTO;
+import com.reliaquest.api.dto.EmployeeQueryDTO;
 import com.reliaquest.api.exception.EmployeeNotFoundException;
+import com.reliaquest.api.exception.UpstreamRateLimitedException;
 import com.reliaquest.api.service.EmployeeService;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
 import org.springframework.test.web.servlet.result.MockMvcResultMatchers;
 
+import java.time.Duration;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
@@ -51,6 +56,15 @@ public class EmployeeControllerTest {
                 .andExpect(status().isOk());
     }
 
+    @Test
+    void getAllEmployees_shouldReturnServiceUnavailableWithRetryAfterWhenRateLimited() throws Exception {
+        when(employeeService.getAllEmployees()).thenThrow(new UpstreamRateLimitedException(Duration.ofSeconds(42)));
+
+        mockMvc.perform(MockMvcRequestBuilders.get("/employees"))
+                .andExpect(status().isServiceUnavailable())
+                .andExpect(MockMvcResultMatchers.header().string(HttpHeaders.RETRY_AFTER, "42"));
+    }
+
     @Test
     void getEmployeeById_shouldReturnOkAndEmployee() throws Exception {
         EmployeeDTO employee = EmployeeDTO.builder()
@@ -74,6 +88,56 @@ public class EmployeeControllerTest {
                 .andExpect(status().isNotFound());
     }
 
+    @Test
+    void getTopEarningEmployeeNames_shouldReturnRequestedCount() throws Exception {
+        when(employeeService.getTopEarners(2)).thenReturn(List.of("Tiger Nixon", "Jill Jenkins"));
+
+        mockMvc.perform(MockMvcRequestBuilders.get("/employees/topEarners").param("k", "2"))
+                .andExpect(status().isOk())
+                .andExpect(MockMvcResultMatchers.jsonPath("$.length()").value(2));
+    }
+
+    @Test
+    void getTopEarningEmployeeNames_shouldReturnBadRequestForInvalidK() throws Exception {
+        when(employeeService.getTopEarners(0)).thenThrow(new IllegalArgumentException("k must be at least 1"));
+
+        mockMvc.perform(MockMvcRequestBuilders.get("/employees/topEarners").param("k", "0"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void queryEmployees_shouldPassFiltersAndCursorToService() throws Exception {
+        EmployeeQueryDTO query = EmployeeQueryDTO.builder()
+                .minSalary(200000)
+                .minAge(30)
+                .maxAge(40)
+                .title("Engineer")
+                .build();
+        when(employeeService.queryEmployees(query, "0:7", 2))
+                .thenReturn(new EmployeePageDTO(
+                        List.of(EmployeeDTO.builder().name("Grace Hopper").build()), "1:0"));
+
+        mockMvc.perform(MockMvcRequestBuilders.get("/employees/query")
+                        .param("minSalary", "200000")
+                        .param("minAge", "30")
+                        .param("maxAge", "40")
+                        .param("title", "Engineer")
+                        .param("cursor", "0:7")
+                        .param("limit", "2"))
+                .andExpect(status().isOk())
+                .andExpect(MockMvcResultMatchers.jsonPath("$.employees[0].employee_name").value("Grace Hopper"))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.nextCursor").value("1:0"));
+    }
+
+    @Test
+    void queryEmployees_shouldReturnBadRequestForInvalidLimit() throws Exception {
+        when(employeeService.queryEmployees(new EmployeeQueryDTO(), null, 0))
+                .thenThrow(new IllegalArgumentException("limit must be between 1 and 1000"));
+
+        mockMvc.perform(MockMvcRequestBuilders.get("/employees/query").param("limit", "0"))
+                .andExpect(status().isBadRequest());
+    }
+
     @Test
     void createEmployee_shouldReturnCreatedAndEmployee() throws Exception {
         Map<String, Object> employeeInput = Map.of("name", "New Employee", "age", 28, "salary", 55000, "email", "new.employee@example.com");
@@ -103,6 +167,17 @@ public class EmployeeControllerTest {
                 .andExpect(status().isBadRequest());
     }
 
+    @Test
+    void createEmployee_shouldReturnServiceUnavailableWithRetryAfterWhenRateLimited() throws Exception {
+        when(employeeService.createEmployee(any())).thenThrow(new UpstreamRateLimitedException(Duration.ofSeconds(7)));
+
+        mockMvc.perform(MockMvcRequestBuilders.post("/employees")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(Map.of("name", "New Employee"))))
+                .andExpect(status().isServiceUnavailable())
+                .andExpect(MockMvcResultMatchers.header().string(HttpHeaders.RETRY_AFTER, "7"));
+    }
+
     @Test
     void deleteEmployeeById_shouldReturnOk() throws Exception {
         when(employeeService.deleteEmployeeById("1")).thenReturn("Employee with ID 1 deleted successfully.");
@@ -0,0 +1,84 @@
+package com.reliaquest.api.controller;
+
+import static org.mockito.Mockito.when;
+
+import com.reliaquest.api.dto.EmployeeDTO;
+import com.reliaquest.api.dto.EmployeeQueryDTO;
+import com.reliaquest.api.exception.EmployeeNotFoundException;
+import com.reliaquest.api.exception.UpstreamRateLimitedException;
+import com.reliaquest.api.service.ReactiveEmployeeService;
+import java.time.Duration;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.reactive.WebFluxTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import reactor.core.publisher.Mono;
+
+@WebFluxTest(controllers = ReactiveEmployeeController.class, properties = "api.execution-mode=reactive")
+class ReactiveEmployeeControllerTest {
+
+    @Autowired
+    private WebTestClient webTestClient;
+
+    @MockBean
+    private ReactiveEmployeeService employeeService;
+
+    @Test
+    void getAllEmployees_shouldReturnOkAndEmployeeList() {
+        when(employeeService.getAllEmployees())
+                .thenReturn(Mono.just(List.of(EmployeeDTO.builder()
+                        .id("e143a192-5970-452f-87cb-027012838e78")
+                        .name("Lloyd Graham")
+                        .salary(116571)
+                        .build())));
+
+        webTestClient
+                .get()
+                .uri("/employees")
+                .exchange()
+                .expectStatus()
+                .isOk()
+                .expectBody()
+                .jsonPath("$[0].employee_name")
+                .isEqualTo("Lloyd Graham");
+    }
+
+    @Test
+    void getEmployeeById_shouldReturnNotFoundWhenEmployeeNotFound() {
+        when(employeeService.getById("nonexistent"))
+                .thenReturn(Mono.error(new EmployeeNotFoundException("Employee with ID 'nonexistent' not found")));
+
+        webTestClient.get().uri("/employees/nonexistent").exchange().expectStatus().isNotFound();
+    }
+
+    @Test
+    void queryEmployees_shouldReturnBadRequestForInvalidCursor() {
+        when(employeeService.queryEmployees(EmployeeQueryDTO.builder().title("Engineer").build(), "bogus", 100))
+                .thenReturn(Mono.error(new IllegalArgumentException("Invalid cursor: bogus")));
+
+        webTestClient
+                .get()
+                .uri("/employees/query?title=Engineer&cursor=bogus")
+                .exchange()
+                .expectStatus()
+                .isBadRequest();
+    }
+
+    @Test
+    void getHighestSalary_shouldReturnServiceUnavailableWithRetryAfterWhenRateLimited() {
+        when(employeeService.getHighestSalary())
+                .thenReturn(Mono.error(new UpstreamRateLimitedException(Duration.ofSeconds(42))));
+
+        webTestClient
+                .get()
+                .uri("/employees/highestSalary")
+                .exchange()
+                .expectStatus()
+                .isEqualTo(503)
+                .expectHeader()
+                .valueEquals(HttpHeaders.RETRY_AFTER, "42");
+    }
+}
@@ -0,0 +1,136 @@
+package com.reliaquest.api.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.reliaquest.api.client.EmployeeClient;
+import com.reliaquest.api.config.ApiProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Collectors;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.reactive.function.client.ClientRequest;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
+
+/**
+ * Runs the blocking service, as the {@code virtual} profile does, on virtual threads and has JFR report every time one
+ * of them blocks while pinned to its carrier thread, e.g. inside a {@code synchronized} block.
+ */
+class EmployeeServiceVirtualThreadTest {
+
+    private static final String ID = "e143a192-5970-452f-87cb-027012838e78";
+    private static final String EMPLOYEE = """
+            {"id":"%s","employee_name":"Lloyd Graham","employee_salary":116571,"employee_age":58,\
+            "employee_title":"Engineer","employee_email":"lloyd@company.com"}"""
+            .formatted(ID);
+    private static final Duration UPSTREAM_LATENCY = Duration.ofMillis(20);
+    private static final int CONCURRENT_REQUESTS = 200;
+
+    @ParameterizedTest
+    @ValueSource(booleans = {true, false})
+    void blockingCalls_shouldNeverPinCarrierThreads(boolean cacheEnabled) throws Exception {
+        EmployeeService service = service(cacheEnabled);
+        List<Callable<Object>> requests = List.of(
+                service::getAllEmployees,
+                () -> service.searchByName("gra"),
+                () -> service.getById(ID),
+                service::getHighestSalary,
+                service::getTop10HighestEarners,
+                () -> service.createEmployee(Map.of("name", "Lloyd Graham")),
+                () -> service.deleteEmployeeById(ID));
+
+        List<RecordedEvent> pinned = recordPinning(() -> {
+            try (var executor = Executors.newVirtualThreadPerTaskExecutor()) {
+                List<Future<Object>> results = new ArrayList<>();
+                for (int i = 0; i < CONCURRENT_REQUESTS; i++) {
+                    results.add(executor.submit(requests.get(i % requests.size())));
+                }
+                for (Future<Object> result : results) {
+                    result.get();
+                }
+            }
+        });
+
+        assertTrue(
+                pinned.isEmpty(),
+                () -> "Virtual threads were pinned:\n"
+                        + pinned.stream().map(RecordedEvent::toString).collect(Collectors.joining("\n")));
+    }
+
+    @Test
+    void blockingCalls_shouldAllRunOnVirtualThreads() throws Exception {
+        EmployeeService service = service(false);
+        try (var executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            assertEquals(116571, executor.submit(service::getHighestSalary).get());
+            assertTrue(executor.submit(() -> Thread.currentThread().isVirtual()).get());
+        }
+    }
+
+    private List<RecordedEvent> recordPinning(ThrowingRunnable workload) throws Exception {
+        Path file = Files.createTempFile("pinning", ".jfr");
+        try (Recording recording = new Recording()) {
+            recording.enable("jdk.VirtualThreadPinned").withThreshold(Duration.ZERO).withStackTrace();
+            recording.start();
+            workload.run();
+            recording.stop();
+            recording.dump(file);
+        }
+        try {
+            return RecordingFile.readAllEvents(file);
+        } finally {
+            Files.delete(file);
+        }
+    }
+
+    private static EmployeeService service(boolean cacheEnabled) {
+        ApiProperties properties = new ApiProperties();
+        properties.getCache().setEnabled(cacheEnabled);
+        properties.getRateLimit().setEnabled(false);
+        WebClient webClient = WebClient.builder()
+                .baseUrl("http://localhost:8112/api/v1/employee")
+                .exchangeFunction(request -> respond(request).delayElement(UPSTREAM_LATENCY))
+                .build();
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        EmployeeClient client = new EmployeeClient(webClient, properties, meterRegistry);
+        return new EmployeeService(new ReactiveEmployeeService(client, properties, meterRegistry));
+    }
+
+    private static Mono<ClientResponse> respond(ClientRequest request) {
+        String path = request.url().getPath();
+        if (path.endsWith("/stream")) {
+            return Mono.just(ClientResponse.create(HttpStatus.OK)
+                    .header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_NDJSON_VALUE)
+                    .body(EMPLOYEE + "\n")
+                    .build());
+        }
+        String data = request.method() == HttpMethod.DELETE ? "true" : EMPLOYEE;
+        return Mono.just(ClientResponse.create(HttpStatus.OK)
+                .header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                .body("{\"data\":" + data + ",\"status\":\"Successfully processed request.\"}")
+                .build());
+    }
+
+    @FunctionalInterface
+    private interface ThrowingRunnable {
+        void run() throws Exception;
+    }
+}
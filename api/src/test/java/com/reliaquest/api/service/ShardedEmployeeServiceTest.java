@@ -0,0 +1,334 @@
+package com.reliaquest.api.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import com.reliaquest.api.client.EmployeeClient;
+import com.reliaquest.api.client.UpstreamShards;
+import com.reliaquest.api.config.ApiProperties;
+import com.reliaquest.api.dto.EmployeeDTO;
+import com.reliaquest.api.dto.EmployeePageDTO;
+import com.reliaquest.api.dto.EmployeeQueryDTO;
+import com.reliaquest.api.exception.EmployeeNotFoundException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.reactive.function.client.ClientRequest;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.util.UriComponentsBuilder;
+import reactor.core.publisher.Mono;
+
+class ShardedEmployeeServiceTest {
+
+    private final Shard first = new Shard(
+            "first",
+            employee("1", "Lloyd Graham", 116571),
+            employee("2", "Grace Hopper", 250000),
+            employee("3", "Ada Lovelace", 90000));
+    private final Shard second = new Shard(
+            "second", employee("4", "Alan Turing", 250000), employee("5", "Edsger Dijkstra", 116571));
+
+    @ParameterizedTest
+    @ValueSource(booleans = {true, false})
+    void rosterQueries_shouldMergeEveryShard(boolean cacheEnabled) {
+        ReactiveEmployeeService service = service(cacheEnabled);
+
+        assertEquals(
+                List.of("1", "2", "3", "4", "5"),
+                service.getAllEmployees().block().stream()
+                        .map(EmployeeDTO::getId)
+                        .toList());
+        assertEquals(
+                List.of("Lloyd Graham", "Grace Hopper", "Alan Turing", "Edsger Dijkstra"),
+                service.searchByName("g").block().stream()
+                        .map(EmployeeDTO::getName)
+                        .toList());
+        assertEquals(250000, service.getHighestSalary().block());
+        assertEquals(
+                List.of("Grace Hopper", "Alan Turing", "Lloyd Graham", "Edsger Dijkstra"),
+                service.getTopEarners(4).block());
+        assertEquals(5, service.streamAllEmployees().collectList().block().size());
+    }
+
+    @Test
+    void getById_shouldOnlyAskTheOwningShardOnceItIsKnown() {
+        ReactiveEmployeeService service = service(true);
+
+        assertEquals("Alan Turing", service.getById("4").block().getName());
+        assertEquals("Alan Turing", service.getById("4").block().getName());
+
+        assertEquals(1, first.lookups.get());
+        assertEquals(2, second.lookups.get());
+    }
+
+    @Test
+    void getById_shouldForgetTheShardOfTheLeastRecentlyUsedIdsBeyondTheDirectorySize() {
+        ReactiveEmployeeService service = service(true, 1);
+
+        service.getById("4").block();
+        service.getById("5").block();
+        service.getById("5").block();
+        service.getById("4").block();
+
+        assertEquals(3, first.lookups.get());
+        assertEquals(4, second.lookups.get());
+    }
+
+    @Test
+    void getById_shouldFailWhenNoShardHasTheEmployee() {
+        ReactiveEmployeeService service = service(true);
+
+        assertThrows(EmployeeNotFoundException.class, () -> service.getById("42").block());
+        assertEquals(1, first.lookups.get());
+        assertEquals(1, second.lookups.get());
+    }
+
+    @Test
+    void deleteEmployeeById_shouldDeleteFromTheOwningShardOnly() {
+        ReactiveEmployeeService service = service(true);
+
+        service.deleteEmployeeById("5").block();
+
+        assertEquals(0, first.deletes.get());
+        assertEquals(1, second.deletes.get());
+    }
+
+    /*
+     * The replica never sees writes made through the primary, and it answers faster, so it is where balanced lookups
+     * go once the primary has been timed.
+     */
+    @Test
+    void createEmployee_shouldLeaveTheNewEmployeeReadableAndDeletableRightAway() {
+        Shard replica = new Shard("first-replica", employee("1", "Lloyd Graham", 116571));
+        first.latency = Duration.ofMillis(50);
+        ReactiveEmployeeService service = replicatedService(replica);
+        service.getById("1").block();
+        service.getById("1").block();
+        assertEquals(1, replica.lookups.get());
+
+        String id = service.createEmployee(Map.of("name", "New Hire")).block().getId();
+
+        assertEquals("New Hire", service.getById(id).block().getName());
+        assertEquals(
+                "Employee with ID " + id + " (name: New Hire) deleted successfully.",
+                service.deleteEmployeeById(id).block());
+        assertEquals(1, replica.lookups.get());
+        assertEquals(1, first.deletes.get());
+    }
+
+    @Test
+    void createEmployee_shouldPlaceNewEmployeesOnEachShardInTurn() {
+        ReactiveEmployeeService service = service(true);
+
+        for (int i = 0; i < 4; i++) {
+            service.createEmployee(Map.of("name", "New Hire")).block();
+        }
+
+        assertEquals(2, first.creates.get());
+        assertEquals(2, second.creates.get());
+    }
+
+    @Test
+    void queryEmployees_shouldFillPagesFromEachShardInTurn() {
+        ReactiveEmployeeService service = service(true);
+        EmployeeQueryDTO query = EmployeeQueryDTO.builder().minSalary(100000).build();
+
+        EmployeePageDTO firstPage = service.queryEmployees(query, null, 3).block();
+        assertEquals(List.of("Lloyd Graham", "Grace Hopper", "Alan Turing"), names(firstPage));
+        assertEquals("1:1", firstPage.getNextCursor());
+
+        EmployeePageDTO lastPage = service.queryEmployees(query, firstPage.getNextCursor(), 3).block();
+        assertEquals(List.of("Edsger Dijkstra"), names(lastPage));
+        assertNull(lastPage.getNextCursor());
+    }
+
+    @Test
+    void queryEmployees_shouldMoveToTheNextShardWhenAPageEndsWithOne() {
+        ReactiveEmployeeService service = service(true);
+        EmployeeQueryDTO query = EmployeeQueryDTO.builder().minSalary(100000).build();
+
+        EmployeePageDTO firstPage = service.queryEmployees(query, null, 2).block();
+
+        assertEquals(List.of("Lloyd Graham", "Grace Hopper"), names(firstPage));
+        assertEquals("1:0", firstPage.getNextCursor());
+        assertEquals(0, second.queries.get());
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"2:0", "0:-1", "0", "x:y"})
+    void queryEmployees_shouldRejectInvalidCursors(String cursor) {
+        ReactiveEmployeeService service = service(true);
+
+        assertThrows(
+                IllegalArgumentException.class,
+                () -> service.queryEmployees(new EmployeeQueryDTO(), cursor, 10).block());
+    }
+
+    @ParameterizedTest
+    @ValueSource(booleans = {true, false})
+    void getTopEarners_shouldReturnEveryEmployeeForAnyLargerK(boolean cacheEnabled) {
+        ReactiveEmployeeService service = service(cacheEnabled);
+
+        assertEquals(
+                List.of("Grace Hopper", "Alan Turing", "Lloyd Graham", "Edsger Dijkstra", "Ada Lovelace"),
+                service.getTopEarners(Integer.MAX_VALUE).block());
+    }
+
+    @Test
+    void merge_shouldTakeTheHighestHeadsAndBreakTiesByShard() {
+        EmployeeDTO grace = employee("2", "Grace Hopper", 250000);
+        EmployeeDTO alan = employee("4", "Alan Turing", 250000);
+        EmployeeDTO lloyd = employee("1", "Lloyd Graham", 116571);
+        EmployeeDTO ada = employee("3", "Ada Lovelace", 90000);
+
+        assertEquals(
+                List.of(grace, alan, lloyd),
+                TopEarners.merge(List.of(List.of(grace, ada), List.of(), List.of(alan, lloyd)), 3));
+        assertEquals(List.of(grace), TopEarners.merge(List.of(List.of(grace, ada)), 1));
+    }
+
+    private ReactiveEmployeeService service(boolean cacheEnabled) {
+        return service(cacheEnabled, UpstreamShards.DEFAULT_DIRECTORY_SIZE);
+    }
+
+    private ReactiveEmployeeService service(boolean cacheEnabled, int directorySize) {
+        ApiProperties properties = new ApiProperties();
+        properties.getCache().setEnabled(cacheEnabled);
+        properties.getRateLimit().setEnabled(false);
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        List<EmployeeClient> clients = new ArrayList<>();
+        for (Shard shard : List.of(first, second)) {
+            clients.add(new EmployeeClient(webClient(shard), properties, meterRegistry));
+        }
+        return new ReactiveEmployeeService(
+                new UpstreamShards(List.of(first.name, second.name), clients, directorySize),
+                properties,
+                meterRegistry);
+    }
+
+    /*
+     * One shard served by the first mock server as its primary and the given replica.
+     */
+    private ReactiveEmployeeService replicatedService(Shard replica) {
+        ApiProperties properties = new ApiProperties();
+        properties.getCache().setEnabled(false);
+        properties.getRateLimit().setEnabled(false);
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        List<WebClient> replicas = List.of(webClient(first), webClient(replica));
+        return new ReactiveEmployeeService(
+                new EmployeeClient(first.name, replicas, properties, meterRegistry), properties, meterRegistry);
+    }
+
+    private static WebClient webClient(Shard shard) {
+        return WebClient.builder()
+                .baseUrl("http://" + shard.name + "/api/v1/employee")
+                .exchangeFunction(shard::respond)
+                .build();
+    }
+
+    private static List<String> names(EmployeePageDTO page) {
+        return page.getEmployees().stream().map(EmployeeDTO::getName).toList();
+    }
+
+    private static EmployeeDTO employee(String id, String name, int salary) {
+        return new EmployeeDTO(id, name, salary, 30, "Engineer", null);
+    }
+
+    /*
+     * A mock employee server holding a fixed roster and the employees created on it, counting the single-employee
+     * calls and queries it is sent. Its queries only filter on the minimum salary, and its cursors are positions in the
+     * roster. Lookups take as long as its latency.
+     */
+    private static final class Shard {
+
+        private final String name;
+        private final Map<String, EmployeeDTO> employees = new ConcurrentHashMap<>();
+        private final List<EmployeeDTO> roster;
+        private final AtomicInteger lookups = new AtomicInteger();
+        private final AtomicInteger creates = new AtomicInteger();
+        private final AtomicInteger deletes = new AtomicInteger();
+        private final AtomicInteger queries = new AtomicInteger();
+        private Duration latency = Duration.ZERO;
+
+        Shard(String name, EmployeeDTO... roster) {
+            this.name = name;
+            this.roster = List.of(roster);
+            for (EmployeeDTO employee : roster) {
+                employees.put(employee.getId(), employee);
+            }
+        }
+
+        Mono<ClientResponse> respond(ClientRequest request) {
+            String path = request.url().getPath();
+            if (path.endsWith("/stream")) {
+                return Mono.just(ClientResponse.create(HttpStatus.OK)
+                        .header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_NDJSON_VALUE)
+                        .body(roster.stream().map(Shard::json).collect(Collectors.joining("\n", "", "\n")))
+                        .build());
+            }
+            if (path.endsWith("/query")) {
+                queries.incrementAndGet();
+                return ok(query(request));
+            }
+            if (request.method() == HttpMethod.POST) {
+                EmployeeDTO created = employee(name + "-" + creates.incrementAndGet(), "New Hire", 50000);
+                employees.put(created.getId(), created);
+                return ok(json(created));
+            }
+            if (request.method() == HttpMethod.DELETE) {
+                deletes.incrementAndGet();
+                return ok("true");
+            }
+            lookups.incrementAndGet();
+            EmployeeDTO employee = employees.get(path.substring(path.lastIndexOf('/') + 1));
+            if (employee == null) {
+                return Mono.just(ClientResponse.create(HttpStatus.NOT_FOUND).build());
+            }
+            return ok(json(employee)).delayElement(latency);
+        }
+
+        private String query(ClientRequest request) {
+            Map<String, String> parameters =
+                    UriComponentsBuilder.fromUri(request.url()).build().getQueryParams().toSingleValueMap();
+            int minSalary = Integer.parseInt(parameters.getOrDefault("minSalary", "0"));
+            int limit = Integer.parseInt(parameters.get("limit"));
+            List<String> items = new ArrayList<>();
+            for (int i = Integer.parseInt(parameters.get("cursor")); i < roster.size(); i++) {
+                if (roster.get(i).getSalary() < minSalary) {
+                    continue;
+                }
+                if (items.size() == limit) {
+                    return "{\"items\":[" + String.join(",", items) + "],\"nextCursor\":" + i + "}";
+                }
+                items.add(json(roster.get(i)));
+            }
+            return "{\"items\":[" + String.join(",", items) + "]}";
+        }
+
+        private static Mono<ClientResponse> ok(String data) {
+            return Mono.just(ClientResponse.create(HttpStatus.OK)
+                    .header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                    .body("{\"data\":" + data + ",\"status\":\"Successfully processed request.\"}")
+                    .build());
+        }
+
+        private static String json(EmployeeDTO employee) {
+            return "{\"id\":\"%s\",\"employee_name\":\"%s\",\"employee_salary\":%d,\"employee_age\":%d}"
+                    .formatted(employee.getId(), employee.getName(), employee.getSalary(), employee.getAge());
+        }
+    }
+}
@@ -0,0 +1,89 @@
+package com.reliaquest.benchmarks;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.reliaquest.api.client.EmployeeClient;
+import com.reliaquest.api.config.ApiProperties;
+import com.reliaquest.api.controller.EmployeeController;
+import com.reliaquest.api.dto.EmployeeDTO;
+import com.reliaquest.api.service.EmployeeService;
+import com.reliaquest.api.service.ReactiveEmployeeService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
+
+/**
+ * The blocking controller path end to end, from {@link EmployeeController} through the services and
+ * {@link EmployeeClient} to an in-memory upstream that answers every roster read with the same NDJSON body. With the
+ * cache disabled each read decodes the whole roster again.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class ControllerBenchmark {
+
+    @Param({"50", "1000", "100000", "1000000"})
+    private int size;
+
+    @Param({"true", "false"})
+    private boolean cacheEnabled;
+
+    private EmployeeController controller;
+
+    @Setup
+    public void setUp() throws IOException {
+        final var objectMapper = new ObjectMapper();
+        final var body = new StringBuilder();
+        for (final var employee : Rosters.generate(size)) {
+            body.append(objectMapper.writeValueAsString(employee)).append('\n');
+        }
+        final var roster = body.toString();
+        final var webClient = WebClient.builder()
+                .exchangeFunction(request -> Mono.just(ClientResponse.create(HttpStatus.OK)
+                        .header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_NDJSON_VALUE)
+                        .body(roster)
+                        .build()))
+                .build();
+        final var properties = new ApiProperties();
+        properties.getCache().setEnabled(cacheEnabled);
+        final var meterRegistry = new SimpleMeterRegistry();
+        final var client = new EmployeeClient(webClient, properties, meterRegistry);
+        final var service = new ReactiveEmployeeService(client, properties, meterRegistry);
+        controller = new EmployeeController(new EmployeeService(service));
+    }
+
+    @Benchmark
+    public ResponseEntity<List<EmployeeDTO>> getAllEmployees() {
+        return controller.getAllEmployees();
+    }
+
+    @Benchmark
+    public ResponseEntity<List<EmployeeDTO>> getEmployeesByNameSearch() {
+        return controller.getEmployeesByNameSearch("hopper");
+    }
+
+    @Benchmark
+    public ResponseEntity<Integer> getHighestSalaryOfEmployees() {
+        return controller.getHighestSalaryOfEmployees();
+    }
+
+    @Benchmark
+    public ResponseEntity<List<String>> getTopTenHighestEarningEmployeeNames() {
+        return controller.getTopTenHighestEarningEmployeeNames();
+    }
+}
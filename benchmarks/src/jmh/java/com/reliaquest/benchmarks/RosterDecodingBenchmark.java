@@ -0,0 +1,123 @@
+package com.reliaquest.benchmarks;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SequenceWriter;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.reliaquest.api.client.RosterAggregation;
+import com.reliaquest.api.client.StreamingRosterDecoder;
+import com.reliaquest.api.dto.ApiResponseWrapper;
+import com.reliaquest.api.dto.EmployeeDTO;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.List;
+import java.util.OptionalInt;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import reactor.core.publisher.Flux;
+
+/**
+ * Decoding a roster as the mock server sends it: wrapped in {@code ApiResponseWrapper} from {@code GET /}, and as
+ * NDJSON from {@code GET /stream}, which is what {@code EmployeeClient} reads, either into employees or straight into
+ * an aggregate by {@code StreamingRosterDecoder}. The {@code smile} variants decode the same responses in the binary
+ * format the client asks for by default.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class RosterDecodingBenchmark {
+
+    private static final TypeReference<ApiResponseWrapper<List<EmployeeDTO>>> WRAPPED_ROSTER =
+            new TypeReference<>() {};
+
+    @Param({"50", "1000", "100000", "1000000"})
+    private int size;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final ObjectMapper smileMapper = new ObjectMapper(new SmileFactory());
+    private final StreamingRosterDecoder streamingDecoder =
+            new StreamingRosterDecoder(new JsonFactory(), new SimpleMeterRegistry());
+    private final StreamingRosterDecoder smileStreamingDecoder =
+            new StreamingRosterDecoder(new SmileFactory(), new SimpleMeterRegistry());
+    private byte[] wrapped;
+    private byte[] ndjson;
+    private byte[] wrappedSmile;
+    private byte[] smile;
+
+    @Setup
+    public void setUp() throws IOException {
+        final var employees = Rosters.generate(size);
+        wrapped = objectMapper.writeValueAsBytes(new ApiResponseWrapper<>(employees, "Successfully processed."));
+        final var lines = new ByteArrayOutputStream();
+        for (final var employee : employees) {
+            lines.write(objectMapper.writeValueAsBytes(employee));
+            lines.write('\n');
+        }
+        ndjson = lines.toByteArray();
+        wrappedSmile = smileMapper.writeValueAsBytes(new ApiResponseWrapper<>(employees, "Successfully processed."));
+        final var sequence = new ByteArrayOutputStream();
+        try (SequenceWriter writer = smileMapper.writerFor(EmployeeDTO.class).writeValues(sequence)) {
+            writer.writeAll(employees);
+        }
+        smile = sequence.toByteArray();
+    }
+
+    @Benchmark
+    public ApiResponseWrapper<List<EmployeeDTO>> wrappedList() throws IOException {
+        return objectMapper.readValue(wrapped, WRAPPED_ROSTER);
+    }
+
+    @Benchmark
+    public List<EmployeeDTO> ndjsonStream() throws IOException {
+        try (MappingIterator<EmployeeDTO> employees = objectMapper.readerFor(EmployeeDTO.class).readValues(ndjson)) {
+            return employees.readAll();
+        }
+    }
+
+    @Benchmark
+    public OptionalInt ndjsonHighestSalary() {
+        return streamingDecoder.aggregate(ndjsonBody(), RosterAggregation::highestSalary).block();
+    }
+
+    @Benchmark
+    public List<EmployeeDTO> ndjsonTopEarners() {
+        return streamingDecoder.aggregate(ndjsonBody(), () -> RosterAggregation.topEarners(10)).block();
+    }
+
+    @Benchmark
+    public ApiResponseWrapper<List<EmployeeDTO>> smileWrappedList() throws IOException {
+        return smileMapper.readValue(wrappedSmile, WRAPPED_ROSTER);
+    }
+
+    @Benchmark
+    public List<EmployeeDTO> smileStream() throws IOException {
+        try (MappingIterator<EmployeeDTO> employees = smileMapper.readerFor(EmployeeDTO.class).readValues(smile)) {
+            return employees.readAll();
+        }
+    }
+
+    @Benchmark
+    public OptionalInt smileHighestSalary() {
+        return smileStreamingDecoder.aggregate(smileBody(), RosterAggregation::highestSalary).block();
+    }
+
+    private Flux<DataBuffer> ndjsonBody() {
+        return Flux.just(DefaultDataBufferFactory.sharedInstance.wrap(ndjson));
+    }
+
+    private Flux<DataBuffer> smileBody() {
+        return Flux.just(DefaultDataBufferFactory.sharedInstance.wrap(smile));
+    }
+}
@@ -0,0 +1,60 @@
+package com.reliaquest.benchmarks;
+
+import com.reliaquest.api.cache.Roster;
+import com.reliaquest.api.dto.EmployeeDTO;
+import java.util.List;
+import java.util.OptionalInt;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * The cached roster's read paths: name search, highest salary and top earners, plus building the roster and its
+ * indexes from a fetched list.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class RosterQueryBenchmark {
+
+    @Param({"50", "1000", "100000", "1000000"})
+    private int size;
+
+    @Param({"hopper", "a"})
+    private String fragment;
+
+    private List<EmployeeDTO> employees;
+    private Roster roster;
+
+    @Setup
+    public void setUp() {
+        employees = Rosters.generate(size);
+        roster = new Roster(employees, System.nanoTime());
+    }
+
+    @Benchmark
+    public Roster build() {
+        return new Roster(employees, System.nanoTime());
+    }
+
+    @Benchmark
+    public List<EmployeeDTO> searchByName() {
+        return roster.searchByName(fragment);
+    }
+
+    @Benchmark
+    public OptionalInt highestSalary() {
+        return roster.highestSalary();
+    }
+
+    @Benchmark
+    public List<EmployeeDTO> topTenEarners() {
+        return roster.topEarners(10);
+    }
+}
@@ -0,0 +1,43 @@
+package com.reliaquest.benchmarks;
+
+import com.reliaquest.api.dto.EmployeeDTO;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.UUID;
+
+/**
+ * Reproducible rosters shaped like the mock server's, so every benchmark run measures the same data.
+ */
+final class Rosters {
+
+    private static final String[] FIRST_NAMES = {
+        "Tiger", "Jill", "Bill", "Lloyd", "Ada", "Grace", "Linus", "Margaret", "Ken", "Barbara", "Dennis", "Frances"
+    };
+    private static final String[] LAST_NAMES = {
+        "Nixon", "Jenkins", "Bob", "Graham", "Lovelace", "Hopper", "Torvalds", "Hamilton", "Thompson", "Liskov"
+    };
+    private static final String[] TITLES = {
+        "Financial Advisor", "Documentation Engineer", "Chief Operations Specialist", "Sales Manager", "Architect"
+    };
+
+    private Rosters() {}
+
+    static List<EmployeeDTO> generate(int size) {
+        final var random = new SplittableRandom(size);
+        final var employees = new ArrayList<EmployeeDTO>(size);
+        for (var i = 0; i < size; i++) {
+            final var firstName = FIRST_NAMES[random.nextInt(FIRST_NAMES.length)];
+            final var lastName = LAST_NAMES[random.nextInt(LAST_NAMES.length)];
+            employees.add(EmployeeDTO.builder()
+                    .id(new UUID(random.nextLong(), random.nextLong()).toString())
+                    .name(firstName + " " + lastName + " " + i)
+                    .salary(random.nextInt(30_000, 500_000))
+                    .age(random.nextInt(16, 70))
+                    .title(TITLES[random.nextInt(TITLES.length)])
+                    .email((firstName.charAt(0) + lastName + i).toLowerCase() + "@company.com")
+                    .build());
+        }
+        return employees;
+    }
+}
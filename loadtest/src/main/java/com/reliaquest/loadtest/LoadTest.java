@@ -0,0 +1,123 @@
+package com.reliaquest.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Boots the server and api locally, replays an open-loop mix of the employee operations against the api and writes
+ * throughput, outcome counts and latency percentiles per operation as JSON. Everything runs on localhost, so it needs
+ * no network access beyond building the jars.
+ *
+ * <p>Started by {@code ./gradlew loadtest:loadTest}; see {@link LoadTestConfig} for the {@code loadtest.*} settings.
+ */
+@Slf4j
+public final class LoadTest {
+
+    private static final Duration ROSTER_TIMEOUT = Duration.ofMinutes(2);
+    private static final String PINNED_FRAME_MARKER = "<== monitors:";
+
+    private LoadTest() {}
+
+    public static void main(String[] args) throws IOException, InterruptedException {
+        final var config = LoadTestConfig.fromSystemProperties();
+        final var output = config.output().toAbsolutePath();
+        final var client = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(5)).build();
+        try (var applications = new LocalApplications()) {
+            applications.startServers(config, output.getParent());
+            applications.startApi(config, output.getParent());
+            final var rosterIds = rosterIds(client, config);
+            log.info(
+                    "Offering {} requests/s for {} after {} of warmup, mix {}",
+                    config.rate(),
+                    config.duration(),
+                    config.warmup(),
+                    config.mix());
+            final var stats = new OpenLoopDriver(client, config, rosterIds).run();
+            final var report = report(config, stats);
+            report.put("apiPinnedThreadFrames", pinnedThreadFrames(output.getParent().resolve("api.log")));
+            Files.createDirectories(output.getParent());
+            new ObjectMapper().writerWithDefaultPrettyPrinter().writeValue(output.toFile(), report);
+            log.info("Wrote {}", output);
+        }
+    }
+
+    private static Map<String, Object> report(LoadTestConfig config, Map<Operation, OperationStats> stats) {
+        final var seconds = config.duration().toMillis() / 1000.0;
+        final var total = new OperationStats();
+        final var operations = new LinkedHashMap<String, Object>();
+        stats.forEach((operation, operationStats) -> {
+            operationStats.addTo(total);
+            final var summary = operationStats.summary(seconds);
+            operations.put(operation.key(), summary);
+            log.info("{}: {}", operation.key(), withoutHistogram(summary));
+        });
+        final var totalSummary = total.summary(seconds);
+        log.info("total: {}", withoutHistogram(totalSummary));
+        final var report = new LinkedHashMap<String, Object>();
+        report.put("config", config.describe());
+        report.put("total", totalSummary);
+        report.put("operations", operations);
+        return report;
+    }
+
+    /*
+     * Waits out the upstream rate limit if the api cannot serve the roster right away.
+     */
+    private static List<String> rosterIds(HttpClient client, LoadTestConfig config)
+            throws IOException, InterruptedException {
+        final var request = HttpRequest.newBuilder(URI.create("http://localhost:" + config.apiPort() + "/employees"))
+                .build();
+        final var deadline = System.nanoTime() + ROSTER_TIMEOUT.toNanos();
+        while (true) {
+            final var response = client.send(request, HttpResponse.BodyHandlers.ofString());
+            if (response.statusCode() == 200) {
+                final var ids = new ArrayList<String>();
+                for (final var employee : new ObjectMapper().readTree(response.body())) {
+                    ids.add(employee.path("id").asText());
+                }
+                log.info("Fetched {} employee ids", ids.size());
+                return ids;
+            }
+            if (System.nanoTime() > deadline) {
+                throw new IllegalStateException("The api did not serve the roster within " + ROSTER_TIMEOUT
+                        + ", last status " + response.statusCode());
+            }
+            Thread.sleep(1000);
+        }
+    }
+
+    /*
+     * With -Djdk.tracePinnedThreads the JVM logs each distinct stack that blocked a virtual thread while pinned, and
+     * marks the frames in it that held a monitor. Zero means nothing pinned.
+     */
+    private static long pinnedThreadFrames(Path apiLog) throws IOException {
+        if (!Files.exists(apiLog)) {
+            return 0;
+        }
+        try (var lines = Files.lines(apiLog)) {
+            final var pinned = lines.filter(line -> line.contains(PINNED_FRAME_MARKER)).count();
+            if (pinned > 0) {
+                log.warn("The api blocked virtual threads while pinned to their carrier, see {}", apiLog);
+            }
+            return pinned;
+        }
+    }
+
+    private static Map<String, Object> withoutHistogram(Map<String, Object> summary) {
+        final var copy = new LinkedHashMap<>(summary);
+        copy.remove("histogram");
+        return copy;
+    }
+}
@@ -0,0 +1,95 @@
+package com.reliaquest.loadtest;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import org.springframework.boot.convert.DurationStyle;
+
+/**
+ * Settings of a load test run, read from {@code loadtest.*} system properties.
+ *
+ * @param rate requests per second offered, regardless of how fast they complete
+ * @param poisson whether arrivals are spaced exponentially around {@code rate} rather than evenly
+ * @param maxInFlight outstanding requests beyond which new arrivals are dropped and counted as such
+ * @param shards parts the roster is split across, each served by {@code replicas} server instances; all instances
+ *     listen on consecutive ports from {@link #SERVER_PORT}
+ * @param replicas identical server instances per shard, each rate limiting on a schedule of its own
+ * @param employees size of the whole roster, split evenly across the shards, each generating its part from its own seed
+ * @param apiArgs extra arguments for the api application, e.g. {@code --api.batching.enabled=true}
+ */
+record LoadTestConfig(
+        Path serverJar,
+        Path apiJar,
+        int serverPort,
+        int shards,
+        int replicas,
+        int apiPort,
+        double rate,
+        Duration warmup,
+        Duration duration,
+        boolean poisson,
+        int maxInFlight,
+        String mix,
+        int employees,
+        long seed,
+        List<String> apiArgs,
+        Path output) {
+
+    /*
+     * The first shard's port, which is also where the api looks for the server by default.
+     */
+    static final int SERVER_PORT = 8112;
+
+    static LoadTestConfig fromSystemProperties() {
+        return new LoadTestConfig(
+                Path.of(required("loadtest.server-jar")),
+                Path.of(required("loadtest.api-jar")),
+                SERVER_PORT,
+                Integer.getInteger("loadtest.shards", 1),
+                Integer.getInteger("loadtest.replicas", 1),
+                Integer.getInteger("loadtest.api-port", 8111),
+                Double.parseDouble(System.getProperty("loadtest.rate", "200")),
+                DurationStyle.detectAndParse(System.getProperty("loadtest.warmup", "10s")),
+                DurationStyle.detectAndParse(System.getProperty("loadtest.duration", "60s")),
+                !"uniform".equals(System.getProperty("loadtest.arrivals", "poisson")),
+                Integer.getInteger("loadtest.max-in-flight", 10_000),
+                System.getProperty(
+                        "loadtest.mix", "getAll=30,search=20,byId=20,highestSalary=10,topTen=10,create=5,delete=5"),
+                Integer.getInteger("loadtest.employees", 1000),
+                Long.getLong("loadtest.seed", 42L),
+                Arrays.stream(System.getProperty("loadtest.api-args", "").split("\\s+"))
+                        .filter(arg -> !arg.isEmpty())
+                        .toList(),
+                Path.of(System.getProperty("loadtest.output", "loadtest-results.json")));
+    }
+
+    /**
+     * @return the settings that shape the results, for the report
+     */
+    Map<String, Object> describe() {
+        final var description = new LinkedHashMap<String, Object>();
+        description.put("rate", rate);
+        description.put("arrivals", poisson ? "poisson" : "uniform");
+        description.put("warmupSeconds", warmup.toMillis() / 1000.0);
+        description.put("durationSeconds", duration.toMillis() / 1000.0);
+        description.put("maxInFlight", maxInFlight);
+        description.put("mix", mix);
+        description.put("shards", shards);
+        description.put("replicas", replicas);
+        description.put("employees", employees);
+        description.put("seed", seed);
+        description.put("apiArgs", apiArgs);
+        return description;
+    }
+
+    private static String required(String property) {
+        final var value = System.getProperty(property);
+        if (value == null || value.isBlank()) {
+            throw new IllegalArgumentException(property + " is required, run through ./gradlew loadtest:loadTest");
+        }
+        return value;
+    }
+}
@@ -0,0 +1,159 @@
+package com.reliaquest.loadtest;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Runs the server jar, once per shard, and the api jar as child processes on local ports, logging to files next to the
+ * report.
+ */
+@Slf4j
+final class LocalApplications implements AutoCloseable {
+
+    private static final Duration STARTUP_TIMEOUT = Duration.ofMinutes(2);
+    private static final Duration POLL_INTERVAL = Duration.ofMillis(250);
+
+    private final List<Process> processes = new ArrayList<>();
+    private final Thread shutdownHook = new Thread(this::stop, "loadtest-shutdown");
+
+    LocalApplications() {
+        Runtime.getRuntime().addShutdownHook(shutdownHook);
+    }
+
+    /*
+     * One server per replica of each shard. Shards are seeded differently so their rosters do not overlap, while the
+     * replicas of a shard share its roster but not its rate limit schedule. Servers are only probed for an open port:
+     * any HTTP request would count towards their rate limit.
+     */
+    void startServers(LoadTestConfig config, Path logDirectory) throws InterruptedException {
+        final var employeesPerShard = Math.ceilDiv(config.employees(), config.shards());
+        for (var shard = 0; shard < config.shards(); shard++) {
+            for (var replica = 0; replica < config.replicas(); replica++) {
+                final var instance = shard * config.replicas() + replica;
+                final var name = config.shards() * config.replicas() == 1 ? "server" : "server-" + instance;
+                final var port = config.serverPort() + instance;
+                start(
+                        name,
+                        config.serverJar(),
+                        List.of(
+                                "--server.port=" + port,
+                                "--mock.employees.max=" + employeesPerShard,
+                                "--mock.employees.seed=" + (config.seed() + shard),
+                                "--mock.rate-limit.seed=" + (config.seed() + instance),
+                                "--logging.level.com.reliaquest=INFO"),
+                        List.of(),
+                        logDirectory);
+                awaitReady(name, () -> portOpen(port));
+            }
+        }
+    }
+
+    void startApi(LoadTestConfig config, Path logDirectory) throws InterruptedException {
+        final var args = new ArrayList<>(List.of("--server.port=" + config.apiPort()));
+        for (var shard = 0; shard < config.shards(); shard++) {
+            final var replicas = new ArrayList<String>();
+            for (var replica = 0; replica < config.replicas(); replica++) {
+                final var port = config.serverPort() + shard * config.replicas() + replica;
+                replicas.add("http://localhost:" + port + "/api/v1/employee");
+            }
+            args.add("--api.upstream.shards[" + shard + "].replicas=" + String.join(",", replicas));
+        }
+        args.addAll(config.apiArgs());
+        // Virtual threads that block while pinned to their carrier print a stack trace into the api's log.
+        start("api", config.apiJar(), args, List.of("-Djdk.tracePinnedThreads=short"), logDirectory);
+        final var health = URI.create("http://localhost:" + config.apiPort() + "/actuator/health");
+        final var client = HttpClient.newHttpClient();
+        final var request = HttpRequest.newBuilder(health).build();
+        awaitReady("api", () -> {
+            try {
+                return client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode() == 200;
+            } catch (IOException e) {
+                return false;
+            }
+        });
+    }
+
+    @Override
+    public void close() {
+        stop();
+        Runtime.getRuntime().removeShutdownHook(shutdownHook);
+    }
+
+    private void start(String name, Path jar, List<String> args, List<String> jvmArgs, Path logDirectory) {
+        final var command = new ArrayList<String>();
+        command.add(ProcessHandle.current().info().command().orElse("java"));
+        command.addAll(jvmArgs);
+        command.add("-jar");
+        command.add(jar.toString());
+        command.addAll(args);
+        try {
+            Files.createDirectories(logDirectory);
+            final var logFile = logDirectory.resolve(name + ".log");
+            processes.add(new ProcessBuilder(command)
+                    .redirectErrorStream(true)
+                    .redirectOutput(logFile.toFile())
+                    .start());
+            log.info("Started {} from {}, logging to {}", name, jar, logFile);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to start " + name, e);
+        }
+    }
+
+    private void awaitReady(String name, ReadinessProbe probe) throws InterruptedException {
+        final var deadline = System.nanoTime() + STARTUP_TIMEOUT.toNanos();
+        while (!probe.ready()) {
+            if (processes.stream().anyMatch(process -> !process.isAlive())) {
+                throw new IllegalStateException(name + " exited during startup, see its log");
+            }
+            if (System.nanoTime() > deadline) {
+                throw new IllegalStateException(name + " did not start within " + STARTUP_TIMEOUT);
+            }
+            Thread.sleep(POLL_INTERVAL.toMillis());
+        }
+        log.info("{} is ready", name);
+    }
+
+    private void stop() {
+        for (var i = processes.size() - 1; i >= 0; i--) {
+            processes.get(i).destroy();
+        }
+        for (final var process : processes) {
+            try {
+                if (!process.waitFor(30, TimeUnit.SECONDS)) {
+                    process.destroyForcibly();
+                }
+            } catch (InterruptedException e) {
+                process.destroyForcibly();
+                Thread.currentThread().interrupt();
+            }
+        }
+        processes.clear();
+    }
+
+    private static boolean portOpen(int port) {
+        try (var socket = new Socket()) {
+            socket.connect(new InetSocketAddress("localhost", port), 200);
+            return true;
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    @FunctionalInterface
+    private interface ReadinessProbe {
+        boolean ready() throws InterruptedException;
+    }
+}
@@ -0,0 +1,198 @@
+package com.reliaquest.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpHeaders;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.SplittableRandom;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Sends requests at a fixed average rate whether or not earlier ones have completed, as independent users would.
+ *
+ * <p>A closed loop that waits for each response before sending the next lowers its own rate exactly when the system
+ * slows down, and so hides the slowdown from its percentiles. Here arrivals are scheduled up front and every latency
+ * is measured from the arrival's scheduled time, so time a request spent waiting to be sent counts too.
+ *
+ * <p>Only the single driver thread picks operations and ids, so the id pools need no locking; creates report their
+ * new ids back through a concurrent queue, and deletes prefer those over the generated roster.
+ */
+@Slf4j
+final class OpenLoopDriver {
+
+    private static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(30);
+    private static final Duration DRAIN_TIMEOUT = Duration.ofSeconds(30);
+    private static final String[] SEARCH_FRAGMENTS = {"a", "an", "son", "er", "li", "mar"};
+
+    private final HttpClient client;
+    private final URI api;
+    private final LoadTestConfig config;
+    private final OperationMix mix;
+    private final SplittableRandom random;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final List<String> rosterIds;
+    private final Queue<String> createdIds = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final Map<Operation, OperationStats> stats = new EnumMap<>(Operation.class);
+
+    OpenLoopDriver(HttpClient client, LoadTestConfig config, List<String> rosterIds) {
+        this.client = client;
+        this.api = URI.create("http://localhost:" + config.apiPort() + "/");
+        this.config = config;
+        this.mix = OperationMix.parse(config.mix());
+        this.random = new SplittableRandom(config.seed());
+        this.rosterIds = new ArrayList<>(rosterIds);
+        for (final var operation : Operation.values()) {
+            stats.put(operation, new OperationStats());
+        }
+    }
+
+    /**
+     * Runs the warmup, whose requests are sent but not recorded, then the measured period, then waits for requests
+     * still in flight.
+     *
+     * @return the stats of every operation over the measured period
+     */
+    Map<Operation, OperationStats> run() throws InterruptedException {
+        final var start = System.nanoTime();
+        final var measureFrom = start + config.warmup().toNanos();
+        final var end = measureFrom + config.duration().toNanos();
+        var due = start;
+        while (due < end) {
+            parkUntil(due);
+            final var operation = mix.next(random);
+            send(operation, due, due >= measureFrom ? stats.get(operation) : null);
+            due += nextInterval();
+        }
+        final var drainDeadline = System.nanoTime() + DRAIN_TIMEOUT.toNanos();
+        while (inFlight.get() > 0 && System.nanoTime() < drainDeadline) {
+            TimeUnit.MILLISECONDS.sleep(10);
+        }
+        if (inFlight.get() > 0) {
+            log.warn("{} requests still in flight after {}, they are not counted", inFlight.get(), DRAIN_TIMEOUT);
+        }
+        return stats;
+    }
+
+    private void send(Operation operation, long due, OperationStats recorder) {
+        if (inFlight.get() >= config.maxInFlight()) {
+            if (recorder != null) {
+                recorder.dropped();
+            }
+            return;
+        }
+        inFlight.incrementAndGet();
+        client.sendAsync(request(operation), HttpResponse.BodyHandlers.ofString())
+                .whenComplete((response, failure) -> {
+                    final var latency = System.nanoTime() - due;
+                    inFlight.decrementAndGet();
+                    if (response != null && operation == Operation.CREATE && isSuccess(response.statusCode())) {
+                        rememberCreated(response.body());
+                    }
+                    if (recorder == null) {
+                        return;
+                    }
+                    if (response == null) {
+                        recorder.failed(latency);
+                    } else if (isSuccess(response.statusCode())) {
+                        recorder.succeeded(latency);
+                    } else if (isRateLimited(response.statusCode(), response.headers())) {
+                        recorder.rateLimited(latency);
+                    } else {
+                        recorder.failed(latency);
+                    }
+                });
+    }
+
+    private HttpRequest request(Operation operation) {
+        final var builder = switch (operation) {
+            case GET_ALL -> HttpRequest.newBuilder(api.resolve("employees"));
+            case SEARCH -> HttpRequest.newBuilder(api.resolve(
+                    "employees/search?searchString=" + SEARCH_FRAGMENTS[random.nextInt(SEARCH_FRAGMENTS.length)]));
+            case GET_BY_ID -> HttpRequest.newBuilder(api.resolve("employees/" + anyRosterId()));
+            case HIGHEST_SALARY -> HttpRequest.newBuilder(api.resolve("employees/highestSalary"));
+            case TOP_TEN -> HttpRequest.newBuilder(api.resolve("employees/topTenHighestEarningEmployeeNames"));
+            case CREATE -> HttpRequest.newBuilder(api.resolve("employees"))
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofString(newEmployee()));
+            case DELETE -> HttpRequest.newBuilder(api.resolve("employees/" + idToDelete())).DELETE();
+        };
+        return builder.timeout(REQUEST_TIMEOUT).build();
+    }
+
+    private String newEmployee() {
+        return """
+                {"name":"Load Test %d","salary":%d,"age":%d,"title":"Load Tester"}"""
+                .formatted(random.nextInt(1_000_000), random.nextInt(30_000, 500_000), random.nextInt(16, 76));
+    }
+
+    private String anyRosterId() {
+        return rosterIds.isEmpty() ? UUID.randomUUID().toString() : rosterIds.get(random.nextInt(rosterIds.size()));
+    }
+
+    /*
+     * Removes the id it returns from the roster pool, so no later request picks an employee that is being deleted.
+     */
+    private String idToDelete() {
+        final var created = createdIds.poll();
+        if (created != null) {
+            return created;
+        }
+        if (rosterIds.isEmpty()) {
+            return UUID.randomUUID().toString();
+        }
+        final var index = random.nextInt(rosterIds.size());
+        final var id = rosterIds.get(index);
+        rosterIds.set(index, rosterIds.get(rosterIds.size() - 1));
+        rosterIds.remove(rosterIds.size() - 1);
+        return id;
+    }
+
+    /*
+     * A body without an id only means the employee is not reused for a delete.
+     */
+    private void rememberCreated(String body) {
+        try {
+            final var id = objectMapper.readTree(body).path("id").asText(null);
+            if (id != null) {
+                createdIds.add(id);
+            }
+        } catch (IOException e) {
+            log.debug("Ignoring unreadable create response: {}", e.getMessage());
+        }
+    }
+
+    private long nextInterval() {
+        final var mean = TimeUnit.SECONDS.toNanos(1) / config.rate();
+        return Math.max(1, (long) (config.poisson() ? -Math.log(1 - random.nextDouble()) * mean : mean));
+    }
+
+    private static void parkUntil(long due) {
+        long remaining;
+        while ((remaining = due - System.nanoTime()) > 0) {
+            LockSupport.parkNanos(remaining);
+        }
+    }
+
+    private static boolean isSuccess(int status) {
+        return status >= 200 && status < 300;
+    }
+
+    private static boolean isRateLimited(int status, HttpHeaders headers) {
+        return status == 429 || (status == 503 && headers.firstValue("Retry-After").isPresent());
+    }
+}
@@ -0,0 +1,33 @@
+package com.reliaquest.loadtest;
+
+import java.util.Arrays;
+
+/**
+ * The seven {@code IEmployeeController} operations, keyed by the names used in {@code loadtest.mix}.
+ */
+enum Operation {
+    GET_ALL("getAll"),
+    SEARCH("search"),
+    GET_BY_ID("byId"),
+    HIGHEST_SALARY("highestSalary"),
+    TOP_TEN("topTen"),
+    CREATE("create"),
+    DELETE("delete");
+
+    private final String key;
+
+    Operation(String key) {
+        this.key = key;
+    }
+
+    String key() {
+        return key;
+    }
+
+    static Operation ofKey(String key) {
+        return Arrays.stream(values())
+                .filter(operation -> operation.key.equals(key))
+                .findFirst()
+                .orElseThrow(() -> new IllegalArgumentException("Unknown operation in loadtest.mix: " + key));
+    }
+}
@@ -0,0 +1,48 @@
+package com.reliaquest.loadtest;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+/**
+ * Weighted choice between operations, parsed from e.g. {@code getAll=30,search=20,byId=20}.
+ */
+final class OperationMix {
+
+    private final List<Operation> operations = new ArrayList<>();
+    private final List<Integer> cumulativeWeights = new ArrayList<>();
+    private int totalWeight;
+
+    static OperationMix parse(String mix) {
+        final var parsed = new OperationMix();
+        for (final var entry : mix.split(",")) {
+            final var parts = entry.trim().split("=");
+            if (parts.length != 2) {
+                throw new IllegalArgumentException("Expected operation=weight in loadtest.mix, got: " + entry);
+            }
+            final var weight = Integer.parseInt(parts[1].trim());
+            if (weight < 0) {
+                throw new IllegalArgumentException("Weights in loadtest.mix must not be negative: " + entry);
+            }
+            if (weight > 0) {
+                parsed.totalWeight += weight;
+                parsed.operations.add(Operation.ofKey(parts[0].trim()));
+                parsed.cumulativeWeights.add(parsed.totalWeight);
+            }
+        }
+        if (parsed.totalWeight == 0) {
+            throw new IllegalArgumentException("loadtest.mix selects no operation: " + mix);
+        }
+        return parsed;
+    }
+
+    Operation next(SplittableRandom random) {
+        final var pick = random.nextInt(totalWeight);
+        for (var i = 0; i < operations.size(); i++) {
+            if (pick < cumulativeWeights.get(i)) {
+                return operations.get(i);
+            }
+        }
+        throw new IllegalStateException("Unreachable: weights add up to " + totalWeight);
+    }
+}
@@ -0,0 +1,103 @@
+package com.reliaquest.loadtest;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+/**
+ * Outcomes and latencies of one operation. Latencies are measured from when a request was due to be sent, not from
+ * when it was, so a stalled system shows up in the percentiles instead of silently lowering the offered load.
+ */
+final class OperationStats {
+
+    private static final long HIGHEST_LATENCY = TimeUnit.MINUTES.toNanos(5);
+    private static final int SIGNIFICANT_DIGITS = 3;
+
+    private final Histogram latencies = new ConcurrentHistogram(HIGHEST_LATENCY, SIGNIFICANT_DIGITS);
+    private final LongAdder succeeded = new LongAdder();
+    private final LongAdder rateLimited = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+    private final LongAdder dropped = new LongAdder();
+
+    void succeeded(long latencyNanos) {
+        record(latencyNanos);
+        succeeded.increment();
+    }
+
+    /**
+     * A 429, or a 503 with {@code Retry-After}, which is how the api passes on a rate limit it could not wait out.
+     */
+    void rateLimited(long latencyNanos) {
+        record(latencyNanos);
+        rateLimited.increment();
+    }
+
+    void failed(long latencyNanos) {
+        record(latencyNanos);
+        failed.increment();
+    }
+
+    /**
+     * A request that was never sent because too many were already in flight.
+     */
+    void dropped() {
+        dropped.increment();
+    }
+
+    void addTo(OperationStats total) {
+        total.latencies.add(latencies);
+        total.succeeded.add(succeeded.sum());
+        total.rateLimited.add(rateLimited.sum());
+        total.failed.add(failed.sum());
+        total.dropped.add(dropped.sum());
+    }
+
+    /**
+     * @return counts, throughput and latency percentiles in milliseconds, plus the full histogram in HdrHistogram's
+     *     compressed, base64-encoded form for tools like {@code HistogramLogProcessor}
+     */
+    Map<String, Object> summary(double seconds) {
+        final var completed = latencies.getTotalCount();
+        final var summary = new LinkedHashMap<String, Object>();
+        summary.put("requests", completed + dropped.sum());
+        summary.put("succeeded", succeeded.sum());
+        summary.put("rateLimited", rateLimited.sum());
+        summary.put("failed", failed.sum());
+        summary.put("dropped", dropped.sum());
+        summary.put("throughputPerSecond", round(completed / seconds));
+        final var latency = new LinkedHashMap<String, Object>();
+        latency.put("p50", millis(latencies.getValueAtPercentile(50)));
+        latency.put("p90", millis(latencies.getValueAtPercentile(90)));
+        latency.put("p99", millis(latencies.getValueAtPercentile(99)));
+        latency.put("p999", millis(latencies.getValueAtPercentile(99.9)));
+        latency.put("max", millis(latencies.getMaxValue()));
+        latency.put("mean", round(latencies.getMean() / 1e6));
+        summary.put("latencyMillis", latency);
+        summary.put("histogram", encode(latencies));
+        return summary;
+    }
+
+    private void record(long latencyNanos) {
+        latencies.recordValue(Math.min(Math.max(latencyNanos, 0), HIGHEST_LATENCY));
+    }
+
+    private static String encode(Histogram histogram) {
+        final var buffer = ByteBuffer.allocate(histogram.getNeededByteBufferCapacity());
+        final var length = histogram.encodeIntoCompressedByteBuffer(buffer);
+        return Base64.getEncoder().encodeToString(Arrays.copyOf(buffer.array(), length));
+    }
+
+    private static double millis(long nanos) {
+        return round(nanos / 1e6);
+    }
+
+    private static double round(double value) {
+        return Math.round(value * 1000) / 1000.0;
+    }
+}
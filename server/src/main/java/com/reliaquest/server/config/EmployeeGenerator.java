@@ -0,0 +1,122 @@
+package com.reliaquest.server.config;
+
+import com.reliaquest.server.model.MockEmployee;
+import java.util.AbstractList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+import java.util.RandomAccess;
+import java.util.SplittableRandom;
+import java.util.UUID;
+import java.util.function.Supplier;
+import java.util.regex.Pattern;
+import net.datafaker.Faker;
+
+/**
+ * Generates a reproducible roster: the same seed and count always yield the same employees in the same order.
+ *
+ * <p>Datafaker is only used up front to fill small pools of names and titles. Employees are then assembled from
+ * those pools, so there is no per-employee expression resolution or reflection. An employee's email is made from the
+ * name it was given and its index, so it matches the name and no two employees share one. Each employee is
+ * drawn from its own random stream derived from the seed and its index, so the generated roster is a lazy list: an
+ * employee is only built when read, and reading in any order or in parallel always yields the same one.
+ */
+public class EmployeeGenerator {
+
+    private static final int POOL_SIZE = 1024;
+    private static final long GOLDEN_GAMMA = 0x9E3779B97F4A7C15L;
+    private static final Pattern NON_ALPHANUMERIC = Pattern.compile("[^\\p{Alnum}]");
+
+    private final long seed;
+    private final String[] firstNames;
+    private final String[] lastNames;
+    private final String[] titles;
+    private final String[] firstNameLocalParts;
+    private final String[] lastNameLocalParts;
+
+    public EmployeeGenerator(long seed, Locale locale) {
+        final var faker = new Faker(locale, new Random(seed));
+        this.seed = seed;
+        this.firstNames = pool(() -> faker.name().firstName());
+        this.lastNames = pool(() -> faker.name().lastName());
+        this.titles = pool(() -> faker.job().title());
+        this.firstNameLocalParts = localParts(firstNames);
+        this.lastNameLocalParts = localParts(lastNames);
+    }
+
+    /**
+     * @return an immutable view of {@code count} employees, each built on access
+     */
+    public List<MockEmployee> generate(int count) {
+        return new GeneratedRoster(count);
+    }
+
+    private MockEmployee employee(int index) {
+        final var random = new SplittableRandom(seed ^ ((index + 1L) * GOLDEN_GAMMA));
+        final var id = randomUuid(random);
+        final var firstName = random.nextInt(POOL_SIZE);
+        final var lastName = random.nextInt(POOL_SIZE);
+        return new MockEmployee(
+                id,
+                firstNames[firstName] + " " + lastNames[lastName],
+                random.nextInt(30000, 500000),
+                random.nextInt(16, 70),
+                pick(random, titles),
+                ServerConfiguration.EMAIL_TEMPLATE.formatted(
+                        firstNameLocalParts[firstName] + "." + lastNameLocalParts[lastName] + index));
+    }
+
+    /*
+     * A version 4 UUID, as UUID.randomUUID() would produce, but drawn from the seeded stream.
+     */
+    private static UUID randomUuid(SplittableRandom random) {
+        final var mostSignificant = (random.nextLong() & ~0xF000L) | 0x4000L;
+        final var leastSignificant = (random.nextLong() & 0x3FFFFFFFFFFFFFFFL) | 0x8000000000000000L;
+        return new UUID(mostSignificant, leastSignificant);
+    }
+
+    private static String pick(SplittableRandom random, String[] pool) {
+        return pool[random.nextInt(pool.length)];
+    }
+
+    /*
+     * Names such as "O'Brien" or "Mary Ann" keep only their ASCII letters and digits, lower-cased, in an email.
+     */
+    private static String[] localParts(String[] names) {
+        final var localParts = new String[names.length];
+        for (var i = 0; i < names.length; i++) {
+            localParts[i] = NON_ALPHANUMERIC.matcher(names[i].toLowerCase(Locale.ROOT)).replaceAll("");
+        }
+        return localParts;
+    }
+
+    private static String[] pool(Supplier<String> source) {
+        final var pool = new String[POOL_SIZE];
+        for (var i = 0; i < POOL_SIZE; i++) {
+            pool[i] = source.get();
+        }
+        return pool;
+    }
+
+    private class GeneratedRoster extends AbstractList<MockEmployee> implements RandomAccess {
+
+        private final int size;
+
+        GeneratedRoster(int size) {
+            this.size = size;
+        }
+
+        @Override
+        public MockEmployee get(int index) {
+            if (index < 0 || index >= size) {
+                throw new IndexOutOfBoundsException(index);
+            }
+            return employee(index);
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
+    }
+}
@@ -1,59 +1,185 @@
 package com.reliaquest.server.config;
 
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
 import com.reliaquest.server.model.MockEmployee;
-import com.reliaquest.server.web.RandomRequestLimitInterceptor;
-import java.util.ArrayList;
+import com.reliaquest.server.store.ColumnarEmployeeStore;
+import com.reliaquest.server.store.ConcurrentEmployeeStore;
+import com.reliaquest.server.store.DurableEmployeeStore;
+import com.reliaquest.server.store.EmployeeStore;
+import com.reliaquest.server.store.SnapshotFile;
+import com.reliaquest.server.web.GlobalBackoffRequestLimiter;
+import com.reliaquest.server.web.RequestLimitInterceptor;
+import com.reliaquest.server.web.RequestLimiter;
+import com.reliaquest.server.web.RosterETag;
+import com.reliaquest.server.web.TokenBucketRequestLimiter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
 import java.util.List;
 import java.util.Locale;
-import java.util.UUID;
-import java.util.stream.Collectors;
-import java.util.stream.IntStream;
+import java.util.function.Supplier;
+import java.util.random.RandomGenerator;
+import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import net.datafaker.Faker;
-import net.datafaker.transformations.Field;
-import net.datafaker.transformations.JavaObjectTransformer;
-import net.datafaker.transformations.Schema;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
 import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
 import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
 
 @Slf4j
 @Configuration
+@RequiredArgsConstructor
 public class ServerConfiguration implements WebMvcConfigurer {
 
     public static final String EMAIL_TEMPLATE = "%s@company.com";
 
+    private static final int LOGGED_EMPLOYEES = 100;
+
+    /*
+     * Looked up lazily: RosterETag depends on the store defined below.
+     */
+    private final ObjectProvider<RosterETag> rosterETag;
+
+    private final ObjectProvider<RequestLimiter> requestLimiter;
+
+    private final MeterRegistry meterRegistry;
+
+    @Value("${mock.rate-limit.client-header:X-Client-Id}")
+    private String rateLimitClientHeader;
+
     @Bean
     public Faker faker() {
         return new Faker(Locale.getDefault());
     }
 
     /*
-     * This list is modifiable by design for CRUD operations.
+     * This store is modifiable by design for CRUD operations.
+     *
+     * Without a seed every start generates a new roster, as before; the seed used is logged so a run can be repeated.
+     * With a snapshot file, an existing file is loaded as is and a missing one is written after generating.
+     * The columnar store suits rosters of millions: it builds generated employees only when they are read.
+     * With a persistence directory, writes survive restarts and the roster is only generated on the very first start.
+     */
+    @Bean
+    public EmployeeStore employeeStore(
+            @Value("${mock.employees.max:20}") int maxEmployees,
+            @Value("${mock.employees.seed:#{null}}") Long seed,
+            @Value("${mock.employees.snapshot-file:}") String snapshotFile,
+            @Value("${mock.changes.retention:10000}") int changeRetention,
+            @Value("${mock.store.type:concurrent}") String storeType,
+            @Value("${mock.persistence.directory:}") String persistenceDirectory,
+            @Value("${mock.persistence.snapshot-every:10000}") int snapshotEvery,
+            @Value("${mock.persistence.group-commit-window:2ms}") Duration groupCommitWindow) {
+        final var started = System.nanoTime();
+        final EmployeeStore store =
+                switch (storeType) {
+                    case "concurrent" -> new ConcurrentEmployeeStore(changeRetention);
+                    case "columnar" -> new ColumnarEmployeeStore(changeRetention);
+                    default -> throw new IllegalArgumentException("Unknown mock.store.type: " + storeType);
+                };
+        final Supplier<List<MockEmployee>> roster = () -> initialRoster(maxEmployees, seed, snapshotFile);
+        final EmployeeStore ready;
+        if (persistenceDirectory.isBlank()) {
+            store.load(roster.get());
+            ready = store;
+        } else {
+            ready = DurableEmployeeStore.open(
+                    store, Path.of(persistenceDirectory), roster, snapshotEvery, groupCommitWindow);
+        }
+        log.info("Employee store ready in {} ms", Duration.ofNanos(System.nanoTime() - started).toMillis());
+        return ready;
+    }
+
+    /*
+     * legacy is the limit the server always had, one window shared by all clients, with its limit and backoff drawn
+     * from the seed; without a seed a random one is used and logged, as before. token-bucket limits each client on its
+     * own, and off disables the limit.
+     */
+    @Bean
+    public RequestLimiter requestLimiter(
+            @Value("${mock.rate-limit.mode:legacy}") String mode,
+            @Value("${mock.rate-limit.seed:#{null}}") Long seed,
+            @Value("${mock.rate-limit.capacity:10}") int capacity,
+            @Value("${mock.rate-limit.refill-rate:5}") double refillRate) {
+        return switch (mode) {
+            case "legacy" -> {
+                final var effectiveSeed = seed != null ? seed : RandomGenerator.getDefault().nextLong();
+                final var limiter = GlobalBackoffRequestLimiter.seeded(effectiveSeed);
+                log.info(
+                        "Rate limiting all clients to {} requests, then backing off for {}, from seed {}",
+                        limiter.limit(),
+                        limiter.backoff(),
+                        effectiveSeed);
+                yield limiter;
+            }
+            case "token-bucket" -> {
+                log.info("Rate limiting each client to bursts of {} requests, refilled at {}/s", capacity, refillRate);
+                yield new TokenBucketRequestLimiter(capacity, refillRate);
+            }
+            case "off" -> RequestLimiter.unlimited();
+            default -> throw new IllegalArgumentException("Unknown mock.rate-limit.mode: " + mode);
+        };
+    }
+
+    /*
+     * Clients that ask for application/x-jackson-smile get the same responses in Smile, a binary encoding of the JSON
+     * data model. Spring MVC adds a Smile converter by default once Smile is on the classpath; this one replaces it in
+     * the same place, after the JSON converter, so clients that accept anything still get JSON. It is built like the
+     * JSON ObjectMapper, so both honour the spring.jackson.* settings.
      */
     @Bean
-    public List<MockEmployee> mockEmployees(Faker faker, @Value("${mock.employees.max:20}") int maxEmployees) {
-        final var transformer = new JavaObjectTransformer();
-        final var schema = Schema.of(
-                Field.field("id", UUID::randomUUID),
-                Field.field("name", () -> faker.name().fullName()),
-                Field.field("salary", () -> faker.number().numberBetween(30000, 500000)),
-                Field.field("age", () -> faker.number().numberBetween(16, 70)),
-                Field.field("title", () -> faker.job().title()),
-                Field.field(
-                        "email",
-                        () -> EMAIL_TEMPLATE.formatted(
-                                faker.twitter().userName().toLowerCase())));
-        return IntStream.rangeClosed(1, maxEmployees)
-                .mapToObj(ignored -> (MockEmployee) transformer.apply(MockEmployee.class, schema))
-                .peek(mockEmployee -> log.debug("Created employee: {}", mockEmployee))
-                .collect(Collectors.toCollection(ArrayList::new));
+    public MappingJackson2SmileHttpMessageConverter smileHttpMessageConverter(Jackson2ObjectMapperBuilder builder) {
+        return new MappingJackson2SmileHttpMessageConverter(builder.factory(new SmileFactory()).build());
+    }
+
+    @Bean
+    public MeterBinder employeeStoreMetrics(EmployeeStore employeeStore) {
+        return registry -> {
+            Gauge.builder("mock.store.size", employeeStore, EmployeeStore::size)
+                    .description("Employees currently in the store")
+                    .register(registry);
+            Gauge.builder("mock.store.version", employeeStore, EmployeeStore::version)
+                    .description("Current roster version, incremented by every write")
+                    .register(registry);
+        };
     }
 
     @Override
     public void addInterceptors(InterceptorRegistry registry) {
-        registry.addInterceptor(new RandomRequestLimitInterceptor());
+        // Conditional GETs that will be answered with 304 are cheap, so they are not rate limited, and neither is
+        // scraping the actuator.
+        registry.addInterceptor(new RequestLimitInterceptor(
+                        requestLimiter.getObject(),
+                        rateLimitClientHeader,
+                        request -> rosterETag.getObject().isNotModified(request),
+                        meterRegistry))
+                .excludePathPatterns("/actuator/**");
+    }
+
+    private static List<MockEmployee> initialRoster(int maxEmployees, Long seed, String snapshotFile) {
+        final List<MockEmployee> employees;
+        final var snapshot = snapshotFile.isBlank() ? null : Path.of(snapshotFile);
+        if (snapshot != null && Files.exists(snapshot)) {
+            employees = SnapshotFile.read(snapshot);
+            log.info("Loaded {} employees from {}", employees.size(), snapshot);
+        } else {
+            final var effectiveSeed = seed != null ? seed : RandomGenerator.getDefault().nextLong();
+            employees = new EmployeeGenerator(effectiveSeed, Locale.getDefault()).generate(maxEmployees);
+            log.info("Generated {} employees from seed {}", employees.size(), effectiveSeed);
+            if (snapshot != null) {
+                SnapshotFile.write(snapshot, employees);
+                log.info("Wrote employee snapshot {}", snapshot);
+            }
+        }
+        employees.stream().limit(LOGGED_EMPLOYEES).forEach(employee -> log.debug("Created employee: {}", employee));
+        return employees;
     }
 }
@@ -1,34 +1,161 @@
 package com.reliaquest.server.controller;
 
+import static com.reliaquest.server.web.ContentNegotiation.APPLICATION_SMILE;
+import static com.reliaquest.server.web.ContentNegotiation.APPLICATION_SMILE_VALUE;
+import static com.reliaquest.server.web.ContentNegotiation.negotiate;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.reliaquest.server.model.ChangeFeed;
+import com.reliaquest.server.model.CreateMockEmployeeBatchInput;
 import com.reliaquest.server.model.CreateMockEmployeeInput;
+import com.reliaquest.server.model.DeleteMockEmployeeBatchInput;
 import com.reliaquest.server.model.DeleteMockEmployeeInput;
+import com.reliaquest.server.model.EmployeeQuery;
 import com.reliaquest.server.model.MockEmployee;
+import com.reliaquest.server.model.Page;
 import com.reliaquest.server.model.Response;
 import com.reliaquest.server.service.MockEmployeeService;
+import com.reliaquest.server.web.EncodedRoster;
+import com.reliaquest.server.web.RosterETag;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
+import java.io.IOException;
+import java.io.OutputStream;
 import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 @RestController
 @RequestMapping("/api/v1/employee")
 @RequiredArgsConstructor
 public class MockEmployeeController {
 
+    public static final String ROSTER_VERSION_HEADER = "X-Roster-Version";
+    public static final String ROSTER_EPOCH_HEADER = "X-Roster-Epoch";
+
+    private static final int STREAM_FLUSH_INTERVAL = 256;
+
     private final MockEmployeeService mockEmployeeService;
+    private final ObjectMapper objectMapper;
+    private final MappingJackson2SmileHttpMessageConverter smileHttpMessageConverter;
+    private final RosterETag rosterETag;
+    private final EncodedRoster encodedRoster;
+
+    /*
+     * JSON is answered from the body EncodedRoster keeps for the current version, gzipped for clients that accept it.
+     * Setting Content-Encoding keeps server.compression from compressing it again. Both encodings are the same roster,
+     * so the gzipped one carries the weak form of the ETag, which a 304 repeats, and the Vary header tells caches they
+     * differ. Smile, and rosters too large to keep encoded, are written through the message converter.
+     */
+    @GetMapping(produces = {MediaType.APPLICATION_JSON_VALUE, APPLICATION_SMILE_VALUE})
+    public ResponseEntity<?> getEmployees(HttpServletRequest request) {
+        final var snapshot = mockEmployeeService.getMockEmployeeSnapshot();
+        final var format = negotiate(request, MediaType.APPLICATION_JSON, APPLICATION_SMILE);
+        final var etag = rosterETag.of(snapshot.version(), format);
+        final var encoded = !APPLICATION_SMILE.equals(format) && encodedRoster.keeps(snapshot);
+        final var gzip = encoded && acceptsGzip(request);
+        final var sentETag = gzip ? "W/" + etag : etag;
+        if (rosterETag.matches(request, etag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                    .eTag(sentETag)
+                    .varyBy(HttpHeaders.ACCEPT, HttpHeaders.ACCEPT_ENCODING)
+                    .build();
+        }
+        final var body = encoded ? encodedRoster.of(snapshot) : Optional.<EncodedRoster.Body>empty();
+        final var response =
+                ResponseEntity.ok().eTag(sentETag).varyBy(HttpHeaders.ACCEPT, HttpHeaders.ACCEPT_ENCODING);
+        if (body.isEmpty()) {
+            return response.body(Response.handledWith(snapshot.employees()));
+        }
+        response.contentType(MediaType.APPLICATION_JSON);
+        if (gzip) {
+            return response.header(HttpHeaders.CONTENT_ENCODING, "gzip").body(body.get().gzip());
+        }
+        return response.body(body.get().raw());
+    }
+
+    @GetMapping("/page")
+    public Response<Page<MockEmployee>> getEmployeePage(
+            @RequestParam(defaultValue = "0") long cursor, @RequestParam(defaultValue = "100") int limit) {
+        return Response.handledWith(mockEmployeeService.getMockEmployeePage(cursor, limit));
+    }
+
+    /*
+     * Employees matching every filter given, in the order they were added and paged like /page, e.g.
+     * /query?title=engineer&minAge=30&maxAge=40&minSalary=200000. Salary and age ranges and titles are indexed, so a
+     * selective query only reads the employees it could match.
+     */
+    @GetMapping("/query")
+    public Response<Page<MockEmployee>> queryEmployees(
+            EmployeeQuery query,
+            @RequestParam(defaultValue = "0") long cursor,
+            @RequestParam(defaultValue = "100") int limit) {
+        return Response.handledWith(mockEmployeeService.queryMockEmployees(query, cursor, limit));
+    }
+
+    /*
+     * One employee at a time, flushed as it goes so the first employees reach the client before the last are
+     * serialized: JSON lines, or for clients that prefer Smile a single Smile document whose top-level values are the
+     * employees. The version header says which change feed position the roster corresponds to, and the epoch header
+     * which server instance that position belongs to.
+     */
+    @GetMapping(value = "/stream", produces = {MediaType.APPLICATION_NDJSON_VALUE, APPLICATION_SMILE_VALUE})
+    public ResponseEntity<StreamingResponseBody> streamEmployees(HttpServletRequest request) {
+        final var snapshot = mockEmployeeService.getMockEmployeeSnapshot();
+        final var contentType = negotiate(request, MediaType.APPLICATION_NDJSON, APPLICATION_SMILE);
+        final var etag = rosterETag.of(snapshot.version(), contentType);
+        if (rosterETag.matches(request, etag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).varyBy(HttpHeaders.ACCEPT).build();
+        }
+        final StreamingResponseBody body = APPLICATION_SMILE.equals(contentType)
+                ? out -> writeSmileSequence(snapshot.employees(), out)
+                : out -> writeJsonLines(snapshot.employees(), out);
+        return ResponseEntity.ok()
+                .contentType(contentType)
+                .eTag(etag)
+                .varyBy(HttpHeaders.ACCEPT)
+                .header(ROSTER_VERSION_HEADER, String.valueOf(snapshot.version()))
+                .header(ROSTER_EPOCH_HEADER, rosterETag.epoch())
+                .body(body);
+    }
 
-    @GetMapping()
-    public Response<List<MockEmployee>> getEmployees() {
-        return Response.handledWith(mockEmployeeService.getMockEmployees());
+    /*
+     * 410 Gone when the changes since that version are no longer all retained, or when the epoch shows the version was
+     * handed out by an earlier run of the server, whose versions mean nothing now; either way the client has to fetch
+     * the roster again. Clients should always pass the epoch they got with the version.
+     */
+    @GetMapping("/changes")
+    public ResponseEntity<Response<ChangeFeed>> getChanges(
+            @RequestParam long since, @RequestParam(required = false) String epoch) {
+        if (epoch != null && !epoch.equals(rosterETag.epoch())) {
+            return ResponseEntity.status(HttpStatus.GONE)
+                    .header(ROSTER_EPOCH_HEADER, rosterETag.epoch())
+                    .body(Response.error("Version " + since + " belongs to another run of the server."));
+        }
+        return mockEmployeeService
+                .getChangesSince(since)
+                .map(feed -> ResponseEntity.ok()
+                        .header(ROSTER_EPOCH_HEADER, rosterETag.epoch())
+                        .body(Response.handledWith(feed)))
+                .orElseGet(() -> ResponseEntity.status(HttpStatus.GONE)
+                        .body(Response.error("Changes since version " + since + " are no longer available.")));
     }
 
     @GetMapping("/{id}")
@@ -48,4 +175,81 @@ public class MockEmployeeController {
     public Response<Boolean> deleteEmployee(@Valid @RequestBody DeleteMockEmployeeInput input) {
         return Response.handledWith(mockEmployeeService.delete(input));
     }
+
+    /*
+     * The whole batch is validated before any employee is created, and creates are applied as one write.
+     */
+    @PostMapping("/batch")
+    public Response<List<MockEmployee>> createEmployees(@Valid @RequestBody CreateMockEmployeeBatchInput input) {
+        return Response.handledWith(mockEmployeeService.createAll(input.getEmployees()));
+    }
+
+    /*
+     * One result per name, in request order, as deleteEmployee() would return it.
+     */
+    @DeleteMapping("/batch")
+    public Response<List<Boolean>> deleteEmployees(@Valid @RequestBody DeleteMockEmployeeBatchInput input) {
+        return Response.handledWith(mockEmployeeService.deleteAll(input.getEmployees()));
+    }
+
+    private void writeJsonLines(List<MockEmployee> employees, OutputStream out) throws IOException {
+        var written = 0;
+        for (final var employee : employees) {
+            out.write(objectMapper.writeValueAsBytes(employee));
+            out.write('\n');
+            if (++written % STREAM_FLUSH_INTERVAL == 0) {
+                out.flush();
+            }
+        }
+        out.flush();
+    }
+
+    /*
+     * Property names are written once and referred back to after that, so keys cost a byte or two per employee.
+     */
+    private void writeSmileSequence(List<MockEmployee> employees, OutputStream out) throws IOException {
+        final var writer = smileHttpMessageConverter
+                .getObjectMapper()
+                .writerFor(MockEmployee.class)
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE)
+                .without(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        try (var sequence = writer.writeValues(out)) {
+            var written = 0;
+            for (final var employee : employees) {
+                sequence.write(employee);
+                if (++written % STREAM_FLUSH_INTERVAL == 0) {
+                    sequence.flush();
+                }
+            }
+        }
+        out.flush();
+    }
+
+    /*
+     * Whether the Accept-Encoding header lists gzip with a quality above zero.
+     */
+    private static boolean acceptsGzip(HttpServletRequest request) {
+        final var acceptEncoding = request.getHeader(HttpHeaders.ACCEPT_ENCODING);
+        if (acceptEncoding == null) {
+            return false;
+        }
+        for (final var coding : acceptEncoding.split(",")) {
+            final var parameters = coding.split(";");
+            if (!parameters[0].trim().equalsIgnoreCase("gzip")) {
+                continue;
+            }
+            for (var i = 1; i < parameters.length; i++) {
+                final var parameter = parameters[i].trim();
+                if (parameter.startsWith("q=")) {
+                    try {
+                        return Double.parseDouble(parameter.substring(2)) > 0;
+                    } catch (NumberFormatException e) {
+                        return false;
+                    }
+                }
+            }
+            return true;
+        }
+        return false;
+    }
 }
@@ -3,6 +3,7 @@ package com.reliaquest.server.controller;
 import com.reliaquest.server.model.Response;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.ResponseEntity;
+import org.springframework.validation.BindException;
 import org.springframework.web.bind.annotation.ControllerAdvice;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 
@@ -15,4 +16,15 @@ public class MockEmployeeControllerAdvice {
         log.error("Error handling web request.", ex);
         return ResponseEntity.internalServerError().body(Response.error(ex.getMessage()));
     }
+
+    /*
+     * Lets clients tell a rejected input apart from a server failure, e.g. to retry a batch item by item. Covers
+     * invalid request bodies and query parameters that do not bind, such as a non-numeric salary bound, on every
+     * endpoint: an invalid single create or delete is answered with 400 too, where it used to fail with 500.
+     */
+    @ExceptionHandler
+    protected ResponseEntity<?> handleInvalidInput(BindException ex) {
+        log.debug("Rejected invalid input: {}", ex.getMessage());
+        return ResponseEntity.badRequest().body(Response.error(ex.getMessage()));
+    }
 }
@@ -0,0 +1,9 @@
+package com.reliaquest.server.model;
+
+import java.util.List;
+
+/**
+ * The changes made after a client's last known version, oldest first. {@code version} is the store version once all
+ * of them are applied; pass it back as {@code since} on the next request.
+ */
+public record ChangeFeed(long version, List<EmployeeChange> changes) {}
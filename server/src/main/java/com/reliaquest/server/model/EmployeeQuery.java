@@ -0,0 +1,54 @@
+package com.reliaquest.server.model;
+
+import java.util.Locale;
+
+/**
+ * Filters for {@code GET /api/v1/employee/query}, bound from its request parameters. Each filter left out matches every
+ * employee. Ranges include their bounds; {@code title} must equal the employee's title and {@code name} be part of
+ * their name, both ignoring case.
+ */
+public record EmployeeQuery(
+        Integer minSalary, Integer maxSalary, Integer minAge, Integer maxAge, String title, String name) {
+
+    public boolean hasSalaryRange() {
+        return minSalary != null || maxSalary != null;
+    }
+
+    public boolean hasAgeRange() {
+        return minAge != null || maxAge != null;
+    }
+
+    public boolean hasTitle() {
+        return title != null && !title.isBlank();
+    }
+
+    public boolean hasName() {
+        return name != null && !name.isBlank();
+    }
+
+    /**
+     * @return whether some range excludes every value, e.g. a minimum salary above the maximum
+     */
+    public boolean matchesNothing() {
+        return minSalary != null && maxSalary != null && minSalary > maxSalary
+                || minAge != null && maxAge != null && minAge > maxAge;
+    }
+
+    public boolean matches(MockEmployee employee) {
+        return inRange(employee.getSalary(), minSalary, maxSalary)
+                && inRange(employee.getAge(), minAge, maxAge)
+                && (!hasTitle() || title.equalsIgnoreCase(employee.getTitle()))
+                && (!hasName() || contains(employee.getName(), name));
+    }
+
+    private static boolean inRange(Integer value, Integer min, Integer max) {
+        if (min == null && max == null) {
+            return true;
+        }
+        return value != null && (min == null || value >= min) && (max == null || value <= max);
+    }
+
+    private static boolean contains(String text, String fragment) {
+        return text != null && text.toLowerCase(Locale.ROOT).contains(fragment.toLowerCase(Locale.ROOT));
+    }
+}
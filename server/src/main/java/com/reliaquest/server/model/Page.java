@@ -0,0 +1,11 @@
+package com.reliaquest.server.model;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import java.util.List;
+
+/**
+ * One page of a cursor-paginated listing. {@code nextCursor} is absent on the last page; otherwise pass it back as
+ * {@code cursor} to fetch the following page.
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record Page<T>(List<T> items, Long nextCursor) {}
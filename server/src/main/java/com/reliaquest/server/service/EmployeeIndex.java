@@ -0,0 +1,206 @@
+package com.reliaquest.server.service;
+
+import com.reliaquest.server.model.ChangeFeed;
+import com.reliaquest.server.model.EmployeeChange;
+import com.reliaquest.server.model.EmployeeQuery;
+import com.reliaquest.server.model.MockEmployee;
+import com.reliaquest.server.model.Page;
+import com.reliaquest.server.store.Snapshot;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.NavigableSet;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.UUID;
+
+/**
+ * Employees ordered by salary and by age, and grouped by title, so a query only visits the employees its most
+ * selective filter lets through instead of the whole roster.
+ *
+ * <p>Built from a snapshot and brought up to date by applying the store's change feed. Each employee gets a sequence
+ * number in the order it was added, which orders results and serves as the page cursor, as it does in the stores. Not
+ * thread-safe on its own; {@link MockEmployeeService} guards it with its lock.
+ */
+class EmployeeIndex {
+
+    private final NavigableMap<Long, MockEmployee> bySeq = new TreeMap<>();
+    private final Map<UUID, Long> seqById = new HashMap<>();
+    private final NavigableSet<Ranked> bySalary = new TreeSet<>(Ranked.ORDER);
+    private final NavigableSet<Ranked> byAge = new TreeSet<>(Ranked.ORDER);
+    private final Map<String, NavigableSet<Long>> seqsByTitle = new HashMap<>();
+    private long nextSeq;
+    private long version;
+
+    EmployeeIndex(Snapshot snapshot) {
+        snapshot.employees().forEach(this::add);
+        this.version = snapshot.version();
+    }
+
+    /**
+     * @return the store version this index reflects
+     */
+    long version() {
+        return version;
+    }
+
+    /**
+     * Applies the changes this index has not seen yet. {@code feed} must hold every change made after
+     * {@link #version()}.
+     */
+    void apply(ChangeFeed feed) {
+        for (final var change : feed.changes()) {
+            if (change.version() <= version) {
+                continue;
+            }
+            if (change.type() == EmployeeChange.Type.CREATED) {
+                add(change.employee());
+            } else {
+                remove(change.employee().getId());
+            }
+        }
+        version = Math.max(version, feed.version());
+    }
+
+    /**
+     * @param cursor {@code 0} for the first page, otherwise the {@link Page#nextCursor()} of the previous page
+     * @return up to {@code limit} employees matching {@code query}, in the order they were added, starting at
+     *     {@code cursor}
+     */
+    Page<MockEmployee> query(EmployeeQuery query, long cursor, int limit) {
+        if (query.matchesNothing()) {
+            return new Page<>(List.of(), null);
+        }
+        final var items = new ArrayList<MockEmployee>(Math.min(limit, 64));
+        for (final var seq : candidates(query, cursor)) {
+            final var employee = bySeq.get(seq);
+            if (!query.matches(employee)) {
+                continue;
+            }
+            if (items.size() == limit) {
+                return new Page<>(items, seq);
+            }
+            items.add(employee);
+        }
+        return new Page<>(items, null);
+    }
+
+    /*
+     * The sequence numbers, from cursor on and in order, of the employees the narrowest indexed filter lets through.
+     * Without one every employee is a candidate. A title's employees are already in order; those in a salary or age
+     * range have to be sorted.
+     */
+    private Iterable<Long> candidates(EmployeeQuery query, long cursor) {
+        final var sources = new ArrayList<Iterable<Long>>(3);
+        if (query.hasTitle()) {
+            sources.add(seqsByTitle
+                    .getOrDefault(titleKey(query.title()), Collections.emptyNavigableSet())
+                    .tailSet(cursor, true));
+        }
+        if (query.hasSalaryRange()) {
+            sources.add(seqs(bySalary, query.minSalary(), query.maxSalary()));
+        }
+        if (query.hasAgeRange()) {
+            sources.add(seqs(byAge, query.minAge(), query.maxAge()));
+        }
+        if (sources.isEmpty()) {
+            return bySeq.tailMap(cursor, true).keySet();
+        }
+        final var narrowest = sources.get(narrowest(sources));
+        if (narrowest instanceof NavigableSet<Long> ordered) {
+            return ordered;
+        }
+        final var seqs = new ArrayList<Long>();
+        for (final var seq : narrowest) {
+            if (seq >= cursor) {
+                seqs.add(seq);
+            }
+        }
+        Collections.sort(seqs);
+        return seqs;
+    }
+
+    /*
+     * Walks all sources one step at a time until one runs out, so finding the smallest costs a few times its size
+     * rather than the size of the largest.
+     */
+    private static int narrowest(List<Iterable<Long>> sources) {
+        if (sources.size() == 1) {
+            return 0;
+        }
+        final var iterators = sources.stream().map(Iterable::iterator).toList();
+        while (true) {
+            for (var i = 0; i < iterators.size(); i++) {
+                final var iterator = iterators.get(i);
+                if (!iterator.hasNext()) {
+                    return i;
+                }
+                iterator.next();
+            }
+        }
+    }
+
+    private static Iterable<Long> seqs(NavigableSet<Ranked> index, Integer min, Integer max) {
+        final var range = index.subSet(
+                new Ranked(min != null ? min : Integer.MIN_VALUE, Long.MIN_VALUE),
+                true,
+                new Ranked(max != null ? max : Integer.MAX_VALUE, Long.MAX_VALUE),
+                true);
+        return () -> range.stream().map(Ranked::seq).iterator();
+    }
+
+    /*
+     * An employee added again under an id already indexed replaces the earlier record, as it does in the stores.
+     */
+    private void add(MockEmployee employee) {
+        remove(employee.getId());
+        final var seq = nextSeq++;
+        bySeq.put(seq, employee);
+        seqById.put(employee.getId(), seq);
+        if (employee.getSalary() != null) {
+            bySalary.add(new Ranked(employee.getSalary(), seq));
+        }
+        if (employee.getAge() != null) {
+            byAge.add(new Ranked(employee.getAge(), seq));
+        }
+        if (employee.getTitle() != null) {
+            seqsByTitle.computeIfAbsent(titleKey(employee.getTitle()), title -> new TreeSet<>()).add(seq);
+        }
+    }
+
+    private void remove(UUID id) {
+        final var seq = seqById.remove(id);
+        if (seq == null) {
+            return;
+        }
+        final var employee = bySeq.remove(seq);
+        if (employee.getSalary() != null) {
+            bySalary.remove(new Ranked(employee.getSalary(), seq));
+        }
+        if (employee.getAge() != null) {
+            byAge.remove(new Ranked(employee.getAge(), seq));
+        }
+        if (employee.getTitle() != null) {
+            final var key = titleKey(employee.getTitle());
+            final var seqs = seqsByTitle.get(key);
+            seqs.remove(seq);
+            if (seqs.isEmpty()) {
+                seqsByTitle.remove(key);
+            }
+        }
+    }
+
+    private static String titleKey(String title) {
+        return title.toLowerCase(Locale.ROOT);
+    }
+
+    private record Ranked(int value, long seq) {
+
+        static final Comparator<Ranked> ORDER = Comparator.comparingInt(Ranked::value).thenComparingLong(Ranked::seq);
+    }
+}
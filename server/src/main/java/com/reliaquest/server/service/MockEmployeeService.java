@@ -1,14 +1,19 @@
 package com.reliaquest.server.service;
 
 import com.reliaquest.server.config.ServerConfiguration;
+import com.reliaquest.server.model.ChangeFeed;
 import com.reliaquest.server.model.CreateMockEmployeeInput;
 import com.reliaquest.server.model.DeleteMockEmployeeInput;
+import com.reliaquest.server.model.EmployeeQuery;
 import com.reliaquest.server.model.MockEmployee;
+import com.reliaquest.server.model.Page;
+import com.reliaquest.server.store.EmployeeStore;
+import com.reliaquest.server.store.Snapshot;
 import java.util.List;
-import java.util.Objects;
 import java.util.Optional;
 import java.util.UUID;
-import lombok.Getter;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
 import lombok.NonNull;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -20,39 +25,114 @@ import org.springframework.stereotype.Service;
 @RequiredArgsConstructor
 public class MockEmployeeService {
 
+    public static final int MAX_PAGE_SIZE = 1000;
+
     private final Faker faker;
 
-    @Getter
-    private final List<MockEmployee> mockEmployees;
+    private final EmployeeStore employeeStore;
+
+    /*
+     * Built on the first query and caught up on later ones; writes do not touch it.
+     */
+    private final ReadWriteLock indexLock = new ReentrantReadWriteLock();
+
+    private EmployeeIndex index;
+
+    public List<MockEmployee> getMockEmployees() {
+        return employeeStore.snapshot().employees();
+    }
+
+    public Snapshot getMockEmployeeSnapshot() {
+        return employeeStore.snapshot();
+    }
+
+    public Optional<ChangeFeed> getChangesSince(long version) {
+        return employeeStore.changesSince(version);
+    }
+
+    public Page<MockEmployee> getMockEmployeePage(long cursor, int limit) {
+        return employeeStore.page(Math.max(cursor, 0), Math.min(Math.max(limit, 1), MAX_PAGE_SIZE));
+    }
+
+    /**
+     * Employees matching {@code query}, a page at a time like {@link #getMockEmployeePage(long, int)}. The index is
+     * brought up to date with the store's change feed first, or rebuilt from a snapshot if the feed no longer reaches
+     * back far enough, in which case cursors handed out earlier may skip or repeat employees.
+     */
+    public Page<MockEmployee> queryMockEmployees(@NonNull EmployeeQuery query, long cursor, int limit) {
+        catchUpIndex();
+        indexLock.readLock().lock();
+        try {
+            return index.query(query, Math.max(cursor, 0), Math.min(Math.max(limit, 1), MAX_PAGE_SIZE));
+        } finally {
+            indexLock.readLock().unlock();
+        }
+    }
 
     public Optional<MockEmployee> findById(@NonNull UUID uuid) {
-        return mockEmployees.stream()
-                .filter(mockEmployee -> Objects.nonNull(mockEmployee.getId())
-                        && mockEmployee.getId().equals(uuid))
-                .findFirst();
+        return employeeStore.findById(uuid);
     }
 
     public MockEmployee create(@NonNull CreateMockEmployeeInput input) {
-        final var mockEmployee = MockEmployee.from(
-                ServerConfiguration.EMAIL_TEMPLATE.formatted(
-                        faker.twitter().userName().toLowerCase()),
-                input);
-        mockEmployees.add(mockEmployee);
+        final var mockEmployee = toMockEmployee(input);
+        employeeStore.add(mockEmployee);
         log.debug("Added employee: {}", mockEmployee);
         return mockEmployee;
     }
 
+    public List<MockEmployee> createAll(@NonNull List<CreateMockEmployeeInput> inputs) {
+        final var mockEmployees = inputs.stream().map(this::toMockEmployee).toList();
+        employeeStore.addAll(mockEmployees);
+        log.debug("Added {} employees", mockEmployees.size());
+        return mockEmployees;
+    }
+
     public boolean delete(@NonNull DeleteMockEmployeeInput input) {
-        final var mockEmployee = mockEmployees.stream()
-                .filter(employee -> Objects.nonNull(employee.getName())
-                        && employee.getName().equalsIgnoreCase(input.getName()))
-                .findFirst();
-        if (mockEmployee.isPresent()) {
-            mockEmployees.remove(mockEmployee.get());
-            log.debug("Removed employee: {}", mockEmployee.get());
-            return true;
+        final var mockEmployee = employeeStore.removeByName(input.getName());
+        mockEmployee.ifPresent(employee -> log.debug("Removed employee: {}", employee));
+        return mockEmployee.isPresent();
+    }
+
+    public List<Boolean> deleteAll(@NonNull List<DeleteMockEmployeeInput> inputs) {
+        final var removed = employeeStore.removeAllByName(
+                inputs.stream().map(DeleteMockEmployeeInput::getName).toList());
+        removed.forEach(
+                mockEmployee -> mockEmployee.ifPresent(employee -> log.debug("Removed employee: {}", employee)));
+        return removed.stream().map(Optional::isPresent).toList();
+    }
+
+    private void catchUpIndex() {
+        final var version = employeeStore.version();
+        indexLock.readLock().lock();
+        try {
+            if (index != null && index.version() >= version) {
+                return;
+            }
+        } finally {
+            indexLock.readLock().unlock();
         }
+        indexLock.writeLock().lock();
+        try {
+            if (index == null) {
+                index = new EmployeeIndex(employeeStore.snapshot());
+            } else if (index.version() < version) {
+                final var feed = employeeStore.changesSince(index.version());
+                if (feed.isPresent()) {
+                    index.apply(feed.get());
+                } else {
+                    log.debug("Rebuilding the query index, changes since version {} are gone", index.version());
+                    index = new EmployeeIndex(employeeStore.snapshot());
+                }
+            }
+        } finally {
+            indexLock.writeLock().unlock();
+        }
+    }
 
-        return false;
+    private MockEmployee toMockEmployee(CreateMockEmployeeInput input) {
+        return MockEmployee.from(
+                ServerConfiguration.EMAIL_TEMPLATE.formatted(
+                        faker.twitter().userName().toLowerCase()),
+                input);
     }
 }
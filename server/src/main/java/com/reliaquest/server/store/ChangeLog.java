@@ -0,0 +1,66 @@
+package com.reliaquest.server.store;
+
+import com.reliaquest.server.model.ChangeFeed;
+import com.reliaquest.server.model.EmployeeChange;
+import com.reliaquest.server.model.MockEmployee;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A store's version counter together with its most recent {@code retention} changes.
+ *
+ * <p>Safe for concurrent use, but a store must make sure {@link #since(long)} does not run while a write is between
+ * claiming its version and being appended, or a feed could skip it.
+ */
+class ChangeLog {
+
+    private final AtomicLong version = new AtomicLong();
+    private final ConcurrentNavigableMap<Long, EmployeeChange> changes = new ConcurrentSkipListMap<>();
+    private final AtomicLong trimmedThrough = new AtomicLong();
+    private final int retention;
+
+    ChangeLog(int retention) {
+        if (retention < 1) {
+            throw new IllegalArgumentException("changeRetention must be at least 1");
+        }
+        this.retention = retention;
+    }
+
+    long version() {
+        return version.get();
+    }
+
+    /*
+     * Trimming by version rather than by count keeps it O(trimmed), as a skip list's size() is not constant time.
+     */
+    void record(EmployeeChange.Type type, MockEmployee employee) {
+        final var stamped = version.incrementAndGet();
+        changes.put(stamped, new EmployeeChange(stamped, type, employee));
+        final var oldest = stamped - retention;
+        if (oldest > 0) {
+            changes.headMap(oldest, true).clear();
+            trimmedThrough.accumulateAndGet(oldest, Math::max);
+        }
+    }
+
+    /**
+     * Moves to {@code version} without recording changes, e.g. after a bulk load. Earlier versions can no longer be
+     * caught up from.
+     */
+    void startAt(long version) {
+        changes.clear();
+        this.version.set(version);
+        trimmedThrough.set(version);
+    }
+
+    Optional<ChangeFeed> since(long since) {
+        final var latest = version.get();
+        if (since < trimmedThrough.get() || since > latest) {
+            return Optional.empty();
+        }
+        return Optional.of(new ChangeFeed(latest, List.copyOf(changes.tailMap(since, false).values())));
+    }
+}
@@ -0,0 +1,435 @@
+package com.reliaquest.server.store;
+
+import com.reliaquest.server.model.ChangeFeed;
+import com.reliaquest.server.model.EmployeeChange;
+import com.reliaquest.server.model.MockEmployee;
+import com.reliaquest.server.model.Page;
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.RandomAccess;
+import java.util.UUID;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import lombok.NonNull;
+
+/**
+ * {@link EmployeeStore} that keeps employees in columns rather than as objects, for rosters of many millions.
+ *
+ * <p>Ids, salaries and ages live in primitive arrays, titles are dictionary-encoded and names and emails are packed
+ * as UTF-8 into shared pages, so an employee costs roughly a hundred bytes instead of a graph of eight objects.
+ * {@link MockEmployee}s are only built for the rows actually read: snapshots are lazy lists over the live rows, which
+ * Jackson walks one employee at a time while serializing.
+ *
+ * <p>Rows are append-only. A delete only marks its row, and re-adding an id appends a new row, which is also what
+ * keeps insertion order. Once deleted rows outnumber live ones, and there are at least {@value #MIN_COMPACTION} of
+ * them, the live rows are copied in order into new columns, so the store holds at most about twice its live rows.
+ * Page cursors are the insertion numbers of rows rather than their positions, so they survive compaction. Writes take
+ * the exclusive side of a read-write lock and reads the shared side; a snapshot captures the column arrays and the
+ * live row numbers, and stays valid while later writes append past it or compaction replaces the columns.
+ */
+public class ColumnarEmployeeStore implements EmployeeStore {
+
+    private static final int INITIAL_CAPACITY = 1024;
+    private static final int LOAD_CHUNK = 8192;
+    private static final int NULL_INT = Integer.MIN_VALUE;
+    private static final int NO_TITLE = -1;
+    private static final int MIN_COMPACTION = 1024;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final ChangeLog changeLog;
+
+    private long[] idMostSignificant = new long[INITIAL_CAPACITY];
+    private long[] idLeastSignificant = new long[INITIAL_CAPACITY];
+    private int[] salaries = new int[INITIAL_CAPACITY];
+    private int[] ages = new int[INITIAL_CAPACITY];
+    private int[] titleCodes = new int[INITIAL_CAPACITY];
+    private long[] insertions = new long[INITIAL_CAPACITY];
+    private Utf8Column names = new Utf8Column(INITIAL_CAPACITY);
+    private Utf8Column emails = new Utf8Column(INITIAL_CAPACITY);
+
+    private final Map<String, Integer> titleDictionary = new HashMap<>();
+    private String[] titles = new String[64];
+
+    private final BitSet deleted = new BitSet();
+    private RowChains rowsById = new RowChains();
+    private RowChains rowsByName = new RowChains();
+    private int rowCount;
+    private int liveCount;
+    private long nextInsertion;
+
+    private volatile Snapshot snapshot = new Snapshot(0, List.of());
+
+    public ColumnarEmployeeStore() {
+        this(ConcurrentEmployeeStore.DEFAULT_CHANGE_RETENTION);
+    }
+
+    public ColumnarEmployeeStore(int changeRetention) {
+        this.changeLog = new ChangeLog(changeRetention);
+    }
+
+    @Override
+    public Optional<MockEmployee> findById(@NonNull UUID id) {
+        lock.readLock().lock();
+        try {
+            final var row = findRow(id);
+            return row == RowChains.END ? Optional.empty() : Optional.of(columns().employee(row));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public void add(@NonNull MockEmployee employee) {
+        lock.writeLock().lock();
+        try {
+            insert(employee);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void addAll(@NonNull List<MockEmployee> employees) {
+        lock.writeLock().lock();
+        try {
+            employees.forEach(this::insert);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /*
+     * Building employees, e.g. from a lazily generated roster, runs in parallel a chunk at a time; appending them to
+     * the columns is sequential.
+     */
+    @Override
+    public void load(@NonNull List<MockEmployee> employees) {
+        lock.writeLock().lock();
+        try {
+            if (rowCount != 0) {
+                throw new IllegalStateException("Only an empty store can be loaded");
+            }
+            ensureCapacity(employees.size());
+            for (var from = 0; from < employees.size(); from += LOAD_CHUNK) {
+                employees
+                        .subList(from, Math.min(from + LOAD_CHUNK, employees.size()))
+                        .parallelStream()
+                        .toList()
+                        .forEach(this::append);
+            }
+            changeLog.startAt(employees.size());
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public Optional<MockEmployee> removeByName(@NonNull String name) {
+        lock.writeLock().lock();
+        try {
+            return remove(name);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public List<Optional<MockEmployee>> removeAllByName(@NonNull List<String> names) {
+        lock.writeLock().lock();
+        try {
+            final var removed = new ArrayList<Optional<MockEmployee>>(names.size());
+            names.forEach(name -> removed.add(remove(name)));
+            return removed;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public Snapshot snapshot() {
+        final var current = snapshot;
+        if (current.version() == changeLog.version()) {
+            return current;
+        }
+        lock.readLock().lock();
+        try {
+            final var rows = new int[liveCount];
+            var live = 0;
+            for (var row = deleted.nextClearBit(0); row < rowCount; row = deleted.nextClearBit(row + 1)) {
+                rows[live++] = row;
+            }
+            final var latest = new Snapshot(changeLog.version(), new RowView(columns(), rows));
+            snapshot = latest;
+            return latest;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public Optional<ChangeFeed> changesSince(long since) {
+        lock.readLock().lock();
+        try {
+            return changeLog.since(since);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public Page<MockEmployee> page(long cursor, int limit) {
+        lock.readLock().lock();
+        try {
+            final var columns = columns();
+            final var items = new ArrayList<MockEmployee>(limit);
+            for (var row = deleted.nextClearBit(firstRowFrom(cursor));
+                    row < rowCount;
+                    row = deleted.nextClearBit(row + 1)) {
+                if (items.size() == limit) {
+                    return new Page<>(items, insertions[row]);
+                }
+                items.add(columns.employee(row));
+            }
+            return new Page<>(items, null);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public long version() {
+        return changeLog.version();
+    }
+
+    @Override
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return liveCount;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * @return the rows the columns hold, deleted ones included
+     */
+    int rowCount() {
+        lock.readLock().lock();
+        try {
+            return rowCount;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /*
+     * insert(), append(), remove() and compact() are called with the exclusive lock held.
+     */
+    private void insert(MockEmployee employee) {
+        final var previous = findRow(employee.getId());
+        if (previous != RowChains.END) {
+            markDeleted(previous);
+        }
+        append(employee);
+        changeLog.record(EmployeeChange.Type.CREATED, employee);
+    }
+
+    private void append(MockEmployee employee) {
+        ensureCapacity(rowCount + 1);
+        final var row = rowCount++;
+        idMostSignificant[row] = employee.getId().getMostSignificantBits();
+        idLeastSignificant[row] = employee.getId().getLeastSignificantBits();
+        salaries[row] = employee.getSalary() != null ? employee.getSalary() : NULL_INT;
+        ages[row] = employee.getAge() != null ? employee.getAge() : NULL_INT;
+        titleCodes[row] = titleCode(employee.getTitle());
+        insertions[row] = nextInsertion++;
+        names.set(row, employee.getName());
+        emails.set(row, employee.getEmail());
+        rowsById.add(employee.getId().hashCode(), row);
+        rowsByName.add(nameKey(employee.getName()).hashCode(), row);
+        liveCount++;
+    }
+
+    private Optional<MockEmployee> remove(String name) {
+        final var key = nameKey(name);
+        final var names = this.names.view();
+        for (var row = rowsByName.first(key.hashCode()); row != RowChains.END; row = rowsByName.next(row)) {
+            if (!deleted.get(row) && nameKey(names.get(row)).equals(key)) {
+                final var removed = columns().employee(row);
+                markDeleted(row);
+                changeLog.record(EmployeeChange.Type.DELETED, removed);
+                return Optional.of(removed);
+            }
+        }
+        return Optional.empty();
+    }
+
+    private int findRow(UUID id) {
+        final var most = id.getMostSignificantBits();
+        final var least = id.getLeastSignificantBits();
+        for (var row = rowsById.first(id.hashCode()); row != RowChains.END; row = rowsById.next(row)) {
+            if (idMostSignificant[row] == most && idLeastSignificant[row] == least && !deleted.get(row)) {
+                return row;
+            }
+        }
+        return RowChains.END;
+    }
+
+    private void markDeleted(int row) {
+        deleted.set(row);
+        liveCount--;
+        final var dead = rowCount - liveCount;
+        if (dead >= MIN_COMPACTION && dead > liveCount) {
+            compact();
+        }
+    }
+
+    /*
+     * Copies the live rows, in order, into new columns and indexes. The old arrays are left as they are for the
+     * snapshots still reading them. Compacting only once the dead rows outnumber the live ones keeps its cost
+     * proportional to the deletes that led to it.
+     */
+    private void compact() {
+        final var from = columns();
+        final var fromInsertions = insertions;
+        final var fromRowCount = rowCount;
+        final var capacity = Math.max(INITIAL_CAPACITY, liveCount + (liveCount >> 1));
+        idMostSignificant = new long[capacity];
+        idLeastSignificant = new long[capacity];
+        salaries = new int[capacity];
+        ages = new int[capacity];
+        titleCodes = new int[capacity];
+        insertions = new long[capacity];
+        names = new Utf8Column(capacity);
+        emails = new Utf8Column(capacity);
+        rowsById = new RowChains();
+        rowsByName = new RowChains();
+        rowsById.ensureRows(capacity);
+        rowsByName.ensureRows(capacity);
+        rowCount = 0;
+        for (var row = deleted.nextClearBit(0); row < fromRowCount; row = deleted.nextClearBit(row + 1)) {
+            final var to = rowCount++;
+            idMostSignificant[to] = from.idMostSignificant()[row];
+            idLeastSignificant[to] = from.idLeastSignificant()[row];
+            salaries[to] = from.salaries()[row];
+            ages[to] = from.ages()[row];
+            titleCodes[to] = from.titleCodes()[row];
+            insertions[to] = fromInsertions[row];
+            final var name = from.names().get(row);
+            names.set(to, name);
+            emails.set(to, from.emails().get(row));
+            rowsById.add(Long.hashCode(idMostSignificant[to] ^ idLeastSignificant[to]), to); // UUID.hashCode()
+            rowsByName.add(nameKey(name).hashCode(), to);
+        }
+        deleted.clear();
+    }
+
+    /*
+     * Insertion numbers only ever grow along the rows, so the first row at or after a cursor is found by bisection.
+     */
+    private int firstRowFrom(long cursor) {
+        final var found = Arrays.binarySearch(insertions, 0, rowCount, Math.max(cursor, 0));
+        return found >= 0 ? found : -found - 1;
+    }
+
+    private int titleCode(String title) {
+        if (title == null) {
+            return NO_TITLE;
+        }
+        return titleDictionary.computeIfAbsent(title, value -> {
+            final var code = titleDictionary.size();
+            if (code == titles.length) {
+                titles = Arrays.copyOf(titles, titles.length * 2);
+            }
+            titles[code] = value;
+            return code;
+        });
+    }
+
+    private void ensureCapacity(int capacity) {
+        if (capacity <= salaries.length) {
+            return;
+        }
+        final var grown = Math.max(capacity, salaries.length + (salaries.length >> 1));
+        idMostSignificant = Arrays.copyOf(idMostSignificant, grown);
+        idLeastSignificant = Arrays.copyOf(idLeastSignificant, grown);
+        salaries = Arrays.copyOf(salaries, grown);
+        ages = Arrays.copyOf(ages, grown);
+        titleCodes = Arrays.copyOf(titleCodes, grown);
+        insertions = Arrays.copyOf(insertions, grown);
+        names.ensureCapacity(grown);
+        emails.ensureCapacity(grown);
+        rowsById.ensureRows(grown);
+        rowsByName.ensureRows(grown);
+    }
+
+    private Columns columns() {
+        return new Columns(
+                idMostSignificant,
+                idLeastSignificant,
+                salaries,
+                ages,
+                titleCodes,
+                titles,
+                names.view(),
+                emails.view());
+    }
+
+    private static String nameKey(String name) {
+        return name == null ? "" : name.toLowerCase(Locale.ROOT);
+    }
+
+    /*
+     * The column arrays as of one moment. Growing a column replaces its array, compaction replaces them all, and rows
+     * are never rewritten, so the rows that existed then read the same forever.
+     */
+    private record Columns(
+            long[] idMostSignificant,
+            long[] idLeastSignificant,
+            int[] salaries,
+            int[] ages,
+            int[] titleCodes,
+            String[] titles,
+            Utf8Column.View names,
+            Utf8Column.View emails) {
+
+        MockEmployee employee(int row) {
+            return new MockEmployee(
+                    new UUID(idMostSignificant[row], idLeastSignificant[row]),
+                    names.get(row),
+                    salaries[row] != NULL_INT ? salaries[row] : null,
+                    ages[row] != NULL_INT ? ages[row] : null,
+                    titleCodes[row] != NO_TITLE ? titles[titleCodes[row]] : null,
+                    emails.get(row));
+        }
+    }
+
+    private static final class RowView extends AbstractList<MockEmployee> implements RandomAccess {
+
+        private final Columns columns;
+        private final int[] rows;
+
+        RowView(Columns columns, int[] rows) {
+            this.columns = columns;
+            this.rows = rows;
+        }
+
+        @Override
+        public MockEmployee get(int index) {
+            return columns.employee(rows[index]);
+        }
+
+        @Override
+        public int size() {
+            return rows.length;
+        }
+    }
+}
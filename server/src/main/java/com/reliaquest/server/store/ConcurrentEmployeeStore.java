@@ -0,0 +1,273 @@
+package com.reliaquest.server.store;
+
+import com.reliaquest.server.model.ChangeFeed;
+import com.reliaquest.server.model.EmployeeChange;
+import com.reliaquest.server.model.MockEmployee;
+import com.reliaquest.server.model.Page;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.IntStream;
+import lombok.NonNull;
+
+/**
+ * {@link EmployeeStore} built on concurrent maps, keyed by UUID with a case-insensitive name index.
+ *
+ * <p>Lookups by id and deletes by name are O(1) hash lookups. Each employee gets a sequence number on insertion;
+ * an ordered map by sequence keeps insertion order for list reads. Writers only synchronize on the map bins they
+ * touch, so concurrent writes to different employees never contend.
+ *
+ * <p>Snapshots must never show a state that did not exist, e.g. a later create without an earlier delete. Writers
+ * therefore hold the shared side of a read-write lock and snapshot building holds the exclusive side. That inverts
+ * the usual roles: writers never block each other, and a snapshot waits only for writes already in progress. A
+ * snapshot is built at most once per version and reused until the next write.
+ *
+ * <p>Every write bumps the version by one and appends to a change log holding the most recent {@code changeRetention}
+ * changes, so clients that already hold a snapshot can catch up on what changed instead of copying everything again.
+ * A write claims its version inside the map bin of the employee it changes, so the changes to any one employee are
+ * stamped in the order they were applied, even when a delete races the create it undoes.
+ */
+public class ConcurrentEmployeeStore implements EmployeeStore {
+
+    public static final int DEFAULT_CHANGE_RETENTION = 10_000;
+
+    private final ConcurrentMap<UUID, Entry> byId = new ConcurrentHashMap<>();
+    private final ConcurrentNavigableMap<Long, MockEmployee> bySeq = new ConcurrentSkipListMap<>();
+    private final ConcurrentMap<String, ConcurrentSkipListSet<Long>> seqsByName = new ConcurrentHashMap<>();
+    private final AtomicLong nextSeq = new AtomicLong();
+    private final ReadWriteLock snapshotLock = new ReentrantReadWriteLock();
+    private final ChangeLog changeLog;
+
+    private volatile Snapshot snapshot = new Snapshot(0, List.of());
+
+    public ConcurrentEmployeeStore() {
+        this(DEFAULT_CHANGE_RETENTION);
+    }
+
+    public ConcurrentEmployeeStore(int changeRetention) {
+        this.changeLog = new ChangeLog(changeRetention);
+    }
+
+    @Override
+    public Optional<MockEmployee> findById(@NonNull UUID id) {
+        return Optional.ofNullable(byId.get(id)).map(Entry::employee);
+    }
+
+    @Override
+    public void add(@NonNull MockEmployee employee) {
+        snapshotLock.readLock().lock();
+        try {
+            insert(employee);
+        } finally {
+            snapshotLock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public void addAll(@NonNull List<MockEmployee> employees) {
+        snapshotLock.readLock().lock();
+        try {
+            employees.forEach(this::insert);
+        } finally {
+            snapshotLock.readLock().unlock();
+        }
+    }
+
+    /*
+     * Each employee's sequence number is its position in the list, so the employees can be indexed in parallel and
+     * still keep their order.
+     */
+    @Override
+    public void load(@NonNull List<MockEmployee> employees) {
+        snapshotLock.writeLock().lock();
+        try {
+            if (nextSeq.get() != 0) {
+                throw new IllegalStateException("Only an empty store can be loaded");
+            }
+            IntStream.range(0, employees.size()).parallel().forEach(seq -> {
+                final var employee = employees.get(seq);
+                byId.put(employee.getId(), new Entry(seq, employee));
+                bySeq.put((long) seq, employee);
+                seqsByName
+                        .computeIfAbsent(nameKey(employee.getName()), name -> new ConcurrentSkipListSet<>())
+                        .add((long) seq);
+            });
+            nextSeq.set(employees.size());
+            changeLog.startAt(employees.size());
+        } finally {
+            snapshotLock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public Optional<MockEmployee> removeByName(@NonNull String name) {
+        snapshotLock.readLock().lock();
+        try {
+            return remove(name);
+        } finally {
+            snapshotLock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public List<Optional<MockEmployee>> removeAllByName(@NonNull List<String> names) {
+        snapshotLock.readLock().lock();
+        try {
+            final var removed = new ArrayList<Optional<MockEmployee>>(names.size());
+            names.forEach(name -> removed.add(remove(name)));
+            return removed;
+        } finally {
+            snapshotLock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public Snapshot snapshot() {
+        final var current = snapshot;
+        if (current.version() == changeLog.version()) {
+            return current;
+        }
+        snapshotLock.writeLock().lock();
+        try {
+            final var latest = changeLog.version();
+            if (snapshot.version() != latest) {
+                snapshot = new Snapshot(latest, List.copyOf(bySeq.values()));
+            }
+            return snapshot;
+        } finally {
+            snapshotLock.writeLock().unlock();
+        }
+    }
+
+    /*
+     * Taken under the exclusive lock for the same reason as snapshots: a write that has claimed version n may still be
+     * appending to the log while n + 1 is already there, and a feed must never skip over it.
+     */
+    @Override
+    public Optional<ChangeFeed> changesSince(long since) {
+        snapshotLock.writeLock().lock();
+        try {
+            return changeLog.since(since);
+        } finally {
+            snapshotLock.writeLock().unlock();
+        }
+    }
+
+    /*
+     * Cursors are insertion sequence numbers, so a page stays stable under concurrent writes: employees deleted since
+     * the previous page are skipped and ones created since appear on a later page.
+     */
+    @Override
+    public Page<MockEmployee> page(long cursor, int limit) {
+        final var items = new ArrayList<MockEmployee>(limit);
+        for (final var entry : bySeq.tailMap(cursor, true).entrySet()) {
+            if (items.size() == limit) {
+                return new Page<>(items, entry.getKey());
+            }
+            items.add(entry.getValue());
+        }
+        return new Page<>(items, null);
+    }
+
+    @Override
+    public long version() {
+        return changeLog.version();
+    }
+
+    @Override
+    public int size() {
+        return bySeq.size();
+    }
+
+    /*
+     * insert() and remove() are called with the shared lock held. Map bins are only ever locked by id first and by
+     * name second, so the nested computes cannot deadlock.
+     */
+    private void insert(MockEmployee employee) {
+        byId.compute(employee.getId(), (id, previous) -> {
+            if (previous != null) {
+                unindex(previous);
+            }
+            final var seq = nextSeq.getAndIncrement();
+            bySeq.put(seq, employee);
+            seqsByName.compute(nameKey(employee.getName()), (name, seqs) -> {
+                final var indexed = seqs != null ? seqs : new ConcurrentSkipListSet<Long>();
+                indexed.add(seq);
+                return indexed;
+            });
+            changeLog.record(EmployeeChange.Type.CREATED, employee);
+            return new Entry(seq, employee);
+        });
+    }
+
+    private Optional<MockEmployee> remove(String name) {
+        final var key = nameKey(name);
+        final var seqs = seqsByName.get(key);
+        if (seqs == null) {
+            return Optional.empty();
+        }
+        Long seq;
+        while ((seq = seqs.pollFirst()) != null) {
+            final var removed = bySeq.remove(seq);
+            if (removed != null && unmap(removed, seq)) {
+                dropIfEmpty(key);
+                return Optional.of(removed);
+            }
+        }
+        dropIfEmpty(key);
+        return Optional.empty();
+    }
+
+    /*
+     * Removes the employee's id mapping and records the delete, in the same bin insert() records creates in. Returns
+     * false if the employee was added again under its id in the meantime, replacing the record being removed.
+     */
+    private boolean unmap(MockEmployee employee, long seq) {
+        final var unmapped = new boolean[1];
+        byId.computeIfPresent(employee.getId(), (id, entry) -> {
+            if (entry.seq() != seq) {
+                return entry;
+            }
+            changeLog.record(EmployeeChange.Type.DELETED, employee);
+            unmapped[0] = true;
+            return null;
+        });
+        return unmapped[0];
+    }
+
+    /*
+     * An employee re-added under an existing id replaces the old record, wherever it was in insertion order.
+     */
+    private void unindex(Entry previous) {
+        bySeq.remove(previous.seq());
+        final var key = nameKey(previous.employee().getName());
+        final var seqs = seqsByName.get(key);
+        if (seqs != null) {
+            seqs.remove(previous.seq());
+            dropIfEmpty(key);
+        }
+    }
+
+    /*
+     * Runs inside the map's per-key lock, so it cannot race with compute() in add() re-populating the same name.
+     */
+    private void dropIfEmpty(String key) {
+        seqsByName.computeIfPresent(key, (name, seqs) -> seqs.isEmpty() ? null : seqs);
+    }
+
+    private static String nameKey(String name) {
+        return name == null ? "" : name.toLowerCase(Locale.ROOT);
+    }
+
+    private record Entry(long seq, MockEmployee employee) {}
+}
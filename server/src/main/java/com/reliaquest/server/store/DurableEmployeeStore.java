@@ -0,0 +1,359 @@
+package com.reliaquest.server.store;
+
+import com.reliaquest.server.model.ChangeFeed;
+import com.reliaquest.server.model.MockEmployee;
+import com.reliaquest.server.model.Page;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+import lombok.NonNull;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * {@link EmployeeStore} that keeps another store's contents across restarts, using a directory of snapshot files and
+ * a {@link WriteAheadLog}.
+ *
+ * <p>Every create and delete is appended to the log as one record and only applied to the wrapped store once the
+ * record is on disk, so no reader ever sees a write that a crash could still lose; concurrent writers share fsyncs
+ * through the log's group commit. Appends are serialized, and records are applied strictly in log order, so the store
+ * always holds what replaying a prefix of the log would give. Reads go straight to the wrapped store.
+ *
+ * <p>Every {@code snapshotEvery} records a background thread starts a new log segment, writes the wrapped store's
+ * snapshot as a {@link SnapshotFile} and deletes the snapshots and segments it makes obsolete. On start the latest
+ * snapshot is loaded and only the log written after it is replayed, so recovery time is bounded by the snapshot
+ * interval rather than by the store's history.
+ */
+@Slf4j
+public class DurableEmployeeStore implements EmployeeStore, Closeable {
+
+    private static final String SNAPSHOT_PREFIX = "snapshot-";
+    private static final String SNAPSHOT_SUFFIX = ".rqes";
+    private static final byte ADD = 1;
+    private static final byte REMOVE = 2;
+
+    private final EmployeeStore delegate;
+    private final Path directory;
+    private final WriteAheadLog writeAheadLog;
+    private final int snapshotEvery;
+    private final ReentrantLock writeLock = new ReentrantLock();
+    private final ReentrantLock applyLock = new ReentrantLock();
+    private final Condition applied = applyLock.newCondition();
+    private final AtomicLong lastSnapshot;
+    private final AtomicBoolean snapshotting = new AtomicBoolean();
+    private final ExecutorService snapshotter = Executors.newSingleThreadExecutor(runnable -> {
+        final var thread = new Thread(runnable, "employee-snapshotter");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private long appliedThrough; // guarded by applyLock
+
+    private DurableEmployeeStore(
+            EmployeeStore delegate,
+            Path directory,
+            WriteAheadLog writeAheadLog,
+            int snapshotEvery,
+            long lastSnapshot,
+            long lastSequence) {
+        this.delegate = delegate;
+        this.directory = directory;
+        this.writeAheadLog = writeAheadLog;
+        this.snapshotEvery = snapshotEvery;
+        this.lastSnapshot = new AtomicLong(lastSnapshot);
+        this.appliedThrough = lastSequence;
+    }
+
+    /**
+     * Restores {@code delegate}, which must be empty, from {@code directory}. If the directory holds no snapshot yet,
+     * {@code initialRoster} is loaded instead and becomes the first snapshot.
+     */
+    public static DurableEmployeeStore open(
+            @NonNull EmployeeStore delegate,
+            @NonNull Path directory,
+            @NonNull Supplier<List<MockEmployee>> initialRoster,
+            int snapshotEvery,
+            @NonNull Duration groupCommitWindow) {
+        if (snapshotEvery < 1) {
+            throw new IllegalArgumentException("snapshotEvery must be at least 1");
+        }
+        try {
+            Files.createDirectories(directory);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to create store directory " + directory, e);
+        }
+        final var latest = snapshots(directory).stream().reduce((first, second) -> second);
+        final long snapshotSequence;
+        if (latest.isPresent()) {
+            snapshotSequence = sequenceOf(latest.get());
+            delegate.load(SnapshotFile.read(latest.get()));
+            log.info("Loaded {} employees from {}", delegate.size(), latest.get());
+        } else {
+            snapshotSequence = 0;
+            final var roster = initialRoster.get();
+            delegate.load(roster);
+            WriteAheadLog.clear(directory);
+            SnapshotFile.write(snapshotPath(directory, snapshotSequence), roster);
+        }
+        final var lastSequence = WriteAheadLog.replay(directory, snapshotSequence, record -> apply(delegate, record));
+        log.info("Replayed {} write-ahead log records from {}", lastSequence - snapshotSequence, directory);
+        return new DurableEmployeeStore(
+                delegate,
+                directory,
+                new WriteAheadLog(directory, lastSequence, groupCommitWindow),
+                snapshotEvery,
+                snapshotSequence,
+                lastSequence);
+    }
+
+    @Override
+    public Optional<MockEmployee> findById(@NonNull UUID id) {
+        return delegate.findById(id);
+    }
+
+    @Override
+    public void add(@NonNull MockEmployee employee) {
+        write(adds(List.of(employee)), () -> {
+            delegate.add(employee);
+            return null;
+        });
+    }
+
+    @Override
+    public void addAll(@NonNull List<MockEmployee> employees) {
+        write(adds(employees), () -> {
+            delegate.addAll(employees);
+            return null;
+        });
+    }
+
+    /*
+     * The contents come from the snapshot directory, see open().
+     */
+    @Override
+    public void load(@NonNull List<MockEmployee> employees) {
+        throw new IllegalStateException("Only an empty store can be loaded");
+    }
+
+    @Override
+    public Optional<MockEmployee> removeByName(@NonNull String name) {
+        return write(removes(List.of(name)), () -> delegate.removeByName(name));
+    }
+
+    @Override
+    public List<Optional<MockEmployee>> removeAllByName(@NonNull List<String> names) {
+        return write(removes(names), () -> delegate.removeAllByName(names));
+    }
+
+    @Override
+    public Snapshot snapshot() {
+        return delegate.snapshot();
+    }
+
+    @Override
+    public Optional<ChangeFeed> changesSince(long version) {
+        return delegate.changesSince(version);
+    }
+
+    @Override
+    public long version() {
+        return delegate.version();
+    }
+
+    @Override
+    public Page<MockEmployee> page(long cursor, int limit) {
+        return delegate.page(cursor, limit);
+    }
+
+    @Override
+    public int size() {
+        return delegate.size();
+    }
+
+    /**
+     * Waits for a running snapshot and makes everything written so far durable.
+     */
+    @Override
+    public void close() {
+        snapshotter.shutdown();
+        try {
+            snapshotter.awaitTermination(1, TimeUnit.MINUTES);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        writeAheadLog.close();
+    }
+
+    /*
+     * A write is logged before it is applied, and applied only once durable. The wrapped stores accept every create and
+     * delete, so a logged write never fails on replay. Writers wait for the records before theirs to be applied first,
+     * which is also what makes a delete remove the same employee here as on replay; a write whose record could not be
+     * made durable is not applied, but still passes its turn on. The log cuts such a record off again and refuses every
+     * later one, so neither this store nor a restarted one ever holds the write.
+     */
+    private <T> T write(byte[] record, Supplier<T> apply) {
+        final long sequence;
+        writeLock.lock();
+        try {
+            sequence = writeAheadLog.append(record);
+        } finally {
+            writeLock.unlock();
+        }
+        RuntimeException failure = null;
+        try {
+            writeAheadLog.awaitDurable(sequence);
+        } catch (RuntimeException e) {
+            failure = e;
+        }
+        final T result;
+        applyLock.lock();
+        try {
+            while (appliedThrough < sequence - 1) {
+                applied.awaitUninterruptibly();
+            }
+            result = failure == null ? apply.get() : null;
+        } finally {
+            appliedThrough = sequence;
+            applied.signalAll();
+            applyLock.unlock();
+        }
+        if (failure != null) {
+            throw failure;
+        }
+        if (sequence - lastSnapshot.get() >= snapshotEvery && snapshotting.compareAndSet(false, true)) {
+            snapshotter.execute(this::takeSnapshot);
+        }
+        return result;
+    }
+
+    /*
+     * Called with the write lock held, so once this returns the store holds exactly the records through sequence and no
+     * later one can be appended, let alone applied, until the lock is released.
+     */
+    private void awaitApplied(long sequence) {
+        applyLock.lock();
+        try {
+            while (appliedThrough < sequence) {
+                applied.awaitUninterruptibly();
+            }
+        } finally {
+            applyLock.unlock();
+        }
+    }
+
+    private void takeSnapshot() {
+        try {
+            final long sequence;
+            final Snapshot snapshot;
+            writeLock.lock();
+            try {
+                sequence = writeAheadLog.rotate();
+                awaitApplied(sequence);
+                snapshot = delegate.snapshot();
+            } finally {
+                writeLock.unlock();
+            }
+            SnapshotFile.write(snapshotPath(directory, sequence), snapshot.employees());
+            lastSnapshot.set(sequence);
+            writeAheadLog.truncateThrough(sequence);
+            snapshots(directory).stream()
+                    .filter(path -> sequenceOf(path) < sequence)
+                    .forEach(DurableEmployeeStore::delete);
+            log.info("Wrote snapshot of {} employees through log record {}", snapshot.employees().size(), sequence);
+        } catch (RuntimeException e) {
+            log.error("Failed to snapshot the employee store, keeping the log", e);
+        } finally {
+            snapshotting.set(false);
+        }
+    }
+
+    private static void apply(EmployeeStore store, ByteBuffer record) {
+        final var operation = record.get();
+        final var count = record.getInt();
+        switch (operation) {
+            case ADD -> store.addAll(List.of(SnapshotFile.decode(record, count)));
+            case REMOVE -> {
+                final var names = new ArrayList<String>(count);
+                for (var i = 0; i < count; i++) {
+                    names.add(SnapshotFile.readString(record));
+                }
+                store.removeAllByName(names);
+            }
+            default -> throw new IllegalStateException("Unknown write-ahead log operation " + operation);
+        }
+    }
+
+    private static byte[] adds(List<MockEmployee> employees) {
+        final var bytes = new ByteArrayOutputStream();
+        try (var out = new DataOutputStream(bytes)) {
+            out.writeByte(ADD);
+            out.writeInt(employees.size());
+            out.write(SnapshotFile.encode(employees));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return bytes.toByteArray();
+    }
+
+    private static byte[] removes(List<String> names) {
+        final var bytes = new ByteArrayOutputStream();
+        try (var out = new DataOutputStream(bytes)) {
+            out.writeByte(REMOVE);
+            out.writeInt(names.size());
+            for (final var name : names) {
+                SnapshotFile.writeString(out, name);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return bytes.toByteArray();
+    }
+
+    private static List<Path> snapshots(Path directory) {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(path -> {
+                        final var name = path.getFileName().toString();
+                        return name.startsWith(SNAPSHOT_PREFIX) && name.endsWith(SNAPSHOT_SUFFIX);
+                    })
+                    .sorted()
+                    .toList();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to list snapshots in " + directory, e);
+        }
+    }
+
+    private static Path snapshotPath(Path directory, long sequence) {
+        return directory.resolve(SNAPSHOT_PREFIX + "%020d".formatted(sequence) + SNAPSHOT_SUFFIX);
+    }
+
+    private static long sequenceOf(Path snapshot) {
+        final var name = snapshot.getFileName().toString();
+        return Long.parseLong(name.substring(SNAPSHOT_PREFIX.length(), name.length() - SNAPSHOT_SUFFIX.length()));
+    }
+
+    private static void delete(Path path) {
+        try {
+            Files.deleteIfExists(path);
+        } catch (IOException e) {
+            log.warn("Failed to delete snapshot {}", path, e);
+        }
+    }
+}
@@ -0,0 +1,69 @@
+package com.reliaquest.server.store;
+
+import com.reliaquest.server.model.ChangeFeed;
+import com.reliaquest.server.model.MockEmployee;
+import com.reliaquest.server.model.Page;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Thread-safe storage for the mock server's employees.
+ */
+public interface EmployeeStore {
+
+    Optional<MockEmployee> findById(UUID id);
+
+    void add(MockEmployee employee);
+
+    /**
+     * Fills an empty store with {@code employees}, in order. Unlike {@link #addAll(List)} no changes are recorded: the
+     * loaded roster is where the change feed starts.
+     *
+     * @throws IllegalStateException if the store is not empty
+     */
+    void load(List<MockEmployee> employees);
+
+    /**
+     * Adds all employees as one write: a snapshot or change feed contains either all of them or none.
+     */
+    void addAll(List<MockEmployee> employees);
+
+    /**
+     * Removes the earliest added employee whose name equals {@code name}, ignoring case.
+     *
+     * @return the removed employee, or empty if no employee has that name
+     */
+    Optional<MockEmployee> removeByName(String name);
+
+    /**
+     * Applies {@link #removeByName(String)} to each name in order, as one write like {@link #addAll(List)}.
+     *
+     * @return the outcome for each name, in the same order
+     */
+    List<Optional<MockEmployee>> removeAllByName(List<String> names);
+
+    /**
+     * @return immutable, consistent copy of all employees in insertion order
+     */
+    Snapshot snapshot();
+
+    /**
+     * @param version a {@link Snapshot#version()} or {@link ChangeFeed#version()} obtained earlier
+     * @return every change made after {@code version}, or empty if the store no longer retains all of them
+     */
+    Optional<ChangeFeed> changesSince(long version);
+
+    /**
+     * @return the current version, incremented by every write
+     */
+    long version();
+
+    /**
+     * @param cursor {@code 0} for the first page, otherwise the {@link Page#nextCursor()} of the previous page
+     * @return up to {@code limit} employees in insertion order, starting at {@code cursor}
+     */
+    Page<MockEmployee> page(long cursor, int limit);
+
+    int size();
+}
@@ -0,0 +1,89 @@
+package com.reliaquest.server.store;
+
+import java.util.Arrays;
+
+/**
+ * Hash index from a 32-bit key hash to the rows added under it, in the order they were added, without boxing.
+ *
+ * <p>Slots are open-addressed by hash and point at the first and last row of a chain; each row links to the next
+ * row with the same hash. Callers walk a chain and compare the actual key themselves, since distinct keys may share a
+ * hash. Rows are never unlinked, so callers also skip rows they have since deleted. Not thread-safe.
+ */
+final class RowChains {
+
+    static final int END = -1;
+
+    private int[] hashes = new int[16];
+    private int[] heads = new int[16]; // first row + 1, so 0 marks an empty slot
+    private int[] tails = new int[16];
+    private int[] next = new int[16];
+    private int used;
+
+    void ensureRows(int capacity) {
+        if (capacity > next.length) {
+            next = Arrays.copyOf(next, Math.max(capacity, next.length + (next.length >> 1)));
+        }
+    }
+
+    void add(int hash, int row) {
+        ensureRows(row + 1);
+        next[row] = END;
+        final var slot = slot(hash);
+        if (heads[slot] == 0) {
+            hashes[slot] = hash;
+            heads[slot] = row + 1;
+            tails[slot] = row + 1;
+            if (++used * 4L > heads.length * 3L) {
+                rehash();
+            }
+        } else {
+            next[tails[slot] - 1] = row;
+            tails[slot] = row + 1;
+        }
+    }
+
+    /**
+     * @return the first row added under {@code hash}, or {@link #END}
+     */
+    int first(int hash) {
+        return heads[slot(hash)] - 1;
+    }
+
+    /**
+     * @return the row added under the same hash after {@code row}, or {@link #END}
+     */
+    int next(int row) {
+        return next[row];
+    }
+
+    private int slot(int hash) {
+        final var mask = heads.length - 1;
+        var slot = mix(hash) & mask;
+        while (heads[slot] != 0 && hashes[slot] != hash) {
+            slot = (slot + 1) & mask;
+        }
+        return slot;
+    }
+
+    private void rehash() {
+        final var oldHashes = hashes;
+        final var oldHeads = heads;
+        final var oldTails = tails;
+        hashes = new int[oldHeads.length * 2];
+        heads = new int[oldHeads.length * 2];
+        tails = new int[oldHeads.length * 2];
+        for (var i = 0; i < oldHeads.length; i++) {
+            if (oldHeads[i] != 0) {
+                final var slot = slot(oldHashes[i]);
+                hashes[slot] = oldHashes[i];
+                heads[slot] = oldHeads[i];
+                tails[slot] = oldTails[i];
+            }
+        }
+    }
+
+    private static int mix(int hash) {
+        final var h = hash * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+}
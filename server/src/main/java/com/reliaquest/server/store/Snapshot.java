@@ -0,0 +1,9 @@
+package com.reliaquest.server.store;
+
+import com.reliaquest.server.model.MockEmployee;
+import java.util.List;
+
+/**
+ * Immutable copy of every employee in insertion order, together with the store version it reflects.
+ */
+public record Snapshot(long version, List<MockEmployee> employees) {}
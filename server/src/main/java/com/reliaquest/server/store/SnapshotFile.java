@@ -0,0 +1,243 @@
+package com.reliaquest.server.store;
+
+import com.reliaquest.server.model.MockEmployee;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.AbstractList;
+import java.util.List;
+import java.util.Objects;
+import java.util.RandomAccess;
+import java.util.UUID;
+import java.util.stream.IntStream;
+
+/**
+ * Compact binary file holding a list of employees, read back through memory-mapped I/O.
+ *
+ * <p>Layout, big-endian: a header ({@code magic, format, count, chunkSize, chunkCount}), the absolute file offset of
+ * each chunk, then the chunks themselves. A chunk holds {@code chunkSize} employees (fewer in the last one), each as
+ * its UUID's two longs, salary, age, and name, title and email as length-prefixed UTF-8. The offsets let chunks be
+ * encoded and decoded in parallel, each through its own mapping, so files larger than 2GB are fine too.
+ *
+ * <p>A snapshot is read back as a lazy list, like {@code EmployeeGenerator}'s rosters: only where each employee starts
+ * is kept in memory, and an employee is decoded from the mapping whenever it is read. A store loading the list so
+ * builds no more employees at once than it holds as objects anyway, rather than the whole roster first.
+ */
+public final class SnapshotFile {
+
+    private static final int MAGIC = 0x52514553; // "RQES"
+    private static final int FORMAT = 1;
+    private static final int CHUNK_SIZE = 8192;
+    private static final int HEADER_BYTES = 5 * Integer.BYTES;
+    private static final int NULL_INT = Integer.MIN_VALUE;
+    private static final int NULL_STRING = -1;
+
+    private SnapshotFile() {}
+
+    /**
+     * Writes {@code employees} to {@code path}, replacing it atomically once complete. When this returns, the new file
+     * and its name are on disk, so whatever the snapshot supersedes may be deleted.
+     */
+    public static void write(Path path, List<MockEmployee> employees) {
+        final var chunkCount = (employees.size() + CHUNK_SIZE - 1) / CHUNK_SIZE;
+        final var chunks = IntStream.range(0, chunkCount)
+                .parallel()
+                .mapToObj(chunk -> encode(
+                        employees.subList(chunk * CHUNK_SIZE, Math.min((chunk + 1) * CHUNK_SIZE, employees.size()))))
+                .toList();
+        try {
+            final var directory = path.toAbsolutePath().getParent();
+            Files.createDirectories(directory);
+            final var temporary = Files.createTempFile(directory, path.getFileName().toString(), ".tmp");
+            try (var channel = FileChannel.open(temporary, StandardOpenOption.WRITE);
+                    var out = new DataOutputStream(new BufferedOutputStream(Channels.newOutputStream(channel)))) {
+                out.writeInt(MAGIC);
+                out.writeInt(FORMAT);
+                out.writeInt(employees.size());
+                out.writeInt(CHUNK_SIZE);
+                out.writeInt(chunkCount);
+                var offset = (long) HEADER_BYTES + (long) chunkCount * Long.BYTES;
+                for (final var chunk : chunks) {
+                    out.writeLong(offset);
+                    offset += chunk.length;
+                }
+                for (final var chunk : chunks) {
+                    out.write(chunk);
+                }
+                out.flush();
+                channel.force(true);
+            }
+            Files.move(temporary, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            forceDirectory(directory);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to write employee snapshot " + path, e);
+        }
+    }
+
+    /**
+     * @return an immutable view of the employees in {@code path}, in the order they were written, each decoded on
+     *     access; the file must not be changed while the view is in use
+     */
+    public static List<MockEmployee> read(Path path) {
+        try (var channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            final var header = channel.map(FileChannel.MapMode.READ_ONLY, 0, HEADER_BYTES);
+            if (header.getInt() != MAGIC || header.getInt() != FORMAT) {
+                throw new IOException("Not an employee snapshot of format " + FORMAT);
+            }
+            final var count = header.getInt();
+            final var chunkSize = header.getInt();
+            final var chunkCount = header.getInt();
+            final var offsets = new long[chunkCount + 1];
+            channel.map(FileChannel.MapMode.READ_ONLY, HEADER_BYTES, (long) chunkCount * Long.BYTES)
+                    .asLongBuffer()
+                    .get(offsets, 0, chunkCount);
+            offsets[chunkCount] = channel.size();
+            // Mappings stay valid once the channel is closed.
+            final var chunks = new ByteBuffer[chunkCount];
+            final var positions = new int[count];
+            IntStream.range(0, chunkCount).parallel().forEach(chunk -> {
+                chunks[chunk] = map(channel, offsets[chunk], offsets[chunk + 1]);
+                final var first = chunk * chunkSize;
+                index(chunks[chunk].duplicate(), positions, first, Math.min(chunkSize, count - first));
+            });
+            return new MappedRoster(chunks, positions, chunkSize);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to read employee snapshot " + path, e);
+        }
+    }
+
+    /*
+     * The helpers below also encode DurableEmployeeStore's log records.
+     */
+    static byte[] encode(List<MockEmployee> employees) {
+        final var bytes = new ByteArrayOutputStream(employees.size() * 96);
+        try (var out = new DataOutputStream(bytes)) {
+            for (final var employee : employees) {
+                out.writeLong(employee.getId().getMostSignificantBits());
+                out.writeLong(employee.getId().getLeastSignificantBits());
+                out.writeInt(employee.getSalary() != null ? employee.getSalary() : NULL_INT);
+                out.writeInt(employee.getAge() != null ? employee.getAge() : NULL_INT);
+                writeString(out, employee.getName());
+                writeString(out, employee.getTitle());
+                writeString(out, employee.getEmail());
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return bytes.toByteArray();
+    }
+
+    static MockEmployee[] decode(ByteBuffer buffer, int size) {
+        final var employees = new MockEmployee[size];
+        for (var i = 0; i < size; i++) {
+            employees[i] = decode(buffer);
+        }
+        return employees;
+    }
+
+    private static MockEmployee decode(ByteBuffer buffer) {
+        final var id = new UUID(buffer.getLong(), buffer.getLong());
+        final var salary = buffer.getInt();
+        final var age = buffer.getInt();
+        return new MockEmployee(
+                id,
+                readString(buffer),
+                salary != NULL_INT ? salary : null,
+                age != NULL_INT ? age : null,
+                readString(buffer),
+                readString(buffer));
+    }
+
+    /*
+     * Records where each of the chunk's employees starts, skipping over the fields without decoding them.
+     */
+    private static void index(ByteBuffer chunk, int[] positions, int first, int size) {
+        for (var i = 0; i < size; i++) {
+            positions[first + i] = chunk.position();
+            chunk.position(chunk.position() + 2 * Long.BYTES + 2 * Integer.BYTES);
+            for (var field = 0; field < 3; field++) {
+                final var length = chunk.getInt();
+                if (length != NULL_STRING) {
+                    chunk.position(chunk.position() + length);
+                }
+            }
+        }
+    }
+
+    /*
+     * Makes files created in or renamed into the directory durable. Some platforms, Windows among them, cannot open a
+     * directory for this; there the rename is left to the file system.
+     */
+    static void forceDirectory(Path directory) {
+        try (var channel = FileChannel.open(directory, StandardOpenOption.READ)) {
+            channel.force(true);
+        } catch (IOException e) {
+            // not supported here
+        }
+    }
+
+    private static ByteBuffer map(FileChannel channel, long from, long to) {
+        try {
+            return channel.map(FileChannel.MapMode.READ_ONLY, from, to - from);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    static void writeString(DataOutputStream out, String value) throws IOException {
+        if (value == null) {
+            out.writeInt(NULL_STRING);
+            return;
+        }
+        final var bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    static String readString(ByteBuffer buffer) {
+        final var length = buffer.getInt();
+        if (length == NULL_STRING) {
+            return null;
+        }
+        final var bytes = new byte[length];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static final class MappedRoster extends AbstractList<MockEmployee> implements RandomAccess {
+
+        private final ByteBuffer[] chunks;
+        private final int[] positions;
+        private final int chunkSize;
+
+        MappedRoster(ByteBuffer[] chunks, int[] positions, int chunkSize) {
+            this.chunks = chunks;
+            this.positions = positions;
+            this.chunkSize = chunkSize;
+        }
+
+        /*
+         * Each read decodes from a duplicate, so concurrent readers do not move each other's position.
+         */
+        @Override
+        public MockEmployee get(int index) {
+            Objects.checkIndex(index, positions.length);
+            return decode(chunks[index / chunkSize].duplicate().position(positions[index]));
+        }
+
+        @Override
+        public int size() {
+            return positions.length;
+        }
+    }
+}
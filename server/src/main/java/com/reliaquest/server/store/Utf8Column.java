@@ -0,0 +1,79 @@
+package com.reliaquest.server.store;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * String column that keeps values as length-prefixed UTF-8 in large shared byte pages instead of one {@link String}
+ * object per row. Values are append-only: a row's bytes never move or change, so a {@link View} taken earlier keeps
+ * reading the rows it covers while later rows are appended. Not thread-safe.
+ */
+final class Utf8Column {
+
+    private static final int PAGE_SIZE = 1 << 20;
+    private static final long NULL_REF = -1;
+
+    private byte[][] pages = new byte[4][];
+    private int pageCount;
+    private int pagePosition;
+    private long[] refs; // page index in the high half, offset in the page in the low half
+
+    Utf8Column(int capacity) {
+        this.refs = new long[capacity];
+    }
+
+    void ensureCapacity(int capacity) {
+        if (capacity > refs.length) {
+            refs = Arrays.copyOf(refs, capacity);
+        }
+    }
+
+    void set(int row, String value) {
+        if (value == null) {
+            refs[row] = NULL_REF;
+            return;
+        }
+        final var bytes = value.getBytes(StandardCharsets.UTF_8);
+        final var needed = Integer.BYTES + bytes.length;
+        if (pageCount == 0 || pagePosition + needed > pages[pageCount - 1].length) {
+            addPage(Math.max(PAGE_SIZE, needed));
+        }
+        final var page = pages[pageCount - 1];
+        page[pagePosition] = (byte) (bytes.length >>> 24);
+        page[pagePosition + 1] = (byte) (bytes.length >>> 16);
+        page[pagePosition + 2] = (byte) (bytes.length >>> 8);
+        page[pagePosition + 3] = (byte) bytes.length;
+        System.arraycopy(bytes, 0, page, pagePosition + Integer.BYTES, bytes.length);
+        refs[row] = ((long) (pageCount - 1) << 32) | pagePosition;
+        pagePosition += needed;
+    }
+
+    View view() {
+        return new View(pages, refs);
+    }
+
+    private void addPage(int size) {
+        if (pageCount == pages.length) {
+            pages = Arrays.copyOf(pages, pages.length * 2);
+        }
+        pages[pageCount++] = new byte[size];
+        pagePosition = 0;
+    }
+
+    record View(byte[][] pages, long[] refs) {
+
+        String get(int row) {
+            final var ref = refs[row];
+            if (ref == NULL_REF) {
+                return null;
+            }
+            final var page = pages[(int) (ref >>> 32)];
+            final var position = (int) ref;
+            final var length = ((page[position] & 0xFF) << 24)
+                    | ((page[position + 1] & 0xFF) << 16)
+                    | ((page[position + 2] & 0xFF) << 8)
+                    | (page[position + 3] & 0xFF);
+            return new String(page, position + Integer.BYTES, length, StandardCharsets.UTF_8);
+        }
+    }
+}
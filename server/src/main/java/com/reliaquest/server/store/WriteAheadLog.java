@@ -0,0 +1,406 @@
+package com.reliaquest.server.store;
+
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Append-only log of opaque records, split into segment files named after the sequence number of their first record.
+ *
+ * <p>Records are numbered consecutively from {@code 1}. Each is framed as {@code length, crc32, sequence, payload};
+ * a frame that is cut short or fails its checksum, as a crash in the middle of a write leaves it, ends the log.
+ *
+ * <p>Appending only buffers a record. A single flusher thread writes whatever has been buffered and forces it to disk
+ * with one {@code fsync}, so writers arriving while a flush is in progress, or within {@code groupCommitWindow} of
+ * the first one, share the next flush instead of paying for one each.
+ *
+ * <p>A flush that fails leaves the log unusable. Its records were never reported durable, so whatever part of them
+ * reached the segment is cut off again; otherwise a restart would replay writes their callers were told had failed.
+ */
+@Slf4j
+final class WriteAheadLog implements Closeable {
+
+    private static final String SEGMENT_PREFIX = "wal-";
+    private static final String SEGMENT_SUFFIX = ".log";
+    private static final int FRAME_HEADER_BYTES = Integer.BYTES + Integer.BYTES + Long.BYTES;
+
+    private final Path directory;
+    private final Duration groupCommitWindow;
+    private final SegmentOpener segmentOpener;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition pending = lock.newCondition();
+    private final Condition flushed = lock.newCondition();
+    private final Thread flusher;
+
+    private ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+    private FileChannel segment;
+    private long segmentStart;
+    private long lastAppended;
+    private long durableThrough;
+    private IOException failure;
+    private boolean closed;
+
+    /**
+     * Opens a new segment whose first record will get {@code lastSequence + 1}.
+     */
+    WriteAheadLog(Path directory, long lastSequence, Duration groupCommitWindow) {
+        this(directory, lastSequence, groupCommitWindow, path -> FileChannel.open(
+                path, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING));
+    }
+
+    WriteAheadLog(Path directory, long lastSequence, Duration groupCommitWindow, SegmentOpener segmentOpener) {
+        this.directory = directory;
+        this.groupCommitWindow = groupCommitWindow;
+        this.segmentOpener = segmentOpener;
+        this.lastAppended = lastSequence;
+        this.durableThrough = lastSequence;
+        this.segment = openSegment(lastSequence + 1);
+        this.segmentStart = lastSequence + 1;
+        this.flusher = new Thread(this::flushLoop, "employee-wal-flusher");
+        flusher.setDaemon(true);
+        flusher.start();
+    }
+
+    /**
+     * Passes the payload of every intact record after {@code afterSequence} to {@code replay}, in order. Anything past
+     * the first damaged record is deleted, so the log can be continued from the returned sequence.
+     *
+     * @return the sequence number of the last record in the log, or {@code afterSequence} if there is none after it
+     */
+    static long replay(Path directory, long afterSequence, Consumer<ByteBuffer> replay) {
+        var last = afterSequence;
+        var damaged = false;
+        for (final var path : segments(directory)) {
+            if (damaged) {
+                delete(path);
+                continue;
+            }
+            try (var channel = FileChannel.open(path, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+                final var bytes = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+                while (bytes.remaining() > 0) {
+                    final var start = bytes.position();
+                    final var sequence = readFrame(bytes);
+                    if (sequence < 0 || (sequence > afterSequence && sequence != last + 1)) {
+                        log.warn("Write-ahead log {} is damaged at byte {}, discarding the rest", path, start);
+                        channel.truncate(start);
+                        damaged = true;
+                        break;
+                    }
+                    if (sequence > afterSequence) {
+                        final var payload = start + FRAME_HEADER_BYTES;
+                        replay.accept(bytes.slice(payload, bytes.position() - payload));
+                        last = sequence;
+                    }
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException("Failed to replay write-ahead log " + path, e);
+            }
+        }
+        return last;
+    }
+
+    /**
+     * Deletes every segment in {@code directory}, e.g. before starting over from a new roster.
+     */
+    static void clear(Path directory) {
+        segments(directory).forEach(WriteAheadLog::delete);
+    }
+
+    /**
+     * Buffers {@code payload} as the next record. Callers that need the log to reflect their own order of writes must
+     * serialize their calls.
+     *
+     * @return the record's sequence number, to pass to {@link #awaitDurable(long)}
+     */
+    long append(byte[] payload) {
+        final var crc = new CRC32();
+        lock.lock();
+        try {
+            checkUsable();
+            final var sequence = ++lastAppended;
+            crc.update(ByteBuffer.allocate(Long.BYTES).putLong(0, sequence));
+            crc.update(payload);
+            final var out = new DataOutputStream(buffer);
+            out.writeInt(payload.length);
+            out.writeInt((int) crc.getValue());
+            out.writeLong(sequence);
+            out.write(payload);
+            pending.signal();
+            return sequence;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Blocks until the record {@code sequence} and every record before it is on disk.
+     *
+     * @throws UncheckedIOException if the log could not be written
+     */
+    void awaitDurable(long sequence) {
+        lock.lock();
+        try {
+            while (durableThrough < sequence) {
+                checkUsable();
+                flushed.awaitUninterruptibly();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Starts a new segment after everything appended so far is on disk. Callers must not append concurrently.
+     *
+     * @return the sequence number of the last record in the previous segments
+     */
+    long rotate() {
+        final long last;
+        lock.lock();
+        try {
+            last = lastAppended;
+        } finally {
+            lock.unlock();
+        }
+        awaitDurable(last);
+        lock.lock();
+        try {
+            close(segment);
+            segment = openSegment(last + 1);
+            segmentStart = last + 1;
+            return last;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Deletes the segments holding only records up to {@code sequence}, e.g. once a snapshot covers them.
+     */
+    void truncateThrough(long sequence) {
+        final long current;
+        lock.lock();
+        try {
+            current = segmentStart;
+        } finally {
+            lock.unlock();
+        }
+        final var segments = segments(directory);
+        for (var i = 0; i < segments.size(); i++) {
+            final var next = i + 1 < segments.size() ? firstSequence(segments.get(i + 1)) : Long.MAX_VALUE;
+            if (firstSequence(segments.get(i)) < current && next <= sequence + 1) {
+                delete(segments.get(i));
+            }
+        }
+    }
+
+    /**
+     * Flushes what is buffered and stops the flusher.
+     */
+    @Override
+    public void close() {
+        lock.lock();
+        try {
+            closed = true;
+            pending.signal();
+        } finally {
+            lock.unlock();
+        }
+        try {
+            flusher.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        close(segment);
+    }
+
+    private void flushLoop() {
+        while (true) {
+            final byte[] bytes;
+            final long through;
+            final FileChannel channel;
+            lock.lock();
+            try {
+                while (buffer.size() == 0 && !closed) {
+                    pending.awaitUninterruptibly();
+                }
+                if (buffer.size() == 0) {
+                    return;
+                }
+            } finally {
+                lock.unlock();
+            }
+            lingerForGroupCommit();
+            lock.lock();
+            try {
+                bytes = buffer.toByteArray();
+                buffer = new ByteArrayOutputStream(Math.max(32, bytes.length));
+                through = lastAppended;
+                channel = segment;
+            } finally {
+                lock.unlock();
+            }
+            long durableLength = -1;
+            try {
+                durableLength = channel.position();
+                final var out = ByteBuffer.wrap(bytes);
+                while (out.hasRemaining()) {
+                    channel.write(out);
+                }
+                channel.force(false);
+            } catch (IOException e) {
+                log.error("Failed to write the write-ahead log, rejecting further writes", e);
+                discardFailedFlush(channel, durableLength);
+                lock.lock();
+                try {
+                    failure = e;
+                    flushed.signalAll();
+                } finally {
+                    lock.unlock();
+                }
+                return;
+            }
+            lock.lock();
+            try {
+                durableThrough = through;
+                flushed.signalAll();
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+
+    /*
+     * Everything before durableLength was forced by earlier flushes; everything after it belongs to the failed one.
+     * If even that cannot be cut off, nothing more can be done, but it is worth saying.
+     */
+    private void discardFailedFlush(FileChannel channel, long durableLength) {
+        try {
+            if (durableLength < 0) {
+                throw new IOException("The segment's length is unknown");
+            }
+            channel.truncate(durableLength);
+            channel.force(true);
+        } catch (IOException e) {
+            log.error("Failed to discard the failed write-ahead log records, they may be replayed on restart", e);
+        }
+    }
+
+    /*
+     * Gives writers that arrive shortly after the first one a chance to share its fsync.
+     */
+    private void lingerForGroupCommit() {
+        if (groupCommitWindow.isZero()) {
+            return;
+        }
+        try {
+            TimeUnit.NANOSECONDS.sleep(groupCommitWindow.toNanos());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void checkUsable() {
+        if (failure != null) {
+            throw new UncheckedIOException("Write-ahead log is unusable", failure);
+        }
+        if (closed) {
+            throw new IllegalStateException("Write-ahead log is closed");
+        }
+    }
+
+    private FileChannel openSegment(long firstSequence) {
+        final var path = directory.resolve(SEGMENT_PREFIX + "%020d".formatted(firstSequence) + SEGMENT_SUFFIX);
+        try {
+            final var channel = segmentOpener.open(path);
+            SnapshotFile.forceDirectory(directory);
+            return channel;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to open write-ahead log segment " + path, e);
+        }
+    }
+
+    /*
+     * Leaves the buffer positioned after the frame and returns its sequence number, or -1 if the frame is damaged.
+     */
+    private static long readFrame(ByteBuffer bytes) {
+        if (bytes.remaining() < FRAME_HEADER_BYTES) {
+            return -1;
+        }
+        final var length = bytes.getInt();
+        final var checksum = bytes.getInt();
+        final var sequence = bytes.getLong();
+        if (length < 0 || length > bytes.remaining()) {
+            return -1;
+        }
+        final var crc = new CRC32();
+        crc.update(ByteBuffer.allocate(Long.BYTES).putLong(0, sequence));
+        crc.update(bytes.slice(bytes.position(), length));
+        if ((int) crc.getValue() != checksum) {
+            return -1;
+        }
+        bytes.position(bytes.position() + length);
+        return sequence;
+    }
+
+    private static List<Path> segments(Path directory) {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(path -> {
+                        final var name = path.getFileName().toString();
+                        return name.startsWith(SEGMENT_PREFIX) && name.endsWith(SEGMENT_SUFFIX);
+                    })
+                    .sorted()
+                    .toList();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to list write-ahead log segments in " + directory, e);
+        }
+    }
+
+    private static long firstSequence(Path segment) {
+        final var name = segment.getFileName().toString();
+        return Long.parseLong(name.substring(SEGMENT_PREFIX.length(), name.length() - SEGMENT_SUFFIX.length()));
+    }
+
+    private static void delete(Path path) {
+        try {
+            Files.deleteIfExists(path);
+        } catch (IOException e) {
+            log.warn("Failed to delete write-ahead log segment {}", path, e);
+        }
+    }
+
+    private static void close(FileChannel channel) {
+        try {
+            channel.close();
+        } catch (IOException e) {
+            log.warn("Failed to close write-ahead log segment", e);
+        }
+    }
+
+    /**
+     * Opens a new segment file for writing, emptying it if it exists.
+     */
+    @FunctionalInterface
+    interface SegmentOpener {
+
+        FileChannel open(Path path) throws IOException;
+    }
+}
@@ -0,0 +1,40 @@
+package com.reliaquest.server.web;
+
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+
+/**
+ * Picks the format of a response for the handlers that offer several. Two handlers for one path that differ only in
+ * what they produce are ambiguous to Spring MVC when the client accepts both, so those handlers choose here instead,
+ * and RosterETag makes the same choice when it decides whether a request will be answered with 304.
+ */
+public final class ContentNegotiation {
+
+    public static final String APPLICATION_SMILE_VALUE = "application/x-jackson-smile";
+    public static final MediaType APPLICATION_SMILE = MediaType.valueOf(APPLICATION_SMILE_VALUE);
+
+    private ContentNegotiation() {}
+
+    /**
+     * @return the first offered type with the highest quality in the Accept header, or the first offered type when
+     *     nothing more specific is asked for
+     */
+    public static MediaType negotiate(HttpServletRequest request, MediaType... offered) {
+        final var accept = request.getHeader(HttpHeaders.ACCEPT);
+        var chosen = offered[0];
+        if (accept == null) {
+            return chosen;
+        }
+        var best = 0.0;
+        for (final var accepted : MediaType.parseMediaTypes(accept)) {
+            for (final var candidate : offered) {
+                if (accepted.includes(candidate) && accepted.getQualityValue() > best) {
+                    best = accepted.getQualityValue();
+                    chosen = candidate;
+                }
+            }
+        }
+        return chosen;
+    }
+}
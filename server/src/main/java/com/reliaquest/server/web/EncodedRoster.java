@@ -0,0 +1,107 @@
+package com.reliaquest.server.web;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.reliaquest.server.model.Response;
+import com.reliaquest.server.store.Snapshot;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Optional;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.zip.GZIPOutputStream;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * The {@code GET /api/v1/employee} response body, serialized once per roster version and kept both as is and gzipped,
+ * so reads between writes cost a copy of bytes instead of serializing and compressing the whole roster again.
+ *
+ * <p>Keeping both copies holds the roster in memory twice over, so only rosters of at most
+ * {@code mock.roster.pre-encode-max-employees} employees are encoded; larger ones are left to be streamed through the
+ * message converter on every read.
+ *
+ * <p>Every create or delete moves the store to a new version, so a body is stale as soon as a snapshot with another
+ * version is asked for; it is then encoded again on that first read rather than on every write. Only one request
+ * encodes a given version while the others wait for it. Encodings are counted as {@code mock.roster.encodings}.
+ */
+@Component
+public class EncodedRoster {
+
+    private final ObjectMapper objectMapper;
+    private final Counter encodings;
+    private final int maxEmployees;
+    private final ReentrantLock encodeLock = new ReentrantLock();
+    private volatile Body current;
+
+    public EncodedRoster(
+            ObjectMapper objectMapper,
+            MeterRegistry meterRegistry,
+            @Value("${mock.roster.pre-encode-max-employees:10000}") int maxEmployees) {
+        this.objectMapper = objectMapper;
+        this.maxEmployees = maxEmployees;
+        this.encodings = Counter.builder("mock.roster.encodings")
+                .description("Times the roster response body was serialized and compressed")
+                .register(meterRegistry);
+    }
+
+    /**
+     * @return the body of {@code snapshot}'s roster, encoded now if it was not already, or empty if the roster is too
+     *     large to be kept encoded
+     */
+    public Optional<Body> of(Snapshot snapshot) {
+        final var cached = current;
+        if (cached != null && cached.version() == snapshot.version()) {
+            return Optional.of(cached);
+        }
+        encodeLock.lock();
+        try {
+            final var latest = current;
+            if (latest != null && latest.version() == snapshot.version()) {
+                return Optional.of(latest);
+            }
+            if (!keeps(snapshot)) {
+                // The body of an older, smaller roster would only hold on to memory until the roster shrinks again.
+                if (latest != null && latest.version() < snapshot.version()) {
+                    current = null;
+                }
+                return Optional.empty();
+            }
+            final var encoded = encode(snapshot);
+            // A reader holding an older snapshot must not replace a newer body.
+            if (latest == null || latest.version() < snapshot.version()) {
+                current = encoded;
+            }
+            return Optional.of(encoded);
+        } finally {
+            encodeLock.unlock();
+        }
+    }
+
+    /**
+     * @return whether {@code snapshot}'s roster is small enough to be kept encoded
+     */
+    public boolean keeps(Snapshot snapshot) {
+        return snapshot.employees().size() <= maxEmployees;
+    }
+
+    private Body encode(Snapshot snapshot) {
+        try {
+            final var raw = objectMapper.writeValueAsBytes(Response.handledWith(snapshot.employees()));
+            final var compressed = new ByteArrayOutputStream(raw.length / 4);
+            try (var gzip = new GZIPOutputStream(compressed)) {
+                gzip.write(raw);
+            }
+            encodings.increment();
+            return new Body(snapshot.version(), raw, compressed.toByteArray());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * One version of the roster body. The arrays are shared by every response and must not be modified.
+     */
+    public record Body(long version, byte[] raw, byte[] gzip) {}
+}
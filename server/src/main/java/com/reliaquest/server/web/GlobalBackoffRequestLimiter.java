@@ -0,0 +1,81 @@
+package com.reliaquest.server.web;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.SplittableRandom;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.LongSupplier;
+
+/**
+ * The mock server's original rate limit, shared by all clients: after {@code limit} requests every request is refused
+ * until {@code backoff} has passed since the last one let through, and then counting starts over.
+ *
+ * <p>The count and the time of the last request are replaced together with a compare-and-set, so concurrent requests
+ * can neither both take the last slot nor lose each other's updates.
+ */
+public class GlobalBackoffRequestLimiter implements RequestLimiter {
+
+    private final int limit;
+    private final long backoffNanos;
+    private final LongSupplier nanoClock;
+    private final AtomicReference<Window> window;
+
+    public GlobalBackoffRequestLimiter(int limit, Duration backoff) {
+        this(limit, backoff, System::nanoTime);
+    }
+
+    GlobalBackoffRequestLimiter(int limit, Duration backoff, LongSupplier nanoClock) {
+        if (limit < 1) {
+            throw new IllegalArgumentException("limit must be at least 1");
+        }
+        this.limit = limit;
+        this.backoffNanos = backoff.toNanos();
+        this.nanoClock = nanoClock;
+        this.window = new AtomicReference<>(new Window(0, nanoClock.getAsLong()));
+    }
+
+    /**
+     * Draws the limit (5 to 9 requests) and the backoff (30 to 89 seconds) from {@code seed} the way the server always
+     * has, so the same seed always gives the same limit.
+     */
+    public static GlobalBackoffRequestLimiter seeded(long seed) {
+        final var random = new SplittableRandom(seed);
+        return new GlobalBackoffRequestLimiter(random.nextInt(5, 10), Duration.ofSeconds(random.nextInt(30, 90)));
+    }
+
+    public int limit() {
+        return limit;
+    }
+
+    public Duration backoff() {
+        return Duration.ofNanos(backoffNanos);
+    }
+
+    @Override
+    public Optional<Duration> tryAcquire(String client) {
+        while (true) {
+            final var current = window.get();
+            final var now = nanoClock.getAsLong();
+            final Window next;
+            if (current.count() < limit) {
+                next = new Window(current.count() + 1, now);
+            } else if (now - current.lastRequested() < backoffNanos) {
+                return Optional.of(Duration.ofNanos(current.lastRequested() + backoffNanos - now));
+            } else {
+                // The request that ends the backoff starts the next window without counting towards it.
+                next = new Window(0, now);
+            }
+            if (window.compareAndSet(current, next)) {
+                return Optional.empty();
+            }
+        }
+    }
+
+    @Override
+    public int limitedClients() {
+        final var current = window.get();
+        return current.count() >= limit && nanoClock.getAsLong() - current.lastRequested() < backoffNanos ? 1 : 0;
+    }
+
+    private record Window(int count, long lastRequested) {}
+}
@@ -0,0 +1,71 @@
+package com.reliaquest.server.web;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import java.time.Duration;
+import java.util.function.Predicate;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+/**
+ * Simulates an upstream rate limit by refusing what the {@link RequestLimiter} refuses with {@code 429} and a
+ * {@code Retry-After}. Requests matching {@code exempt} neither count towards nor are refused by the limit.
+ *
+ * <p>Clients are told apart by the {@code clientHeader} request header, or by their address if they do not send it.
+ * Refused requests are counted as {@code mock.requests.rejected}, and {@code mock.requests.limited} is the number of
+ * clients currently being refused.
+ */
+public class RequestLimitInterceptor implements HandlerInterceptor {
+
+    private final RequestLimiter limiter;
+    private final String clientHeader;
+    private final Predicate<HttpServletRequest> exempt;
+    private final Counter rejected;
+
+    public RequestLimitInterceptor(
+            RequestLimiter limiter,
+            String clientHeader,
+            Predicate<HttpServletRequest> exempt,
+            MeterRegistry meterRegistry) {
+        this.limiter = limiter;
+        this.clientHeader = clientHeader;
+        this.exempt = exempt;
+        this.rejected = Counter.builder("mock.requests.rejected")
+                .description("Requests refused with 429 by the simulated rate limit")
+                .register(meterRegistry);
+        Gauge.builder("mock.requests.limited", limiter, RequestLimiter::limitedClients)
+                .description("Clients the simulated rate limit is currently refusing")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (exempt.test(request)) {
+            return true;
+        }
+        final var refusal = limiter.tryAcquire(client(request));
+        if (refusal.isEmpty()) {
+            return true;
+        }
+        response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfterSeconds(refusal.get())));
+        rejected.increment();
+        return false;
+    }
+
+    private String client(HttpServletRequest request) {
+        final var client = request.getHeader(clientHeader);
+        return client != null && !client.isBlank() ? client : request.getRemoteAddr();
+    }
+
+    /*
+     * Whole seconds, rounded up so a client honouring it never retries early.
+     */
+    private static long retryAfterSeconds(Duration remaining) {
+        return Math.max(1, remaining.plusNanos(999_999_999).toSeconds());
+    }
+}
@@ -0,0 +1,40 @@
+package com.reliaquest.server.web;
+
+import java.time.Duration;
+import java.util.Optional;
+
+/**
+ * Decides which requests the simulated upstream rate limit refuses. Implementations are called concurrently for every
+ * request that is not exempt.
+ */
+public interface RequestLimiter {
+
+    /**
+     * Lets a request from {@code client} through and counts it, or refuses it.
+     *
+     * @return empty if the request may proceed, otherwise how long {@code client} should wait before retrying
+     */
+    Optional<Duration> tryAcquire(String client);
+
+    /**
+     * @return the number of clients whose next request would currently be refused
+     */
+    int limitedClients();
+
+    /**
+     * A limiter that never refuses anything.
+     */
+    static RequestLimiter unlimited() {
+        return new RequestLimiter() {
+            @Override
+            public Optional<Duration> tryAcquire(String client) {
+                return Optional.empty();
+            }
+
+            @Override
+            public int limitedClients() {
+                return 0;
+            }
+        };
+    }
+}
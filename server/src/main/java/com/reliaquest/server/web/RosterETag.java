@@ -0,0 +1,84 @@
+package com.reliaquest.server.web;
+
+import static com.reliaquest.server.web.ContentNegotiation.APPLICATION_SMILE;
+import static com.reliaquest.server.web.ContentNegotiation.negotiate;
+
+import com.reliaquest.server.store.EmployeeStore;
+import jakarta.servlet.http.HttpServletRequest;
+import java.util.Map;
+import java.util.random.RandomGenerator;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+
+/**
+ * Strong entity tags for the roster, derived from the store version. The store version alone would repeat after a
+ * restart with different employees, so each server instance adds its own random epoch. The epoch is also handed out
+ * with roster versions, so that change feed requests can be refused when they name a version of another instance.
+ *
+ * <p>The roster is served as Smile too, and its tags carry a suffix, so that a client or cache holding one format is
+ * never told that the other has not been modified.
+ */
+@Component
+public class RosterETag {
+
+    // The MockEmployeeController routes that answer conditional GETs, and the format each offers besides Smile.
+    private static final Map<String, MediaType> ROSTER_PATHS = Map.of(
+            "/api/v1/employee", MediaType.APPLICATION_JSON, "/api/v1/employee/stream", MediaType.APPLICATION_NDJSON);
+
+    private final EmployeeStore employeeStore;
+    private final String epoch = Long.toHexString(RandomGenerator.getDefault().nextLong());
+
+    public RosterETag(EmployeeStore employeeStore) {
+        this.employeeStore = employeeStore;
+    }
+
+    public String epoch() {
+        return epoch;
+    }
+
+    /**
+     * @return the tag of the roster at {@code version} as JSON or JSON lines
+     */
+    public String of(long version) {
+        return of(version, MediaType.APPLICATION_JSON);
+    }
+
+    public String of(long version, MediaType format) {
+        final var suffix = APPLICATION_SMILE.equals(format) ? "-smile" : "";
+        return "\"" + epoch + "-" + version + suffix + "\"";
+    }
+
+    /**
+     * @return whether the request is a roster read that will be answered with 304, because its {@code If-None-Match}
+     *     names the roster as it is now
+     */
+    public boolean isNotModified(HttpServletRequest request) {
+        final var offered = ROSTER_PATHS.get(request.getRequestURI());
+        if (!HttpMethod.GET.matches(request.getMethod()) || offered == null) {
+            return false;
+        }
+        return matches(request, of(employeeStore.version(), negotiate(request, offered, APPLICATION_SMILE)));
+    }
+
+    /*
+     * If-None-Match always uses weak comparison, so a W/ prefix is ignored.
+     */
+    public boolean matches(HttpServletRequest request, String etag) {
+        final var ifNoneMatch = request.getHeader(HttpHeaders.IF_NONE_MATCH);
+        if (ifNoneMatch == null) {
+            return false;
+        }
+        for (var candidate : ifNoneMatch.split(",")) {
+            candidate = candidate.trim();
+            if (candidate.startsWith("W/")) {
+                candidate = candidate.substring(2);
+            }
+            if (candidate.equals("*") || candidate.equals(etag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
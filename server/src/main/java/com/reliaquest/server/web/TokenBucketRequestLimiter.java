@@ -0,0 +1,98 @@
+package com.reliaquest.server.web;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * Gives each client a token bucket of its own that holds up to {@code capacity} requests and refills at
+ * {@code refillPerSecond}. Clients never contend with each other, and a client that stays within the refill rate is
+ * never refused.
+ *
+ * <p>Each bucket is a single {@code long}, the time at which it will be full again (the "generic cell rate algorithm"),
+ * so taking a token is one compare-and-set and needs no lock. Full buckets carry no state and are dropped once there
+ * are many clients, so the map only holds clients that were active recently.
+ */
+public class TokenBucketRequestLimiter implements RequestLimiter {
+
+    private static final int SWEEP_THRESHOLD = 8192;
+
+    private final long intervalNanos;
+    private final long toleranceNanos;
+    private final LongSupplier nanoClock;
+    private final ConcurrentMap<String, AtomicLong> fullAt = new ConcurrentHashMap<>();
+    private final AtomicLong nextSweepSize = new AtomicLong(SWEEP_THRESHOLD);
+
+    public TokenBucketRequestLimiter(int capacity, double refillPerSecond) {
+        this(capacity, refillPerSecond, System::nanoTime);
+    }
+
+    TokenBucketRequestLimiter(int capacity, double refillPerSecond, LongSupplier nanoClock) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("capacity must be at least 1");
+        }
+        if (!(refillPerSecond > 0)) {
+            throw new IllegalArgumentException("refillPerSecond must be positive");
+        }
+        this.intervalNanos = Math.max(1, Math.round(Duration.ofSeconds(1).toNanos() / refillPerSecond));
+        this.toleranceNanos = intervalNanos * (capacity - 1);
+        this.nanoClock = nanoClock;
+    }
+
+    /*
+     * A bucket that is full at t holds (t - now) / interval fewer tokens than its capacity. Taking one moves t an
+     * interval further, which is allowed while that leaves at least one token.
+     */
+    @Override
+    public Optional<Duration> tryAcquire(String client) {
+        final var bucket = bucket(client);
+        while (true) {
+            final var now = nanoClock.getAsLong();
+            final var current = bucket.get();
+            final var full = Math.max(current, now);
+            if (full - now > toleranceNanos) {
+                return Optional.of(Duration.ofNanos(full - toleranceNanos - now));
+            }
+            if (bucket.compareAndSet(current, full + intervalNanos)) {
+                return Optional.empty();
+            }
+        }
+    }
+
+    @Override
+    public int limitedClients() {
+        final var now = nanoClock.getAsLong();
+        var limited = 0;
+        for (final var bucket : fullAt.values()) {
+            if (bucket.get() - now > toleranceNanos) {
+                limited++;
+            }
+        }
+        return limited;
+    }
+
+    private AtomicLong bucket(String client) {
+        final var existing = fullAt.get(client);
+        if (existing != null) {
+            return existing;
+        }
+        final var bucket = fullAt.computeIfAbsent(client, key -> new AtomicLong(Long.MIN_VALUE));
+        if (fullAt.size() > nextSweepSize.get()) {
+            sweep();
+        }
+        return bucket;
+    }
+
+    /*
+     * A request racing with the removal of its full bucket may be counted in a bucket that is then dropped, which only
+     * ever errs on the side of letting one more request through.
+     */
+    private void sweep() {
+        final var now = nanoClock.getAsLong();
+        fullAt.values().removeIf(bucket -> bucket.get() <= now);
+        nextSweepSize.set(Math.max(SWEEP_THRESHOLD, 2L * fullAt.size()));
+    }
+}
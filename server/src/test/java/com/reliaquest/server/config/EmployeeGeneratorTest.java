@@ -0,0 +1,97 @@
+package com.reliaquest.server.config;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.reliaquest.server.model.MockEmployee;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.UUID;
+import java.util.stream.IntStream;
+import org.junit.jupiter.api.Test;
+
+class EmployeeGeneratorTest {
+
+    private static final int COUNT = 500;
+
+    @Test
+    void generate_shouldYieldTheSameRosterForTheSameSeed() {
+        final var first = List.copyOf(new EmployeeGenerator(42, Locale.US).generate(COUNT));
+        final var second = List.copyOf(new EmployeeGenerator(42, Locale.US).generate(COUNT));
+        final var other = List.copyOf(new EmployeeGenerator(43, Locale.US).generate(COUNT));
+
+        assertEquals(first, second);
+        assertNotEquals(first, other);
+    }
+
+    /*
+     * A larger roster from the same seed starts with the smaller one.
+     */
+    @Test
+    void generate_shouldNotDependOnTheCount() {
+        final var generator = new EmployeeGenerator(42, Locale.US);
+
+        assertEquals(generator.generate(COUNT), generator.generate(COUNT * 2).subList(0, COUNT));
+    }
+
+    @Test
+    void generate_shouldBuildTheSameEmployeeWhateverTheOrderOrThreadOfAccess() {
+        final var roster = new EmployeeGenerator(42, Locale.US).generate(COUNT);
+        final var sequential = List.copyOf(roster);
+
+        final var reversed = new ArrayList<MockEmployee>();
+        for (var i = COUNT - 1; i >= 0; i--) {
+            reversed.add(0, roster.get(i));
+        }
+        final var parallel = IntStream.range(0, COUNT).parallel().mapToObj(roster::get).toList();
+
+        assertEquals(sequential, reversed);
+        assertEquals(sequential, parallel);
+        assertEquals(sequential, roster.parallelStream().toList());
+    }
+
+    @Test
+    void generate_shouldDrawDistinctVersion4Ids() {
+        final var ids = new HashSet<UUID>();
+        for (final var employee : new EmployeeGenerator(42, Locale.US).generate(COUNT)) {
+            assertEquals(4, employee.getId().version());
+            assertEquals(2, employee.getId().variant());
+            ids.add(employee.getId());
+        }
+
+        assertEquals(COUNT, ids.size());
+    }
+
+    /*
+     * Names repeat across a roster larger than the name pools, but each email carries the employee's index.
+     */
+    @Test
+    void generate_shouldDeriveAUniqueEmailFromEachName() {
+        final var roster = new EmployeeGenerator(42, Locale.US).generate(COUNT * 10);
+        final var emails = new HashSet<String>();
+        for (var i = 0; i < roster.size(); i++) {
+            final var employee = roster.get(i);
+            final var name = employee.getName().toLowerCase(Locale.ROOT).split(" ", 2);
+            final var local = employee.getEmail().substring(0, employee.getEmail().indexOf('@'));
+
+            assertEquals("@company.com", employee.getEmail().substring(local.length()));
+            assertTrue(local.endsWith(String.valueOf(i)), local);
+            assertTrue(local.startsWith(name[0].replaceAll("[^\\p{Alnum}]", "")), local);
+            emails.add(employee.getEmail());
+        }
+
+        assertEquals(roster.size(), emails.size());
+    }
+
+    @Test
+    void generate_shouldRejectIndexesOutsideTheRoster() {
+        final var roster = new EmployeeGenerator(42, Locale.US).generate(COUNT);
+
+        assertThrows(IndexOutOfBoundsException.class, () -> roster.get(COUNT));
+        assertThrows(IndexOutOfBoundsException.class, () -> roster.get(-1));
+    }
+}
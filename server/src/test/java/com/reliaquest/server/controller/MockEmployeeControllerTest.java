@@ -0,0 +1,293 @@
+package com.reliaquest.server.controller;
+
+import static com.reliaquest.server.web.ContentNegotiation.APPLICATION_SMILE;
+import static org.hamcrest.Matchers.hasItem;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.reliaquest.server.model.MockEmployee;
+import com.reliaquest.server.service.MockEmployeeService;
+import com.reliaquest.server.web.RosterETag;
+import java.io.ByteArrayInputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.GZIPInputStream;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+@SpringBootTest(properties = {"mock.employees.max=25", "mock.employees.seed=7", "mock.rate-limit.mode=off"})
+@AutoConfigureMockMvc
+class MockEmployeeControllerTest {
+
+    private static final String EMPLOYEES = "/api/v1/employee";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private MockEmployeeService mockEmployeeService;
+
+    @Autowired
+    private RosterETag rosterETag;
+
+    @Test
+    void getEmployeePage_shouldWalkTheRosterAndOmitTheCursorOnTheLastPage() throws Exception {
+        final var roster = ids(mockEmployeeService.getMockEmployees());
+
+        final var walked = new ArrayList<String>();
+        var page = page(0, 10);
+        while (page.has("nextCursor")) {
+            assertEquals(10, page.get("items").size());
+            page.get("items").forEach(item -> walked.add(item.get("id").asText()));
+            page = page(page.get("nextCursor").asLong(), 10);
+        }
+        page.get("items").forEach(item -> walked.add(item.get("id").asText()));
+
+        assertEquals(roster, walked);
+        mockMvc.perform(get(EMPLOYEES + "/page").param("cursor", "0").param("limit", String.valueOf(roster.size())))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.items.length()").value(roster.size()))
+                .andExpect(jsonPath("$.data.nextCursor").doesNotExist());
+    }
+
+    /*
+     * Employees created while a client is paging show up after the ones that were already there, and nothing that was
+     * there is skipped or repeated.
+     */
+    @Test
+    void getEmployeePage_shouldStayStableAcrossConcurrentInserts() throws Exception {
+        final var before = ids(mockEmployeeService.getMockEmployees());
+
+        final var walked = new ArrayList<String>();
+        var page = page(0, 7);
+        page.get("items").forEach(item -> walked.add(item.get("id").asText()));
+        final var created = new ArrayList<String>();
+        for (var i = 0; i < 3; i++) {
+            created.add(create("New Hire " + i));
+        }
+        while (page.has("nextCursor")) {
+            page = page(page.get("nextCursor").asLong(), 7);
+            page.get("items").forEach(item -> walked.add(item.get("id").asText()));
+        }
+
+        final var expected = new ArrayList<>(before);
+        expected.addAll(created);
+        assertEquals(expected, walked);
+    }
+
+    @Test
+    void streamEmployees_shouldWriteOneJsonDocumentPerLine() throws Exception {
+        final var snapshot = mockEmployeeService.getMockEmployeeSnapshot();
+
+        final var started = mockMvc.perform(get(EMPLOYEES + "/stream").accept(MediaType.APPLICATION_NDJSON))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        final var body = mockMvc.perform(asyncDispatch(started))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON))
+                .andExpect(header().string(
+                                MockEmployeeController.ROSTER_VERSION_HEADER, String.valueOf(snapshot.version())))
+                .andExpect(header().string(MockEmployeeController.ROSTER_EPOCH_HEADER, rosterETag.epoch()))
+                .andExpect(header().exists(HttpHeaders.ETAG))
+                .andExpect(header().stringValues(HttpHeaders.VARY, hasItem(HttpHeaders.ACCEPT)))
+                .andReturn()
+                .getResponse()
+                .getContentAsString();
+
+        assertTrue(body.endsWith("\n"));
+        final var streamed = new ArrayList<String>();
+        for (final var line : body.substring(0, body.length() - 1).split("\n", -1)) {
+            final var employee = objectMapper.readTree(line);
+            assertTrue(employee.isObject());
+            streamed.add(employee.get("id").asText());
+        }
+        assertEquals(ids(snapshot.employees()), streamed);
+    }
+
+    @Test
+    void getEmployees_shouldServeTheRawBodyToClientsThatDoNotAcceptGzip() throws Exception {
+        final var etag = rosterETag.of(mockEmployeeService.getMockEmployeeSnapshot().version());
+
+        for (final var acceptEncoding : List.of("identity", "gzip;q=0, deflate")) {
+            final var response = mockMvc.perform(get(EMPLOYEES).header(HttpHeaders.ACCEPT_ENCODING, acceptEncoding))
+                    .andExpect(status().isOk())
+                    .andExpect(header().doesNotExist(HttpHeaders.CONTENT_ENCODING))
+                    .andExpect(header().stringValues(HttpHeaders.VARY, hasItem(HttpHeaders.ACCEPT_ENCODING)))
+                    .andExpect(header().string(HttpHeaders.ETAG, etag))
+                    .andReturn()
+                    .getResponse();
+
+            assertEquals(response.getContentAsByteArray().length, response.getContentLength());
+            assertEquals(
+                    ids(mockEmployeeService.getMockEmployees()),
+                    ids(objectMapper.readTree(response.getContentAsByteArray()).get("data")));
+        }
+    }
+
+    /*
+     * The gzipped body is the raw one compressed, so it carries the weak form of the same ETag.
+     */
+    @Test
+    void getEmployees_shouldServeTheGzippedBodyToClientsThatAcceptIt() throws Exception {
+        final var etag = rosterETag.of(mockEmployeeService.getMockEmployeeSnapshot().version());
+        final var raw = mockMvc.perform(get(EMPLOYEES))
+                .andExpect(status().isOk())
+                .andReturn()
+                .getResponse()
+                .getContentAsByteArray();
+
+        final var response = mockMvc.perform(get(EMPLOYEES).header(HttpHeaders.ACCEPT_ENCODING, "deflate, GZIP;q=0.5"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.CONTENT_ENCODING, "gzip"))
+                .andExpect(header().stringValues(HttpHeaders.VARY, hasItem(HttpHeaders.ACCEPT_ENCODING)))
+                .andExpect(header().string(HttpHeaders.ETAG, "W/" + etag))
+                .andReturn()
+                .getResponse();
+
+        final var gzipped = response.getContentAsByteArray();
+        assertEquals(gzipped.length, response.getContentLength());
+        try (var gzip = new GZIPInputStream(new ByteArrayInputStream(gzipped))) {
+            assertArrayEquals(raw, gzip.readAllBytes());
+        }
+    }
+
+    @Test
+    void getEmployees_shouldRepeatTheWeakETagOfTheGzippedBodyIn304() throws Exception {
+        final var etag = rosterETag.of(mockEmployeeService.getMockEmployeeSnapshot().version());
+
+        mockMvc.perform(get(EMPLOYEES)
+                        .header(HttpHeaders.ACCEPT_ENCODING, "gzip")
+                        .header(HttpHeaders.IF_NONE_MATCH, "W/" + etag))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.ETAG, "W/" + etag));
+        mockMvc.perform(get(EMPLOYEES).header(HttpHeaders.IF_NONE_MATCH, "W/" + etag))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.ETAG, etag));
+    }
+
+    /*
+     * JSON and Smile are different bodies, so a tag held for one must never be answered with 304 for the other.
+     */
+    @Test
+    void rosterReads_shouldTagEachFormatApartAndVaryByAccept() throws Exception {
+        final var version = mockEmployeeService.getMockEmployeeSnapshot().version();
+        final var json = rosterETag.of(version);
+        final var smile = rosterETag.of(version, APPLICATION_SMILE);
+
+        mockMvc.perform(get(EMPLOYEES).accept(APPLICATION_SMILE))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(APPLICATION_SMILE))
+                .andExpect(header().string(HttpHeaders.ETAG, smile))
+                .andExpect(header().stringValues(HttpHeaders.VARY, hasItem(HttpHeaders.ACCEPT)));
+        mockMvc.perform(get(EMPLOYEES).accept(APPLICATION_SMILE).header(HttpHeaders.IF_NONE_MATCH, json))
+                .andExpect(status().isOk());
+        mockMvc.perform(get(EMPLOYEES).header(HttpHeaders.IF_NONE_MATCH, smile)).andExpect(status().isOk());
+        mockMvc.perform(get(EMPLOYEES).accept(APPLICATION_SMILE).header(HttpHeaders.IF_NONE_MATCH, smile))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.ETAG, smile));
+
+        mockMvc.perform(get(EMPLOYEES + "/stream")
+                        .accept(MediaType.APPLICATION_NDJSON)
+                        .header(HttpHeaders.IF_NONE_MATCH, smile))
+                .andExpect(request().asyncStarted());
+        mockMvc.perform(get(EMPLOYEES + "/stream")
+                        .accept(APPLICATION_SMILE)
+                        .header(HttpHeaders.IF_NONE_MATCH, smile))
+                .andExpect(status().isNotModified())
+                .andExpect(header().stringValues(HttpHeaders.VARY, hasItem(HttpHeaders.ACCEPT)));
+    }
+
+    /*
+     * A version handed out by another run of the server must not be answered from this run's change feed, even when
+     * this run happens to retain a version with the same number.
+     */
+    @Test
+    void getChanges_shouldRefuseAVersionFromAnotherEpoch() throws Exception {
+        final var version = String.valueOf(mockEmployeeService.getMockEmployeeSnapshot().version());
+
+        mockMvc.perform(get(EMPLOYEES + "/changes").param("since", version).param("epoch", rosterETag.epoch()))
+                .andExpect(status().isOk())
+                .andExpect(header().string(MockEmployeeController.ROSTER_EPOCH_HEADER, rosterETag.epoch()));
+        mockMvc.perform(get(EMPLOYEES + "/changes").param("since", version).param("epoch", "0"))
+                .andExpect(status().isGone())
+                .andExpect(header().string(MockEmployeeController.ROSTER_EPOCH_HEADER, rosterETag.epoch()));
+        mockMvc.perform(get(EMPLOYEES + "/changes").param("since", version)).andExpect(status().isOk());
+    }
+
+    /*
+     * Validation failures are answered with 400 on the single endpoints as well as on the batch ones, so a client can
+     * tell a rejected input apart from a server failure either way.
+     */
+    @Test
+    void singleWrites_shouldAnswerInvalidInputWithBadRequest() throws Exception {
+        final var size = mockEmployeeService.getMockEmployeeSnapshot().employees().size();
+
+        mockMvc.perform(post(EMPLOYEES)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(
+                                Map.of("name", "Too Young", "salary", 50000, "age", 15, "title", "Engineer"))))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.data").doesNotExist());
+        mockMvc.perform(delete(EMPLOYEES)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(Map.of("name", " "))))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.data").doesNotExist());
+
+        assertEquals(size, mockEmployeeService.getMockEmployeeSnapshot().employees().size());
+    }
+
+    private JsonNode page(long cursor, int limit) throws Exception {
+        final var response = mockMvc.perform(get(EMPLOYEES + "/page")
+                        .param("cursor", String.valueOf(cursor))
+                        .param("limit", String.valueOf(limit)))
+                .andExpect(status().isOk())
+                .andReturn()
+                .getResponse()
+                .getContentAsString();
+        return objectMapper.readTree(response).get("data");
+    }
+
+    private String create(String name) throws Exception {
+        final var response = mockMvc.perform(post(EMPLOYEES)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(
+                                Map.of("name", name, "salary", 50000, "age", 30, "title", "Engineer"))))
+                .andExpect(status().isOk())
+                .andReturn()
+                .getResponse()
+                .getContentAsString();
+        return objectMapper.readTree(response).get("data").get("id").asText();
+    }
+
+    private static List<String> ids(List<MockEmployee> employees) {
+        return employees.stream().map(employee -> employee.getId().toString()).toList();
+    }
+
+    private static List<String> ids(JsonNode employees) {
+        final var ids = new ArrayList<String>();
+        employees.forEach(employee -> ids.add(employee.get("id").asText()));
+        return ids;
+    }
+}
@@ -0,0 +1,138 @@
+package com.reliaquest.server.store;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.reliaquest.server.model.MockEmployee;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.stream.IntStream;
+import org.junit.jupiter.api.Test;
+
+class ColumnarEmployeeStoreTest {
+
+    @Test
+    void findById_shouldReturnEveryFieldAsItWasAddedOutsideAsciiAndNullsIncluded() {
+        final var store = new ColumnarEmployeeStore();
+        final var accented = new MockEmployee(
+                UUID.randomUUID(), "Zoë Øvergård", 89750, 24, "Ingénieure 🛠", "zoë@company.com");
+        final var cjk = new MockEmployee(UUID.randomUUID(), "山田 太郎", 50000, 30, "エンジニア", "yamada@company.com");
+        final var empty = new MockEmployee(UUID.randomUUID(), null, null, null, null, null);
+
+        store.addAll(List.of(accented, cjk, empty));
+
+        assertEquals(Optional.of(accented), store.findById(accented.getId()));
+        assertEquals(Optional.of(cjk), store.findById(cjk.getId()));
+        assertEquals(Optional.of(empty), store.findById(empty.getId()));
+        assertEquals(List.of(accented, cjk, empty), store.snapshot().employees());
+        assertEquals(Optional.of(accented), store.removeByName("ZOË ØVERGÅRD"));
+    }
+
+    /*
+     * Deleted rows stay linked in the id and name chains, so lookups have to skip them and find the row added later.
+     */
+    @Test
+    void removeByName_shouldSkipDeletedRowsOfAReaddedEmployee() {
+        final var store = new ColumnarEmployeeStore();
+        final var original = employee("Bill Bob");
+        final var other = employee("Jill Jenkins");
+        store.addAll(List.of(original, other));
+
+        assertEquals(Optional.of(original), store.removeByName("bill bob"));
+        store.add(original);
+        final var renamed = original.toBuilder().name("Bill Robert").build();
+        store.add(renamed);
+
+        assertEquals(Optional.of(renamed), store.findById(original.getId()));
+        assertEquals(Optional.empty(), store.removeByName("Bill Bob"));
+        assertEquals(List.of(other, renamed), store.snapshot().employees());
+        assertEquals(Optional.of(renamed), store.removeByName("Bill Robert"));
+        assertEquals(Optional.empty(), store.findById(original.getId()));
+        assertEquals(1, store.size());
+    }
+
+    @Test
+    void removeByName_shouldRemoveTheEarliestAddedOfDuplicateNames() {
+        final var store = new ColumnarEmployeeStore();
+        final var first = employee("Bill Bob");
+        final var second = employee("BILL BOB");
+        store.addAll(List.of(first, employee("Jill Jenkins"), second));
+
+        assertEquals(
+                List.of(Optional.of(first), Optional.of(second)),
+                store.removeAllByName(List.of("Bill Bob", "Bill Bob")));
+    }
+
+    /*
+     * Snapshots read their rows lazily, so they must keep reading the same employees while later writes delete, re-add
+     * and append rows, and when compaction replaces the columns underneath.
+     */
+    @Test
+    void snapshot_shouldStayTheSameUnderLaterWritesAndCompaction() {
+        final var store = new ColumnarEmployeeStore(Integer.MAX_VALUE);
+        final var loaded = employees("Loaded", 3000);
+        store.load(loaded);
+        final var snapshot = store.snapshot();
+
+        for (var i = 0; i < 2500; i++) {
+            store.removeByName("Loaded " + i);
+        }
+        store.add(loaded.get(2999).toBuilder().salary(1).build());
+        store.addAll(employees("Later", 100));
+
+        assertEquals(loaded, List.copyOf(snapshot.employees()));
+        assertEquals(3000, snapshot.employees().size());
+        assertEquals(600, store.snapshot().employees().size());
+    }
+
+    /*
+     * After compaction the store holds no more than about twice its live rows, and every live employee can still be
+     * found by id and by name.
+     */
+    @Test
+    void removeByName_shouldReclaimDeletedRows() {
+        final var store = new ColumnarEmployeeStore(Integer.MAX_VALUE);
+        final var loaded = employees("Loaded", 10000);
+        store.load(loaded);
+
+        for (var i = 0; i < 9000; i++) {
+            store.removeByName("Loaded " + i);
+        }
+
+        assertTrue(store.rowCount() <= 2 * store.size() + 1024, "rows: " + store.rowCount());
+        assertEquals(loaded.subList(9000, 10000), store.snapshot().employees());
+        assertEquals(Optional.of(loaded.get(9500)), store.findById(loaded.get(9500).getId()));
+        assertEquals(Optional.of(loaded.get(9999)), store.removeByName("Loaded 9999"));
+    }
+
+    @Test
+    void page_shouldContinueFromItsCursorAcrossCompaction() {
+        final var store = new ColumnarEmployeeStore(Integer.MAX_VALUE);
+        final var loaded = employees("Loaded", 5000);
+        store.load(loaded);
+
+        final var walked = new ArrayList<MockEmployee>();
+        var page = store.page(0, 4000);
+        walked.addAll(page.items());
+        for (var i = 0; i < 3000; i++) {
+            store.removeByName("Loaded " + i);
+        }
+        while (page.nextCursor() != null) {
+            page = store.page(page.nextCursor(), 300);
+            walked.addAll(page.items());
+        }
+
+        assertTrue(store.rowCount() < 5000, "rows: " + store.rowCount());
+        assertEquals(loaded, walked);
+    }
+
+    private static List<MockEmployee> employees(String prefix, int count) {
+        return IntStream.range(0, count).mapToObj(i -> employee(prefix + " " + i)).toList();
+    }
+
+    private static MockEmployee employee(String name) {
+        return new MockEmployee(UUID.randomUUID(), name, 50000, 30, "Engineer", "test@company.com");
+    }
+}
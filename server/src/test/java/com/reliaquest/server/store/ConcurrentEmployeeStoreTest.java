@@ -0,0 +1,219 @@
+package com.reliaquest.server.store;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.reliaquest.server.model.EmployeeChange;
+import com.reliaquest.server.model.MockEmployee;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.IntStream;
+import org.junit.jupiter.api.Test;
+
+class ConcurrentEmployeeStoreTest {
+
+    private static final int LOADED = 1000;
+    private static final int WRITERS = 4;
+    private static final int WRITES_PER_WRITER = 2000;
+
+    @Test
+    void removeByName_shouldRemoveTheEarliestAddedOfDuplicateNamesIgnoringCase() {
+        final var store = new ConcurrentEmployeeStore();
+        final var first = employee("Bill Bob");
+        final var second = employee("bill bob");
+        final var other = employee("Jill Jenkins");
+        final var third = employee("BILL BOB");
+        List.of(first, second, other, third).forEach(store::add);
+
+        assertEquals(Optional.of(first), store.removeByName("Bill Bob"));
+        assertEquals(Optional.of(second), store.removeByName("BILL BOB"));
+        assertEquals(Optional.of(third), store.removeByName("bill bob"));
+        assertEquals(Optional.empty(), store.removeByName("Bill Bob"));
+
+        assertEquals(List.of(other), store.snapshot().employees());
+        assertEquals(Optional.empty(), store.findById(first.getId()));
+    }
+
+    @Test
+    void removeAllByName_shouldReportEachNameInOrder() {
+        final var store = new ConcurrentEmployeeStore();
+        final var first = employee("Bill Bob");
+        final var second = employee("Bill Bob");
+        store.addAll(List.of(first, second));
+
+        assertEquals(
+                List.of(Optional.of(first), Optional.empty(), Optional.of(second)),
+                store.removeAllByName(List.of("Bill Bob", "Nobody", "Bill Bob")));
+        assertEquals(0, store.size());
+    }
+
+    @Test
+    void add_shouldReplaceAnEmployeeAddedAgainUnderTheSameId() {
+        final var store = new ConcurrentEmployeeStore();
+        final var original = employee("Bill Bob");
+        final var renamed = original.toBuilder().name("Jill Jenkins").build();
+
+        store.add(original);
+        store.add(renamed);
+
+        assertEquals(List.of(renamed), store.snapshot().employees());
+        assertEquals(Optional.empty(), store.removeByName("Bill Bob"));
+        assertEquals(Optional.of(renamed), store.removeByName("Jill Jenkins"));
+        assertEquals(0, store.size());
+    }
+
+    /*
+     * Writers create and delete while readers keep taking snapshots and walking pages. Every snapshot must hold exactly
+     * the employees its version says it does: the loaded ones plus the creates minus the deletes up to that version.
+     */
+    @Test
+    void concurrentWritesAndReads_shouldNeverFailOrTearASnapshot() throws Exception {
+        final var store = new ConcurrentEmployeeStore(Integer.MAX_VALUE);
+        store.load(IntStream.range(0, LOADED)
+                .mapToObj(i -> employee("Loaded " + i))
+                .toList());
+        final var executor = Executors.newFixedThreadPool(WRITERS + 2);
+        final var start = new CountDownLatch(1);
+        final var writing = new AtomicBoolean(true);
+        try {
+            final var writers = new ArrayList<Future<?>>();
+            for (var writer = 0; writer < WRITERS; writer++) {
+                final var id = writer;
+                writers.add(executor.submit(() -> {
+                    start.await();
+                    for (var i = 0; i < WRITES_PER_WRITER; i++) {
+                        store.add(employee("Writer " + id + " " + i));
+                        if (i % 2 == 1) {
+                            store.removeByName("Writer " + id + " " + (i - 1));
+                        }
+                        if (i < LOADED / WRITERS) {
+                            store.removeByName("Loaded " + (id * LOADED / WRITERS + i));
+                        }
+                    }
+                    return null;
+                }));
+            }
+            final Future<List<Snapshot>> snapshots = executor.submit(() -> {
+                start.await();
+                final var taken = new ArrayList<Snapshot>();
+                while (writing.get()) {
+                    final var snapshot = store.snapshot();
+                    snapshot.employees().forEach(Objects::requireNonNull);
+                    taken.add(snapshot);
+                }
+                return taken;
+            });
+            final Future<?> pages = executor.submit(() -> {
+                start.await();
+                while (writing.get()) {
+                    final var seen = new HashSet<UUID>();
+                    var page = store.page(0, 97);
+                    while (true) {
+                        page.items().forEach(employee -> assertTrue(seen.add(employee.getId())));
+                        if (page.nextCursor() == null) {
+                            break;
+                        }
+                        page = store.page(page.nextCursor(), 97);
+                    }
+                }
+                return null;
+            });
+
+            start.countDown();
+            for (final var writer : writers) {
+                writer.get(1, TimeUnit.MINUTES);
+            }
+            writing.set(false);
+            pages.get(1, TimeUnit.MINUTES);
+
+            final var changes = store.changesSince(LOADED).orElseThrow().changes();
+            final var taken = snapshots.get(1, TimeUnit.MINUTES);
+            taken.add(store.snapshot());
+            for (final var snapshot : taken) {
+                final var ids = new HashSet<UUID>();
+                snapshot.employees().forEach(employee -> assertTrue(ids.add(employee.getId())));
+                assertEquals(expectedSize(changes, snapshot.version()), snapshot.employees().size());
+            }
+            assertFalse(taken.isEmpty());
+            assertEquals(WRITERS * WRITES_PER_WRITER / 2, store.size());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    /*
+     * Every writer creates an employee and then deletes whichever employee of that name is oldest, often one another
+     * writer has only just created. Replaying the feed in version order must never delete an employee before creating
+     * it, and must end up with the employees the store holds.
+     */
+    @Test
+    void changesSince_shouldStampEachEmployeesChangesInTheOrderTheyWereApplied() throws Exception {
+        final var store = new ConcurrentEmployeeStore(Integer.MAX_VALUE);
+        final var executor = Executors.newFixedThreadPool(WRITERS);
+        final var start = new CountDownLatch(1);
+        try {
+            final var writers = new ArrayList<Future<?>>();
+            for (var writer = 0; writer < WRITERS; writer++) {
+                writers.add(executor.submit(() -> {
+                    start.await();
+                    for (var i = 0; i < WRITES_PER_WRITER; i++) {
+                        store.add(employee("Bill Bob"));
+                        store.removeByName("Bill Bob");
+                    }
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (final var writer : writers) {
+                writer.get(1, TimeUnit.MINUTES);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        final var feed = store.changesSince(0).orElseThrow();
+        final var replayed = new HashSet<UUID>();
+        var version = 0L;
+        for (final var change : feed.changes()) {
+            assertEquals(++version, change.version());
+            final var id = change.employee().getId();
+            if (change.type() == EmployeeChange.Type.CREATED) {
+                assertTrue(replayed.add(id), "created twice: " + id);
+            } else {
+                assertTrue(replayed.remove(id), "deleted before it was created: " + id);
+            }
+        }
+        assertEquals(store.version(), feed.version());
+        assertEquals(ids(store.snapshot().employees()), replayed);
+    }
+
+    private static HashSet<UUID> ids(List<MockEmployee> employees) {
+        final var ids = new HashSet<UUID>();
+        employees.forEach(employee -> ids.add(employee.getId()));
+        return ids;
+    }
+
+    private static long expectedSize(List<EmployeeChange> changes, long version) {
+        var size = (long) LOADED;
+        for (final var change : changes) {
+            if (change.version() <= version) {
+                size += change.type() == EmployeeChange.Type.CREATED ? 1 : -1;
+            }
+        }
+        return size;
+    }
+
+    private static MockEmployee employee(String name) {
+        return new MockEmployee(UUID.randomUUID(), name, 50000, 30, "Engineer", "test@company.com");
+    }
+}
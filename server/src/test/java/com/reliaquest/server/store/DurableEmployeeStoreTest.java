@@ -0,0 +1,161 @@
+package com.reliaquest.server.store;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.reliaquest.server.model.MockEmployee;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class DurableEmployeeStoreTest {
+
+    private static final List<MockEmployee> INITIAL =
+            IntStream.range(0, 3).mapToObj(i -> employee("Initial " + i)).toList();
+    private static final Supplier<List<MockEmployee>> NO_ROSTER = () -> {
+        throw new AssertionError("the roster should have been restored from disk");
+    };
+
+    @TempDir
+    private Path directory;
+
+    @Test
+    void open_shouldRestoreTheInitialRosterAndTheWritesLoggedSinceIt() {
+        final var added = employee("Bill Bob");
+        final List<MockEmployee> expected;
+        try (var store = open(() -> INITIAL, 1000)) {
+            store.add(added);
+            assertEquals(Optional.of(INITIAL.get(1)), store.removeByName("Initial 1"));
+            store.addAll(List.of(employee("Jill Jenkins"), employee("Jill Jenkins")));
+            store.removeAllByName(List.of("Jill Jenkins", "Nobody"));
+            expected = List.copyOf(store.snapshot().employees());
+        }
+
+        try (var store = open(NO_ROSTER, 1000)) {
+            assertEquals(expected, store.snapshot().employees());
+            assertEquals(Optional.of(added), store.findById(added.getId()));
+        }
+    }
+
+    /*
+     * Snapshots are taken in the background every few records; closing waits for one in progress. The log they cover
+     * is deleted, and recovery loads the latest snapshot and replays only what came after it.
+     */
+    @Test
+    void open_shouldRecoverFromTheLatestSnapshotAndTheLogAfterIt() throws IOException {
+        final List<MockEmployee> expected;
+        try (var store = open(() -> INITIAL, 5)) {
+            for (var i = 0; i < 23; i++) {
+                store.add(employee("Writer " + i));
+                if (i % 3 == 0) {
+                    store.removeByName("Writer " + i);
+                }
+            }
+            expected = List.copyOf(store.snapshot().employees());
+        }
+
+        final var snapshots = files(".rqes");
+        assertEquals(1, snapshots.size());
+        assertFalse(snapshots.get(0).getFileName().toString().endsWith("00000000000000000000.rqes"));
+        assertFalse(files(".log").stream().anyMatch(path -> path.getFileName().toString().endsWith("001.log")));
+        try (var store = open(NO_ROSTER, 5)) {
+            assertEquals(expected, store.snapshot().employees());
+        }
+    }
+
+    @Test
+    void open_shouldDropAWriteWhoseRecordWasCutShort() throws IOException {
+        final var kept = employee("Bill Bob");
+        try (var store = open(() -> INITIAL, 1000)) {
+            store.add(kept);
+            store.add(employee("Jill Jenkins"));
+        }
+        final var segment = files(".log").get(0);
+        try (var file = new RandomAccessFile(segment.toFile(), "rw")) {
+            file.setLength(file.length() - 1);
+        }
+
+        final var later = employee("Ada Lovelace");
+        try (var store = open(NO_ROSTER, 1000)) {
+            assertEquals(4, store.size());
+            assertEquals(Optional.of(kept), store.findById(kept.getId()));
+            store.add(later);
+        }
+        try (var store = open(NO_ROSTER, 1000)) {
+            assertEquals(Optional.of(later), store.findById(later.getId()));
+            assertEquals(5, store.size());
+        }
+    }
+
+    /*
+     * With a long group commit window the record stays buffered for a while; the write must not be visible meanwhile,
+     * since a crash then would lose it.
+     */
+    @Test
+    void add_shouldOnlyBecomeVisibleOnceDurable() throws Exception {
+        final var added = employee("Bill Bob");
+        try (var store = DurableEmployeeStore.open(
+                new ConcurrentEmployeeStore(), directory, () -> INITIAL, 1000, Duration.ofMillis(500))) {
+            final var adding = CompletableFuture.runAsync(() -> store.add(added));
+            TimeUnit.MILLISECONDS.sleep(100);
+
+            assertEquals(Optional.empty(), store.findById(added.getId()));
+            adding.get(5, TimeUnit.SECONDS);
+            assertEquals(Optional.of(added), store.findById(added.getId()));
+        }
+    }
+
+    @Test
+    void concurrentWrites_shouldReplayToTheSameRoster() throws Exception {
+        final List<MockEmployee> expected;
+        try (var store = open(() -> INITIAL, 50)) {
+            final var writers = IntStream.range(0, 4)
+                    .mapToObj(writer -> CompletableFuture.runAsync(() -> {
+                        for (var i = 0; i < 200; i++) {
+                            store.add(employee("Bill Bob"));
+                            store.removeByName("Bill Bob");
+                            store.add(employee("Writer " + writer));
+                        }
+                    }))
+                    .toList();
+            for (final var writer : writers) {
+                writer.get(1, TimeUnit.MINUTES);
+            }
+            expected = List.copyOf(store.snapshot().employees());
+        }
+
+        try (var store = open(NO_ROSTER, 50)) {
+            assertEquals(expected, store.snapshot().employees());
+            assertTrue(store.snapshot().employees().stream()
+                    .noneMatch(employee -> employee.getName().equals("Bill Bob")));
+        }
+    }
+
+    private DurableEmployeeStore open(Supplier<List<MockEmployee>> initialRoster, int snapshotEvery) {
+        return DurableEmployeeStore.open(
+                new ConcurrentEmployeeStore(), directory, initialRoster, snapshotEvery, Duration.ZERO);
+    }
+
+    private List<Path> files(String suffix) throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(path -> path.getFileName().toString().endsWith(suffix)).sorted().toList();
+        }
+    }
+
+    private static MockEmployee employee(String name) {
+        return new MockEmployee(UUID.randomUUID(), name, 50000, 30, "Engineer", "test@company.com");
+    }
+}
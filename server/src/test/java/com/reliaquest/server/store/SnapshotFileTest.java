@@ -0,0 +1,127 @@
+package com.reliaquest.server.store;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import com.reliaquest.server.config.EmployeeGenerator;
+import com.reliaquest.server.model.MockEmployee;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.RandomAccess;
+import java.util.UUID;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class SnapshotFileTest {
+
+    private static final int CHUNK_SIZE = 8192;
+
+    @TempDir
+    private Path directory;
+
+    /*
+     * Two full chunks and a partial one, with the fields that may be null left out and names outside ASCII.
+     */
+    @Test
+    void read_shouldReturnWhatWasWrittenAcrossSeveralChunks() {
+        final var employees = new ArrayList<>(new EmployeeGenerator(42, Locale.US).generate(2 * CHUNK_SIZE + 17));
+        employees.add(new MockEmployee(UUID.randomUUID(), null, null, null, null, null));
+        employees.add(new MockEmployee(UUID.randomUUID(), "Zoë Øvergård 山田", 50000, 30, "", "zoe@company.com"));
+        final var path = directory.resolve("employees.snapshot");
+
+        SnapshotFile.write(path, employees);
+
+        assertEquals(employees, SnapshotFile.read(path));
+    }
+
+    /*
+     * The list is a view over the file: every read decodes the employee again, in whatever order, and a store loads
+     * from it without the whole roster being built first.
+     */
+    @Test
+    void read_shouldDecodeEachEmployeeOnAccess() {
+        final var employees = new EmployeeGenerator(7, Locale.US).generate(CHUNK_SIZE + 5);
+        final var path = directory.resolve("employees.snapshot");
+        SnapshotFile.write(path, employees);
+
+        final var read = SnapshotFile.read(path);
+
+        assertInstanceOf(RandomAccess.class, read);
+        for (var i = read.size() - 1; i >= 0; i -= 97) {
+            assertEquals(employees.get(i), read.get(i));
+        }
+        assertNotSame(read.get(CHUNK_SIZE), read.get(CHUNK_SIZE));
+        assertThrows(IndexOutOfBoundsException.class, () -> read.get(read.size()));
+        final var store = new ColumnarEmployeeStore();
+        store.load(read);
+        assertEquals(employees, store.snapshot().employees());
+    }
+
+    @Test
+    void read_shouldReturnAnEmptyRoster() {
+        final var path = directory.resolve("employees.snapshot");
+
+        SnapshotFile.write(path, List.of());
+
+        assertEquals(List.of(), SnapshotFile.read(path));
+    }
+
+    @Test
+    void write_shouldReplaceAnExistingSnapshotWithoutLeavingTemporaryFiles() throws IOException {
+        final var path = directory.resolve("employees.snapshot");
+        final var generator = new EmployeeGenerator(42, Locale.US);
+
+        SnapshotFile.write(path, generator.generate(CHUNK_SIZE + 1));
+        SnapshotFile.write(path, generator.generate(3));
+
+        assertEquals(generator.generate(3), SnapshotFile.read(path));
+        try (var files = Files.list(directory)) {
+            assertEquals(List.of(path), files.toList());
+        }
+    }
+
+    @Test
+    void read_shouldRejectAFileWithoutTheMagic() throws IOException {
+        final var path = directory.resolve("employees.snapshot");
+        Files.write(path, header(0x12345678, 1));
+
+        assertThrows(UncheckedIOException.class, () -> SnapshotFile.read(path));
+    }
+
+    @Test
+    void read_shouldRejectAnotherFormat() throws IOException {
+        final var path = directory.resolve("employees.snapshot");
+        Files.write(path, header(0x52514553, 2));
+
+        assertThrows(UncheckedIOException.class, () -> SnapshotFile.read(path));
+    }
+
+    @Test
+    void read_shouldRejectAMissingFile() {
+        assertThrows(UncheckedIOException.class, () -> SnapshotFile.read(directory.resolve("missing.snapshot")));
+    }
+
+    /*
+     * A complete header for an empty snapshot, but with the given magic and format.
+     */
+    private static byte[] header(int magic, int format) throws IOException {
+        final var bytes = new ByteArrayOutputStream();
+        try (var out = new DataOutputStream(bytes)) {
+            out.writeInt(magic);
+            out.writeInt(format);
+            out.writeInt(0);
+            out.writeInt(CHUNK_SIZE);
+            out.writeInt(0);
+        }
+        return bytes.toByteArray();
+    }
+}
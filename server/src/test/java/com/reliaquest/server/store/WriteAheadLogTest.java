@@ -0,0 +1,302 @@
+package com.reliaquest.server.store;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class WriteAheadLogTest {
+
+    private static final int FRAME_HEADER_BYTES = 16;
+
+    @TempDir
+    private Path directory;
+
+    @Test
+    void replay_shouldReturnTheRecordsAfterTheGivenSequenceInOrder() {
+        write(0, "first", "second", "third");
+
+        assertEquals(List.of("first", "second", "third"), replay(0));
+        assertEquals(List.of("second", "third"), replay(1));
+        assertEquals(List.of(), replay(3));
+        assertEquals(3, WriteAheadLog.replay(directory, 0, record -> {}));
+    }
+
+    /*
+     * A crash in the middle of a write leaves the last frame cut short. Replay drops it, and the log continues after
+     * the last intact record.
+     */
+    @Test
+    void replay_shouldDiscardAPartialTrailingFrame() throws IOException {
+        write(0, "first", "second", "third");
+        final var segment = segments().get(0);
+        final var intact = Files.size(segment) - FRAME_HEADER_BYTES - "third".length();
+        truncate(segment, Files.size(segment) - 2);
+
+        assertEquals(List.of("first", "second"), replay(0));
+        assertEquals(intact, Files.size(segment));
+
+        write(2, "fourth");
+        assertEquals(List.of("first", "second", "fourth"), replay(0));
+    }
+
+    @Test
+    void replay_shouldDiscardAFrameHeaderCutShort() throws IOException {
+        write(0, "first");
+        final var segment = segments().get(0);
+        try (var file = new RandomAccessFile(segment.toFile(), "rw")) {
+            file.seek(file.length());
+            file.write(new byte[] {0, 0, 0, 5, 1, 2});
+        }
+
+        assertEquals(List.of("first"), replay(0));
+        assertEquals(FRAME_HEADER_BYTES + "first".length(), Files.size(segment));
+    }
+
+    /*
+     * Everything after a frame that fails its checksum is discarded, later segments included, since records after a
+     * gap could not be applied in order.
+     */
+    @Test
+    void replay_shouldDiscardEverythingFromAFrameThatFailsItsChecksum() throws IOException {
+        final var log = new WriteAheadLog(directory, 0, Duration.ZERO);
+        log.append(bytes("first"));
+        log.append(bytes("second"));
+        log.rotate();
+        log.awaitDurable(log.append(bytes("third")));
+        log.close();
+        final var first = segments().get(0);
+        try (var file = new RandomAccessFile(first.toFile(), "rw")) {
+            final var position = 2L * FRAME_HEADER_BYTES + "first".length() + 1;
+            file.seek(position);
+            final var original = file.read();
+            file.seek(position);
+            file.write(original ^ 0xFF);
+        }
+
+        assertEquals(List.of("first"), replay(0));
+        assertEquals(List.of(first), segments());
+    }
+
+    @Test
+    void rotate_shouldStartASegmentThatTruncationLeavesInPlace() {
+        final var log = new WriteAheadLog(directory, 0, Duration.ZERO);
+        log.append(bytes("first"));
+        log.append(bytes("second"));
+        assertEquals(2, log.rotate());
+        log.awaitDurable(log.append(bytes("third")));
+        assertEquals(2, segments().size());
+
+        log.truncateThrough(2);
+        log.close();
+
+        assertEquals(1, segments().size());
+        assertEquals(List.of("third"), replay(2));
+    }
+
+    @Test
+    void truncateThrough_shouldKeepSegmentsWithRecordsAfterTheSequence() {
+        final var log = new WriteAheadLog(directory, 0, Duration.ZERO);
+        log.append(bytes("first"));
+        log.append(bytes("second"));
+        log.rotate();
+        log.awaitDurable(log.append(bytes("third")));
+
+        log.truncateThrough(1);
+        log.close();
+
+        assertEquals(List.of("first", "second", "third"), replay(0));
+    }
+
+    /*
+     * The record's bytes reach the segment but its fsync fails. Its writer is told so, and the record must not come
+     * back on replay.
+     */
+    @Test
+    void awaitDurable_shouldDiscardTheRecordsOfAFlushThatFailed() {
+        final var failNextForce = new AtomicBoolean();
+        final var log = new WriteAheadLog(
+                directory,
+                0,
+                Duration.ZERO,
+                path -> new FailingForceChannel(
+                        FileChannel.open(
+                                path,
+                                StandardOpenOption.CREATE,
+                                StandardOpenOption.WRITE,
+                                StandardOpenOption.TRUNCATE_EXISTING),
+                        failNextForce));
+        log.awaitDurable(log.append(bytes("first")));
+
+        failNextForce.set(true);
+        final var second = log.append(bytes("second"));
+        assertThrows(UncheckedIOException.class, () -> log.awaitDurable(second));
+        assertThrows(UncheckedIOException.class, () -> log.append(bytes("third")));
+        log.close();
+
+        assertEquals(List.of("first"), replay(0));
+    }
+
+    private void write(long lastSequence, String... records) {
+        final var log = new WriteAheadLog(directory, lastSequence, Duration.ZERO);
+        var sequence = lastSequence;
+        for (final var record : records) {
+            sequence = log.append(bytes(record));
+        }
+        log.awaitDurable(sequence);
+        log.close();
+    }
+
+    private List<String> replay(long afterSequence) {
+        final var records = new ArrayList<String>();
+        WriteAheadLog.replay(directory, afterSequence, record -> records.add(string(record)));
+        return records;
+    }
+
+    private List<Path> segments() {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(path -> path.getFileName().toString().endsWith(".log")).sorted().toList();
+        } catch (IOException e) {
+            throw new AssertionError(e);
+        }
+    }
+
+    private static void truncate(Path path, long length) throws IOException {
+        try (var file = new RandomAccessFile(path.toFile(), "rw")) {
+            file.setLength(length);
+        }
+    }
+
+    private static byte[] bytes(String record) {
+        return record.getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static String string(ByteBuffer record) {
+        final var bytes = new byte[record.remaining()];
+        record.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /*
+     * A segment whose next fsync fails once told to, after the bytes have been written.
+     */
+    private static final class FailingForceChannel extends FileChannel {
+
+        private final FileChannel delegate;
+        private final AtomicBoolean failNextForce;
+
+        FailingForceChannel(FileChannel delegate, AtomicBoolean failNextForce) {
+            this.delegate = delegate;
+            this.failNextForce = failNextForce;
+        }
+
+        @Override
+        public void force(boolean metaData) throws IOException {
+            if (failNextForce.getAndSet(false)) {
+                throw new IOException("fsync failed");
+            }
+            delegate.force(metaData);
+        }
+
+        @Override
+        public int read(ByteBuffer dst) throws IOException {
+            return delegate.read(dst);
+        }
+
+        @Override
+        public long read(ByteBuffer[] dsts, int offset, int length) throws IOException {
+            return delegate.read(dsts, offset, length);
+        }
+
+        @Override
+        public int write(ByteBuffer src) throws IOException {
+            return delegate.write(src);
+        }
+
+        @Override
+        public long write(ByteBuffer[] srcs, int offset, int length) throws IOException {
+            return delegate.write(srcs, offset, length);
+        }
+
+        @Override
+        public long position() throws IOException {
+            return delegate.position();
+        }
+
+        @Override
+        public FileChannel position(long newPosition) throws IOException {
+            delegate.position(newPosition);
+            return this;
+        }
+
+        @Override
+        public long size() throws IOException {
+            return delegate.size();
+        }
+
+        @Override
+        public FileChannel truncate(long size) throws IOException {
+            delegate.truncate(size);
+            return this;
+        }
+
+        @Override
+        public long transferTo(long position, long count, WritableByteChannel target) throws IOException {
+            return delegate.transferTo(position, count, target);
+        }
+
+        @Override
+        public long transferFrom(ReadableByteChannel src, long position, long count) throws IOException {
+            return delegate.transferFrom(src, position, count);
+        }
+
+        @Override
+        public int read(ByteBuffer dst, long position) throws IOException {
+            return delegate.read(dst, position);
+        }
+
+        @Override
+        public int write(ByteBuffer src, long position) throws IOException {
+            return delegate.write(src, position);
+        }
+
+        @Override
+        public MappedByteBuffer map(MapMode mode, long position, long size) throws IOException {
+            return delegate.map(mode, position, size);
+        }
+
+        @Override
+        public FileLock lock(long position, long size, boolean shared) throws IOException {
+            return delegate.lock(position, size, shared);
+        }
+
+        @Override
+        public FileLock tryLock(long position, long size, boolean shared) throws IOException {
+            return delegate.tryLock(position, size, shared);
+        }
+
+        @Override
+        protected void implCloseChannel() throws IOException {
+            delegate.close();
+        }
+    }
+}
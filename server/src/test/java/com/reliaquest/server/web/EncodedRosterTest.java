@@ -0,0 +1,55 @@
+package com.reliaquest.server.web;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.reliaquest.server.model.MockEmployee;
+import com.reliaquest.server.store.Snapshot;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.zip.GZIPInputStream;
+import org.junit.jupiter.api.Test;
+
+class EncodedRosterTest {
+
+    private static final List<MockEmployee> ROSTER = List.of(employee("Bill Bob"), employee("Jill Jenkins"));
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final EncodedRoster encodedRoster = new EncodedRoster(new ObjectMapper(), meterRegistry, 2);
+
+    @Test
+    void of_shouldEncodeEachVersionOnceAndGzipTheSameBytes() throws IOException {
+        final var body = encodedRoster.of(new Snapshot(1, ROSTER)).orElseThrow();
+
+        assertSame(body, encodedRoster.of(new Snapshot(1, ROSTER)).orElseThrow());
+        try (var gzip = new GZIPInputStream(new ByteArrayInputStream(body.gzip()))) {
+            assertArrayEquals(body.raw(), gzip.readAllBytes());
+        }
+        assertEquals(1, encodings());
+    }
+
+    @Test
+    void of_shouldNotKeepARosterLargerThanTheLimitEncoded() {
+        encodedRoster.of(new Snapshot(1, ROSTER));
+        final var larger = List.of(ROSTER.get(0), ROSTER.get(1), employee("Ada Lovelace"));
+
+        assertEquals(Optional.empty(), encodedRoster.of(new Snapshot(2, larger)));
+        assertEquals(1, encodings());
+        encodedRoster.of(new Snapshot(3, ROSTER));
+        assertEquals(2, encodings());
+    }
+
+    private double encodings() {
+        return meterRegistry.get("mock.roster.encodings").counter().count();
+    }
+
+    private static MockEmployee employee(String name) {
+        return new MockEmployee(UUID.randomUUID(), name, 50000, 30, "Engineer", "test@company.com");
+    }
+}
@@ -0,0 +1,74 @@
+package com.reliaquest.server.web;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+import java.util.HashSet;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+import org.junit.jupiter.api.Test;
+
+class GlobalBackoffRequestLimiterTest {
+
+    private static final Duration BACKOFF = Duration.ofSeconds(10);
+
+    private final AtomicLong clock = new AtomicLong(Duration.ofDays(1).toNanos());
+    private final GlobalBackoffRequestLimiter limiter = new GlobalBackoffRequestLimiter(3, BACKOFF, clock::get);
+
+    @Test
+    void tryAcquire_shouldRefuseEveryClientAfterTheLimitUntilTheBackoffHasPassed() {
+        for (var i = 0; i < 3; i++) {
+            assertEquals(Optional.empty(), limiter.tryAcquire("client " + i));
+            advance(Duration.ofSeconds(1));
+        }
+
+        assertEquals(Optional.of(Duration.ofSeconds(9)), limiter.tryAcquire("client 0"));
+        assertEquals(Optional.of(Duration.ofSeconds(9)), limiter.tryAcquire("another client"));
+        assertEquals(1, limiter.limitedClients());
+        advance(Duration.ofSeconds(9));
+        assertEquals(0, limiter.limitedClients());
+    }
+
+    /*
+     * Refused requests do not extend the backoff, and the request that ends it starts a new window without counting
+     * towards it.
+     */
+    @Test
+    void tryAcquire_shouldStartOverOnceTheBackoffHasPassed() {
+        for (var i = 0; i < 3; i++) {
+            limiter.tryAcquire("client");
+        }
+        advance(Duration.ofSeconds(6));
+        limiter.tryAcquire("client");
+        advance(Duration.ofSeconds(4));
+
+        for (var i = 0; i < 4; i++) {
+            assertEquals(Optional.empty(), limiter.tryAcquire("client"));
+        }
+        assertEquals(Optional.of(BACKOFF), limiter.tryAcquire("client"));
+    }
+
+    @Test
+    void seeded_shouldDrawTheSameLimitAndBackoffFromTheSameSeed() {
+        final var limits = new HashSet<Integer>();
+        for (var seed = 0L; seed < 200; seed++) {
+            final var first = GlobalBackoffRequestLimiter.seeded(seed);
+            final var second = GlobalBackoffRequestLimiter.seeded(seed);
+
+            assertEquals(first.limit(), second.limit());
+            assertEquals(first.backoff(), second.backoff());
+            assertTrue(first.limit() >= 5 && first.limit() <= 9, "limit " + first.limit());
+            assertTrue(
+                    first.backoff().toSeconds() >= 30 && first.backoff().toSeconds() <= 89,
+                    "backoff " + first.backoff());
+            limits.add(first.limit());
+        }
+
+        assertEquals(5, limits.size());
+    }
+
+    private void advance(Duration duration) {
+        clock.addAndGet(duration.toNanos());
+    }
+}
@@ -0,0 +1,86 @@
+package com.reliaquest.server.web;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+/*
+ * Each client may make one request, and then has to wait minutes for the next.
+ */
+@SpringBootTest(
+        properties = {
+            "mock.employees.max=5",
+            "mock.rate-limit.mode=token-bucket",
+            "mock.rate-limit.capacity=1",
+            "mock.rate-limit.refill-rate=0.001"
+        })
+@AutoConfigureMockMvc
+class RequestLimitInterceptorTest {
+
+    private static final String EMPLOYEES = "/api/v1/employee";
+    private static final String CLIENT_HEADER = "X-Client-Id";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Test
+    void preHandle_shouldAnswerConditionalRosterReadsWith304WithoutCountingThem() throws Exception {
+        final var etag = mockMvc.perform(get(EMPLOYEES).header(CLIENT_HEADER, "conditional"))
+                .andExpect(status().isOk())
+                .andReturn()
+                .getResponse()
+                .getHeader(HttpHeaders.ETAG);
+
+        for (var i = 0; i < 5; i++) {
+            mockMvc.perform(get(EMPLOYEES)
+                            .header(CLIENT_HEADER, "conditional")
+                            .header(HttpHeaders.IF_NONE_MATCH, etag))
+                    .andExpect(status().isNotModified())
+                    .andExpect(header().string(HttpHeaders.ETAG, etag));
+            mockMvc.perform(get(EMPLOYEES + "/stream")
+                            .accept(MediaType.APPLICATION_NDJSON)
+                            .header(CLIENT_HEADER, "conditional")
+                            .header(HttpHeaders.IF_NONE_MATCH, etag))
+                    .andExpect(status().isNotModified());
+        }
+
+        mockMvc.perform(get(EMPLOYEES).header(CLIENT_HEADER, "conditional"))
+                .andExpect(status().isTooManyRequests())
+                .andExpect(header().exists(HttpHeaders.RETRY_AFTER));
+    }
+
+    /*
+     * A weak validator from the gzipped roster names the same roster, so it is exempt too.
+     */
+    @Test
+    void preHandle_shouldExemptTheWeakETagOfTheGzippedRoster() throws Exception {
+        final var etag = mockMvc.perform(get(EMPLOYEES)
+                        .header(CLIENT_HEADER, "gzip")
+                        .header(HttpHeaders.ACCEPT_ENCODING, "gzip"))
+                .andExpect(status().isOk())
+                .andReturn()
+                .getResponse()
+                .getHeader(HttpHeaders.ETAG);
+
+        mockMvc.perform(get(EMPLOYEES).header(CLIENT_HEADER, "gzip").header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified());
+    }
+
+    @Test
+    void preHandle_shouldCountConditionalReadsOfAnOutdatedRoster() throws Exception {
+        mockMvc.perform(get(EMPLOYEES).header(CLIENT_HEADER, "outdated")).andExpect(status().isOk());
+
+        mockMvc.perform(get(EMPLOYEES)
+                        .header(CLIENT_HEADER, "outdated")
+                        .header(HttpHeaders.IF_NONE_MATCH, "\"0-0\""))
+                .andExpect(status().isTooManyRequests());
+    }
+}
@@ -0,0 +1,70 @@
+package com.reliaquest.server.web;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+import org.junit.jupiter.api.Test;
+
+class TokenBucketRequestLimiterTest {
+
+    private final AtomicLong clock = new AtomicLong(Duration.ofDays(1).toNanos());
+    private final TokenBucketRequestLimiter limiter = new TokenBucketRequestLimiter(3, 2, clock::get);
+
+    @Test
+    void tryAcquire_shouldLetAFullBurstThroughAndThenRefuseUntilATokenIsBack() {
+        for (var i = 0; i < 3; i++) {
+            assertEquals(Optional.empty(), limiter.tryAcquire("client"));
+        }
+
+        assertEquals(Optional.of(Duration.ofMillis(500)), limiter.tryAcquire("client"));
+        advance(Duration.ofMillis(200));
+        assertEquals(Optional.of(Duration.ofMillis(300)), limiter.tryAcquire("client"));
+        advance(Duration.ofMillis(300));
+        assertEquals(Optional.empty(), limiter.tryAcquire("client"));
+        assertEquals(Optional.of(Duration.ofMillis(500)), limiter.tryAcquire("client"));
+    }
+
+    @Test
+    void tryAcquire_shouldRefillNoFurtherThanTheCapacity() {
+        limiter.tryAcquire("client");
+        advance(Duration.ofMinutes(1));
+
+        for (var i = 0; i < 3; i++) {
+            assertEquals(Optional.empty(), limiter.tryAcquire("client"));
+        }
+        assertEquals(Optional.of(Duration.ofMillis(500)), limiter.tryAcquire("client"));
+    }
+
+    @Test
+    void tryAcquire_shouldNeverRefuseAClientWithinTheRefillRate() {
+        for (var i = 0; i < 1000; i++) {
+            assertEquals(Optional.empty(), limiter.tryAcquire("client"));
+            advance(Duration.ofMillis(500));
+        }
+    }
+
+    @Test
+    void tryAcquire_shouldGiveEachClientABucketOfItsOwn() {
+        for (var i = 0; i < 3; i++) {
+            limiter.tryAcquire("busy");
+        }
+
+        assertEquals(Optional.empty(), limiter.tryAcquire("quiet"));
+        assertEquals(1, limiter.limitedClients());
+        advance(Duration.ofMillis(500));
+        assertEquals(0, limiter.limitedClients());
+    }
+
+    @Test
+    void constructor_shouldRejectAnEmptyOrNeverRefilledBucket() {
+        assertThrows(IllegalArgumentException.class, () -> new TokenBucketRequestLimiter(0, 1, clock::get));
+        assertThrows(IllegalArgumentException.class, () -> new TokenBucketRequestLimiter(1, 0, clock::get));
+    }
+
+    private void advance(Duration duration) {
+        clock.addAndGet(duration.toNanos());
+    }
+}